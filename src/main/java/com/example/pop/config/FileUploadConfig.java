@@ -17,6 +17,166 @@ public class FileUploadConfig {
     @Value("${file.url-path}")
     private String urlPath;
 
+    /**
+     * 내용 기반 저장 사용 여부
+     * true 면 파일 내용의 SHA-256 해시를 파일명으로 사용하여 같은 내용은 한 번만 저장
+     */
+    @Value("${file.content-addressed:true}")
+    private boolean contentAddressed;
+
+    /**
+     * 해시 앞자리로 디렉토리 분산 저장 (예: ab/cd/abcd....png)
+     * 한 디렉토리에 파일이 수만 개 쌓여 목록 조회 / 생성이 느려지는 것을 방지 (내용 기반 저장일 때만)
+     */
+    @Value("${file.sharded:true}")
+    private boolean sharded;
+
+    /**
+     * 비동기 쓰기 사용 여부
+     * 요청 스레드는 임시 파일 복사(+해시)까지만 하고, fsync 와 최종 위치 이동은 별도 스레드에서 처리
+     */
+    @Value("${file.async-write.enabled:false}")
+    private boolean asyncWriteEnabled;
+
+    /** 비동기 쓰기 스레드 수 */
+    @Value("${file.async-write.threads:4}")
+    private int asyncWriteThreads;
+
+    /** 비동기 쓰기 대기열 크기 (가득 차면 요청 스레드에서 직접 처리) */
+    @Value("${file.async-write.queue-size:200}")
+    private int asyncWriteQueueSize;
+
+    /**
+     * 다중 파일 업로드 병렬 저장 스레드 수 (검증 / 해시 / 디스크 기록 / 이미지 정보, 0 이면 CPU 코어 수)
+     */
+    @Value("${file.store.threads:0}")
+    private int storeThreads;
+
+    /** 병렬 저장 대기열 크기 (가득 차면 요청 스레드에서 직접 처리) */
+    @Value("${file.store.queue-size:200}")
+    private int storeQueueSize;
+
+    /** 스트리밍 업로드 파일 1개 최대 크기 (bytes, 넘는 순간 요청 거절) */
+    @Value("${file.stream.max-file-size:10485760}")
+    private long streamMaxFileSize;
+
+    /** 스트리밍 업로드 요청당 최대 파일 수 */
+    @Value("${file.stream.max-files:100}")
+    private int streamMaxFiles;
+
+    /** 스트리밍 업로드 폼 필드 값 최대 크기 (bytes, tplJson 포함) */
+    @Value("${file.stream.max-field-size:2097152}")
+    private int streamMaxFieldSize;
+
+    /** 이어 올리기(분할 업로드) 작업 디렉토리 (비어 있으면 {업로드 디렉토리}/.chunked) */
+    @Value("${file.chunked.dir:}")
+    private String chunkedDir;
+
+    /** 이어 올리기 파일 최대 크기 (bytes) */
+    @Value("${file.chunked.max-file-size:10485760}")
+    private long chunkedMaxFileSize;
+
+    /** 이어 올리기 조각 1개 최대 크기 (bytes) */
+    @Value("${file.chunked.max-chunk-size:8388608}")
+    private long chunkedMaxChunkSize;
+
+    /** 이어 올리기 세션 유효 시간 (시간, 마지막 조각 수신 기준) */
+    @Value("${file.chunked.expire-hours:24}")
+    private long chunkedExpireHours;
+
+    /**
+     * 업로드 파일 조회 시 로그인 확인 여부
+     * 세션만 확인하고(새 세션은 만들지 않음) 미로그인이면 리다이렉트 대신 401 응답
+     */
+    @Value("${file.serve.require-login:true}")
+    private boolean serveRequireLogin;
+
+    /** 업로드 파일 브라우저 캐시 기간 (초, 파일명이 내용마다 고유하므로 immutable 로 응답) */
+    @Value("${file.serve.cache-max-age:31536000}")
+    private long serveCacheMaxAge;
+
+    /**
+     * 방금 저장된 파일을 삭제 대상에서 제외하는 시간 (초)
+     * 저장 후 템플릿 행이 커밋되기 전에는 참조 수가 0 으로 보이므로, 이 시간 안에는 참조가 없어도 지우지 않음
+     */
+    @Value("${file.release-grace-seconds:600}")
+    private long releaseGraceSeconds;
+
+    /** 업로드 이미지의 파생 이미지(목록용 / 미리보기용 / 인쇄용) 생성 여부 */
+    @Value("${file.derivatives.enabled:true}")
+    private boolean derivativesEnabled;
+
+    /**
+     * 파생 이미지 종류 (이름:최대 크기 px:JPEG 품질, 쉼표로 구분)
+     * 원본 비율을 유지하여 최대 크기 안에 맞추고, 원본보다 크게 늘리지는 않는다.
+     */
+    @Value("${file.derivatives.sizes:gallery:320:75,preview:1200:80,print:2480:90}")
+    private String derivativeSizes;
+
+    /** 파생 이미지 생성 스레드 수 */
+    @Value("${file.derivatives.threads:2}")
+    private int derivativeThreads;
+
+    /** 파생 이미지 생성 대기열 크기 (가득 차면 건너뛰고 보충 작업에서 생성) */
+    @Value("${file.derivatives.queue-size:500}")
+    private int derivativeQueueSize;
+
+    /**
+     * 시작 시 파생 이미지가 없는 기존 업로드 파일의 파생 이미지를 만드는 작업 실행 여부
+     * 예: --file.derivatives.backfill.run=true
+     */
+    @Value("${file.derivatives.backfill.run:false}")
+    private boolean derivativeBackfillRun;
+
+    /** 미사용 업로드 파일 정리 사용 여부 */
+    @Value("${file.gc.enabled:false}")
+    private boolean gcEnabled;
+
+    /** 미사용 업로드 파일 정리 주기 (기본: 매일 새벽 4시 30분) */
+    @Value("${file.gc.cron:0 30 4 * * *}")
+    private String gcCron;
+
+    /** 미사용 파일 정리 시 로그만 남기고 삭제하지 않음 */
+    @Value("${file.gc.dry-run:true}")
+    private boolean gcDryRun;
+
+    /**
+     * 정리 대상 최소 경과 시간 (시간)
+     * 이보다 최근에 기록된(또는 중복 업로드로 수정 시각이 갱신된) 파일은 DB 저장 전일 수 있으므로 건너뜀
+     */
+    @Value("${file.gc.grace-hours:24}")
+    private long gcGraceHours;
+
+    /** 삭제 대신 이동할 격리 디렉토리 (비어 있으면 바로 삭제) */
+    @Value("${file.gc.quarantine-dir:}")
+    private String gcQuarantineDir;
+
+    /** 초당 최대 삭제(격리) 수 (디스크 부하 제한) */
+    @Value("${file.gc.max-per-second:50}")
+    private int gcMaxPerSecond;
+
+    /**
+     * 시작 시 기존 업로드 파일을 현재 저장 구조(내용 기반 / 분산 디렉토리)로 옮기는 마이그레이션 실행 여부
+     * 예: --file.migration.run=true --file.migration.dry-run=false
+     */
+    @Value("${file.migration.run:false}")
+    private boolean migrationRun;
+
+    /** 마이그레이션 시 실제로 옮기지 않고 대상만 로그로 확인 */
+    @Value("${file.migration.dry-run:true}")
+    private boolean migrationDryRun;
+
+    /**
+     * 시작 시 배경 이미지 정보(크기 / 형식 / 방향)가 없는 기존 템플릿을 파일 헤더에서 읽어 채우는 작업 실행 여부
+     * 예: --file.metadata-backfill.run=true
+     */
+    @Value("${file.metadata-backfill.run:false}")
+    private boolean metadataBackfillRun;
+
+    /** 배경 이미지 정보 보충 시 한 번에 조회할 템플릿 수 */
+    @Value("${file.metadata-backfill.batch-size:500}")
+    private int metadataBackfillBatchSize;
+
     /**
      * 애플리케이션 시작 시 업로드 디렉토리 생성
      */
@@ -36,6 +196,15 @@ public class FileUploadConfig {
         }
     }
 
+    /**
+     * 이어 올리기 작업 디렉토리 (설정이 없으면 업로드 디렉토리 아래 .chunked)
+     */
+    public String getChunkedDir() {
+        return (chunkedDir == null || chunkedDir.isBlank())
+                ? new File(uploadDir, ".chunked").getPath()
+                : chunkedDir;
+    }
+
     /**
      * 파일의 절대 경로 반환
      */
@@ -0,0 +1,29 @@
+package com.example.pop.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 이미지 디코딩 제한 설정
+ * 업로드 검증 / 리사이즈 / 파생 이미지 생성 등 서버에서 이미지를 다루는 모든 작업에 공통 적용
+ */
+@Configuration
+@Getter
+public class ImageDecodeConfig {
+
+    /**
+     * 이미지 최대 픽셀 수 (가로 x 세로)
+     * 파일 크기는 작아도 디코딩하면 거대해지는 이미지(압축 폭탄)를 헤더 단계에서 거절
+     */
+    @Value("${image.decode.max-pixels:40000000}")
+    private long maxPixels;
+
+    /** 동시에 디코딩 중인 이미지가 사용할 수 있는 전체 메모리 (MB) */
+    @Value("${image.decode.max-memory-mb:256}")
+    private int maxMemoryMb;
+
+    /** 디코딩 메모리를 기다리는 최대 시간 (ms), 넘으면 실패 처리 */
+    @Value("${image.decode.acquire-timeout-ms:10000}")
+    private long acquireTimeoutMs;
+}
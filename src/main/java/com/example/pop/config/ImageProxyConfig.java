@@ -0,0 +1,175 @@
+package com.example.pop.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * 이미지 프록시 설정
+ * 외부 상품 이미지를 로컬 디스크에 캐싱하기 위한 설정값
+ */
+@Configuration
+@Getter
+public class ImageProxyConfig {
+
+    /** 디스크 캐시 사용 여부 (false 면 원본 서버 응답을 그대로 스트리밍) */
+    @Value("${image-proxy.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    /** 프록시 캐시 저장 디렉토리 */
+    @Value("${image-proxy.cache.dir:./cache/image-proxy}")
+    private String cacheDir;
+
+    /** 캐시 최대 용량 (MB), 초과 시 가장 오래 사용되지 않은 이미지부터 삭제 */
+    @Value("${image-proxy.cache.max-size-mb:1024}")
+    private long cacheMaxSizeMb;
+
+    /** 캐시 유효 시간 (초), 지나면 ETag/Last-Modified 로 원본 서버에 재검증 */
+    @Value("${image-proxy.cache.ttl-seconds:86400}")
+    private long cacheTtlSeconds;
+
+    /** 프록시 이미지 1건당 최대 크기 (MB), 스트리밍 중 초과하면 중단 */
+    @Value("${image-proxy.max-image-size-mb:20}")
+    private long maxImageSizeMb;
+
+    /** 스트리밍 복사 버퍼 크기 (bytes) */
+    @Value("${image-proxy.buffer-size:8192}")
+    private int bufferSize;
+
+    /** 원본 서버 연결 타임아웃 (ms) */
+    @Value("${image-proxy.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    /** 원본 서버 응답 헤더 대기 타임아웃 (ms) */
+    @Value("${image-proxy.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+
+    /** 원본 이미지 다운로드 전체 타임아웃 (ms) */
+    @Value("${image-proxy.download-timeout-ms:15000}")
+    private long downloadTimeoutMs;
+
+    /** 원본 호스트별 동시 요청(연결) 수 제한 */
+    @Value("${image-proxy.max-connections-per-host:32}")
+    private int maxConnectionsPerHost;
+
+    /** 호스트별 동시 요청 제한에 걸렸을 때 대기열 최대 길이, 넘치면 즉시 503 (bulkhead) */
+    @Value("${image-proxy.max-queued-per-host:100}")
+    private int maxQueuedPerHost;
+
+    /** 호스트별 동시 요청 제한에 걸렸을 때 최대 대기 시간 (ms) */
+    @Value("${image-proxy.host-queue-timeout-ms:5000}")
+    private long hostQueueTimeoutMs;
+
+    /** 같은 URL 을 먼저 요청한 다운로드를 기다리는 최대 시간 (ms) */
+    @Value("${image-proxy.coalesce-wait-timeout-ms:10000}")
+    private long coalesceWaitTimeoutMs;
+
+    /** 연속 실패 몇 번이면 호스트 서킷을 여는지 */
+    @Value("${image-proxy.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    /** 서킷이 열린 뒤 시험 요청을 보내기까지 대기 시간 (ms) */
+    @Value("${image-proxy.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    /** 404/410 응답 URL 을 원본 서버에 다시 묻지 않는 시간 (ms) */
+    @Value("${image-proxy.negative-cache.not-found-ttl-ms:60000}")
+    private long negativeCacheNotFoundTtlMs;
+
+    /** 타임아웃 난 URL 을 원본 서버에 다시 묻지 않는 시간 (ms) */
+    @Value("${image-proxy.negative-cache.timeout-ttl-ms:10000}")
+    private long negativeCacheTimeoutTtlMs;
+
+    /** 부정 캐시 최대 항목 수 */
+    @Value("${image-proxy.negative-cache.max-entries:10000}")
+    private int negativeCacheMaxEntries;
+
+    /** 리사이즈(w, h) 최대 허용 크기 (px) */
+    @Value("${image-proxy.resize.max-dimension:2000}")
+    private int resizeMaxDimension;
+
+    /** 리사이즈 작업 스레드 수 (0 이면 CPU 코어 수) */
+    @Value("${image-proxy.resize.threads:0}")
+    private int resizeThreads;
+
+    /** 리사이즈 작업 대기열 크기, 넘치면 503 */
+    @Value("${image-proxy.resize.queue-size:200}")
+    private int resizeQueueSize;
+
+    /** 일괄 조회 1회 최대 이미지 수 */
+    @Value("${image-proxy.batch.max-items:100}")
+    private int batchMaxItems;
+
+    /** 일괄 조회 1회당 동시에 가져오는 이미지 수 */
+    @Value("${image-proxy.batch.concurrency:16}")
+    private int batchConcurrency;
+
+    /** 일괄 조회 전체 최대 시간 (ms), 넘으면 남은 이미지는 504 로 응답 */
+    @Value("${image-proxy.batch.timeout-ms:30000}")
+    private long batchTimeoutMs;
+
+    /**
+     * MVC 비동기 요청(이미지 프록시 응답 / 일괄 조회 스트리밍) 제한 시간 (ms)
+     * 일괄 조회 / 다운로드 제한 시간보다 짧으면 남은 이미지 응답을 쓰기 전에 요청이 끊기므로, 그보다 여유 있게 보정해서 사용
+     */
+    @Value("${image-proxy.async-request-timeout-ms:60000}")
+    private long asyncRequestTimeoutMs;
+
+    /**
+     * 이미지 프록시 전용 공유 HttpClient
+     * 연결 재사용(keep-alive 풀)과 HTTP/2 (지원 서버에 한해 ALPN 협상) 사용
+     */
+    @Bean
+    public HttpClient imageProxyHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    /**
+     * 애플리케이션 시작 시 캐시 디렉토리 생성
+     */
+    @PostConstruct
+    public void init() {
+        File directory = new File(cacheDir);
+
+        if (!directory.exists()) {
+            boolean created = directory.mkdirs();
+            if (created) {
+                System.out.println("✅ 이미지 프록시 캐시 디렉토리 생성 완료: " + directory.getAbsolutePath());
+            } else {
+                System.err.println("❌ 이미지 프록시 캐시 디렉토리 생성 실패: " + directory.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * 캐시 최대 용량 (bytes)
+     */
+    public long getCacheMaxSizeBytes() {
+        return cacheMaxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * 프록시 이미지 1건당 최대 크기 (bytes)
+     */
+    public long getMaxImageSizeBytes() {
+        return maxImageSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * MVC 비동기 요청 제한 시간 (ms)
+     * 일괄 조회 / 다운로드 제한 시간이 먼저 끝나고 504 응답을 쓸 수 있도록 최소 10초 여유를 둠
+     */
+    public long getAsyncRequestTimeoutMs() {
+        return Math.max(asyncRequestTimeoutMs, Math.max(batchTimeoutMs, downloadTimeoutMs) + 10_000);
+    }
+}
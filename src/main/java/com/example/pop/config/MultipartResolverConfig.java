@@ -0,0 +1,40 @@
+package com.example.pop.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.Set;
+
+/**
+ * multipart 처리 설정
+ *
+ * 기본 multipart 처리는 컨트롤러 호출 전에 요청 전체를 받아 파트별로 저장해 두므로,
+ * 본문을 직접 스트리밍으로 읽는 경로(STREAMING_PATHS)는 multipart 해석 대상에서 제외한다.
+ * (이 경로의 컨트롤러는 @RequestParam 대신 MultipartStreamReader 로 요청 본문을 읽어야 함)
+ */
+@Configuration
+public class MultipartResolverConfig {
+
+    /** 요청 본문을 직접 스트리밍으로 읽는 경로 */
+    public static final Set<String> STREAMING_PATHS = Set.of(
+            "/api/templates/common/stream"
+    );
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public StandardServletMultipartResolver multipartResolver(MultipartProperties multipartProperties) {
+        StandardServletMultipartResolver resolver = new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                String path = request.getRequestURI().substring(request.getContextPath().length());
+                return !STREAMING_PATHS.contains(path) && super.isMultipart(request);
+            }
+        };
+        resolver.setResolveLazily(multipartProperties.isResolveLazily());
+        resolver.setStrictServletCompliance(multipartProperties.isStrictServletCompliance());
+        return resolver;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.pop.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import jakarta.annotation.PostConstruct;
+import java.io.File;
+
+/**
+ * 상품 이미지 미러링 설정
+ * images_store_master 의 외부 상품 이미지를 로컬 디스크로 복사해 두는 배치 작업 설정값
+ */
+@Configuration
+@EnableScheduling
+@Getter
+public class ProductImageMirrorConfig {
+
+    /** 미러링 배치 사용 여부 */
+    @Value("${product-image-mirror.enabled:false}")
+    private boolean enabled;
+
+    /** 미러 이미지 저장 디렉토리 */
+    @Value("${product-image-mirror.dir:./mirror/product-images}")
+    private String dir;
+
+    /** 실행 주기 (기본: 매일 새벽 3시, 사용량이 적은 시간대) */
+    @Value("${product-image-mirror.cron:0 0 3 * * *}")
+    private String cron;
+
+    /** 한 번에 DB 에서 읽어올 상품 수 (이 단위로 진행 위치 저장) */
+    @Value("${product-image-mirror.batch-size:500}")
+    private int batchSize;
+
+    /** 동시 다운로드 수 */
+    @Value("${product-image-mirror.parallelism:8}")
+    private int parallelism;
+
+    /** 이미지 1건 다운로드 최대 시간 (ms) */
+    @Value("${product-image-mirror.download-timeout-ms:30000}")
+    private long downloadTimeoutMs;
+
+    /** 실패한 URL 재시도 목록 최대 크기 */
+    @Value("${product-image-mirror.max-retry-entries:10000}")
+    private int maxRetryEntries;
+
+    /**
+     * 애플리케이션 시작 시 미러 디렉토리 생성
+     */
+    @PostConstruct
+    public void init() {
+        File directory = new File(dir);
+
+        if (!directory.exists()) {
+            boolean created = directory.mkdirs();
+            if (created) {
+                System.out.println("✅ 상품 이미지 미러 디렉토리 생성 완료: " + directory.getAbsolutePath());
+            } else {
+                System.err.println("❌ 상품 이미지 미러 디렉토리 생성 실패: " + directory.getAbsolutePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pop.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 템플릿 조회 캐시 설정
+ */
+@Configuration
+@Getter
+public class TemplateCacheConfig {
+
+    /**
+     * 템플릿 상세(tpl_json 포함) 메모리 캐시 최대 용량 (KB)
+     * tpl_json 크기 기준으로 계산하며, 초과 시 가장 오래 조회되지 않은 템플릿부터 제거
+     */
+    @Value("${template.cache.detail-max-kb:32768}")
+    private long detailMaxKb;
+
+    /**
+     * 공통 템플릿 목록 / 개수 / 카테고리 메모리 캐시 최대 항목 수
+     * 필터 조합 + 페이지별로 1개 항목, 초과 시 가장 오래 조회되지 않은 항목부터 제거 (0 이면 사용 안 함)
+     */
+    @Value("${template.cache.common-max-entries:2000}")
+    private int commonMaxEntries;
+
+    /**
+     * 카테고리 트리 메모리 캐시 최대 항목 수 (범위(공통 / 마트) + 레이아웃별 1개, 0 이면 사용 안 함)
+     */
+    @Value("${template.cache.category-tree-max-entries:1000}")
+    private int categoryTreeMaxEntries;
+
+    /**
+     * 마트 템플릿 개수 메모리 캐시 최대 항목 수 (마트 + 필터 조합별 1개, 0 이면 사용 안 함)
+     */
+    @Value("${template.cache.count-max-entries:5000}")
+    private int countMaxEntries;
+
+    /**
+     * 마트 템플릿 개수 캐시 유효 시간 (초)
+     * 등록 / 삭제 시 해당 마트 항목은 바로 제거되며, 다른 서버에서 바뀐 개수는 이 시간 안에 반영됨
+     */
+    @Value("${template.cache.count-ttl-seconds:60}")
+    private long countTtlSeconds;
+}
@@ -3,6 +3,7 @@ package com.example.pop.config;
 import com.example.pop.interceptor.LoginCheckInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,6 +12,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
     
     private final LoginCheckInterceptor loginCheckInterceptor;
+    private final FileUploadConfig fileUploadConfig;
+    private final ImageProxyConfig imageProxyConfig;
     
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
@@ -25,7 +28,18 @@ public class WebConfig implements WebMvcConfigurer {
                         "/js/**",           // JS 파일
                         "/images/**",       // 이미지 파일
                         "/favicon.ico",     // 파비콘
-                        "/error"            // 에러 페이지
+                        "/error",           // 에러 페이지
+                        fileUploadConfig.getUrlPath() + "/**"  // 업로드 파일 (UploadFileController 에서 세션만 확인)
                 );
     }
+
+    /**
+     * 비동기 요청(이미지 프록시 / 일괄 조회 스트리밍) 제한 시간
+     * 컨테이너 기본값(Tomcat 30초)은 일괄 조회 제한 시간(image-proxy.batch.timeout-ms)과 같아서
+     * 남은 이미지의 504 프레임을 쓰기 전에 응답이 끊기므로 명시적으로 설정
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(imageProxyConfig.getAsyncRequestTimeoutMs());
+    }
 }
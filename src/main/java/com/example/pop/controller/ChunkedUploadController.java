@@ -0,0 +1,86 @@
+package com.example.pop.controller;
+
+import com.example.pop.service.file.ChunkedUploadService;
+import com.example.pop.service.template.TemplateService;
+import com.example.pop.vo.MartIpVO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 이어 올리기(분할 업로드) Controller
+ *
+ * POST   /api/uploads                      세션 생성 (filename, size, contentType)
+ * GET    /api/uploads/{uploadId}           현재 위치 조회 (HEAD 도 가능, Upload-Offset 헤더)
+ * PATCH  /api/uploads/{uploadId}           조각 전송 (Upload-Offset 헤더 = 조각 시작 위치, 본문 = 조각 바이트)
+ * POST   /api/uploads/{uploadId}/complete  완료 (업로드 파일 URL 반환)
+ * DELETE /api/uploads/{uploadId}           취소
+ *
+ * 완료된 uploadId 는 공통 템플릿 스트리밍 등록(/api/templates/common/stream)의 uploadIds 필드로 사용할 수 있다.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/uploads")
+public class ChunkedUploadController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final TemplateService templateService;
+
+    @PostMapping
+    public Map<String, Object> create(
+            @RequestParam String filename,
+            @RequestParam long size,
+            @RequestParam(required = false) String contentType,
+            HttpSession session
+    ) {
+        return chunkedUploadService.create(owner(session), filename, contentType, size);
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String uploadId, HttpSession session) {
+        Map<String, Object> status = chunkedUploadService.status(owner(session), uploadId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(UPLOAD_OFFSET, String.valueOf(status.get("offset")))
+                .body(status);
+    }
+
+    @PatchMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> append(
+            @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            HttpSession session
+    ) throws IOException {
+        long newOffset = chunkedUploadService.append(owner(session), uploadId, offset, request.getInputStream());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                .body(Map.of("success", true, "uploadId", uploadId, "offset", newOffset));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public Map<String, Object> complete(@PathVariable String uploadId, HttpSession session) {
+        return chunkedUploadService.complete(owner(session), uploadId);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public Map<String, Object> cancel(@PathVariable String uploadId, HttpSession session) {
+        chunkedUploadService.cancel(owner(session), uploadId);
+        return Map.of("success", true, "uploadId", uploadId);
+    }
+
+    private String owner(HttpSession session) {
+        MartIpVO user = templateService.validateUser((MartIpVO) session.getAttribute("user"));
+        return user.getId();
+    }
+}
@@ -1,80 +1,269 @@
 package com.example.pop.controller;
 
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.dto.ImageBatchRequest;
+import com.example.pop.exception.ImageProxyException;
+import com.example.pop.service.image.CachedImage;
+import com.example.pop.service.image.ImageBatchService;
+import com.example.pop.service.image.ImageProxyService;
+import com.example.pop.service.image.ImageResizeService;
+import com.example.pop.service.image.ImageStreamCopier;
+import com.example.pop.service.image.ProductImageMirrorService;
+import com.example.pop.service.image.ResizeSpec;
+import com.example.pop.service.image.UpstreamImage;
+import com.example.pop.service.product.ProductImageService;
+import com.example.pop.vo.ProductImageVO;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * 이미지 프록시 Controller
  * 외부 이미지 URL의 CORS 문제를 해결하기 위한 프록시
+ *
+ * 원본 서버 호출은 비동기(CompletableFuture)로 처리되어 응답을 기다리는 동안 요청 스레드를 반환하고,
+ * 응답은 StreamingResponseBody 로 작은 버퍼를 거쳐 바로 내려보내므로
+ * 이미지 크기와 상관없이 요청당 힙 사용량이 일정하다.
  */
 @Slf4j
 @RestController
 @RequestMapping("/api/image-proxy")
+@RequiredArgsConstructor
 public class ImageProxyController {
 
+    private final ImageProxyService imageProxyService;
+    private final ImageProxyConfig imageProxyConfig;
+    private final ImageStreamCopier imageStreamCopier;
+    private final ImageResizeService imageResizeService;
+    private final ProductImageMirrorService productImageMirrorService;
+    private final ImageBatchService imageBatchService;
+    private final ProductImageService productImageService;
+
     /**
      * 외부 이미지 프록시
      * @param url 이미지 URL
-     * @return 이미지 바이트 데이터
+     * @param w 리사이즈 너비 (선택)
+     * @param h 리사이즈 높이 (선택)
+     * @param fit 리사이즈 방식 contain / cover / fill (선택, 기본 contain)
+     * @param q JPEG 품질 1 ~ 100 (선택, 기본 80)
+     * @return 이미지 스트림
      */
     @GetMapping
-    public ResponseEntity<byte[]> proxyImage(@RequestParam String url) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> proxyImage(
+            @RequestParam String url,
+            @RequestParam(required = false) Integer w,
+            @RequestParam(required = false) Integer h,
+            @RequestParam(required = false) String fit,
+            @RequestParam(required = false) Integer q) {
         log.info("이미지 프록시 요청: {}", url);
 
         try {
-            // URL 연결
-            URL imageUrl = new URL(url);
-            HttpURLConnection connection = (HttpURLConnection) imageUrl.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            
-            // User-Agent 설정 (서버가 봇 요청을 차단하지 않도록, 프록시 요청을 ‘일반 브라우저처럼 보이게 만드는 설정)
-            connection.setRequestProperty("User-Agent", "Mozilla/5.0");
-
-            // 응답 코드 확인
-            int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                log.error("이미지 로드 실패: HTTP {}", responseCode);
-                return ResponseEntity.status(responseCode).build();
+            ResizeSpec resizeSpec = ResizeSpec.of(w, h, fit, q, imageProxyConfig.getResizeMaxDimension());
+
+            CompletableFuture<ResponseEntity<StreamingResponseBody>> response;
+            if (resizeSpec != null) {
+                // 리사이즈는 원본이 디스크 캐시에 있어야 하므로 항상 캐시 경유
+                response = imageProxyService.getImage(url)
+                        .thenCompose(image -> imageResizeService.getVariant(image, resizeSpec))
+                        .thenApply(image -> streamFromCache(url, image));
+            } else if (imageProxyConfig.isCacheEnabled()) {
+                response = imageProxyService.getImage(url).thenApply(image -> streamFromCache(url, image));
+            } else {
+                response = imageProxyService.openUpstream(url).thenApply(upstream -> streamFromUpstream(url, upstream));
             }
 
-            // Content-Type 가져오기
-            String contentType = connection.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                log.warn("이미지가 아닌 타입: {}", contentType);
-                contentType = "image/jpeg"; // 기본값
+            return response.exceptionally(error -> toErrorResponse(url, error));
+
+        } catch (ImageProxyException e) {
+            return CompletableFuture.completedFuture(toErrorResponse(url, e));
+        }
+    }
+
+    /**
+     * 로컬 미러 상품 이미지 (외부 서버 호출 없음, 리사이즈 파라미터는 프록시와 동일)
+     * @param fileName 미러 파일명
+     * @return 이미지 스트림
+     */
+    @GetMapping("/mirror/{fileName:.+}")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> mirrorImage(
+            @PathVariable String fileName,
+            @RequestParam(required = false) Integer w,
+            @RequestParam(required = false) Integer h,
+            @RequestParam(required = false) String fit,
+            @RequestParam(required = false) Integer q) {
+        try {
+            CachedImage image = productImageMirrorService.getMirroredImage(fileName);
+            if (image == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
             }
 
-            // 이미지 데이터 읽기
-            try (InputStream inputStream = connection.getInputStream()) {
-                byte[] imageBytes = inputStream.readAllBytes();
+            ResizeSpec resizeSpec = ResizeSpec.of(w, h, fit, q, imageProxyConfig.getResizeMaxDimension());
+            if (resizeSpec == null) {
+                return CompletableFuture.completedFuture(streamFromCache(fileName, image));
+            }
+            return imageResizeService.getVariant(image, resizeSpec)
+                    .thenApply(variant -> streamFromCache(fileName, variant))
+                    .exceptionally(error -> toErrorResponse(fileName, error));
 
-                // 헤더 설정
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.parseMediaType(contentType));
-                headers.setCacheControl("public, max-age=86400"); // 1일 캐싱
-                headers.set("Access-Control-Allow-Origin", "*"); // CORS 허용
+        } catch (ImageProxyException e) {
+            return CompletableFuture.completedFuture(toErrorResponse(fileName, e));
+        }
+    }
 
-                log.info("이미지 프록시 성공: {} bytes, {}", imageBytes.length, contentType);
-                return new ResponseEntity<>(imageBytes, headers, HttpStatus.OK);
+    /**
+     * 이미지 일괄 조회 (상품 검색 그리드용)
+     * 서버에서 동시에 가져와 끝나는 순서대로 길이 접두 프레임으로 스트리밍 (형식은 ImageBatchService 참고)
+     * @param request 이미지 URL 또는 상품 시퀀스 목록, 리사이즈 파라미터
+     * @return 프레임 스트림
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> batchImages(@RequestBody ImageBatchRequest request) {
+        List<ImageBatchService.BatchItem> items = new ArrayList<>();
+        if (request.getUrls() != null) {
+            request.getUrls().forEach(url -> items.add(new ImageBatchService.BatchItem(url, url)));
+        }
+        if (request.getSeqs() != null && !request.getSeqs().isEmpty()) {
+            Map<Integer, String> urlBySeq = new HashMap<>();
+            for (ProductImageVO productImage : productImageService.getProductImagesBySeqs(request.getSeqs())) {
+                urlBySeq.put(productImage.getSeqMstrPrdt(), productImage.getMstrPrdtMUrl());
             }
+            request.getSeqs().forEach(seq -> items.add(new ImageBatchService.BatchItem(String.valueOf(seq), urlBySeq.get(seq))));
+        }
+
+        if (items.isEmpty() || items.size() > imageProxyConfig.getBatchMaxItems()) {
+            log.warn("이미지 일괄 조회 요청 개수 오류: {}", items.size());
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResizeSpec resizeSpec;
+        try {
+            resizeSpec = ResizeSpec.of(request.getW(), request.getH(), request.getFit(), request.getQ(),
+                    imageProxyConfig.getResizeMaxDimension());
+        } catch (ImageProxyException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+
+        log.info("이미지 일괄 조회 요청: {}건", items.size());
+        StreamingResponseBody body = outputStream -> imageBatchService.writeBatch(items, resizeSpec, outputStream);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setCacheControl("no-store");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * 이미지 프록시 상태 조회 (호스트별 동시 요청 수, 서킷 상태, 캐시 현황)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(imageProxyService.getStats());
+    }
 
+    /**
+     * 디스크 캐시에서 스트리밍
+     */
+    private ResponseEntity<StreamingResponseBody> streamFromCache(String url, CachedImage image) {
+        // LRU 삭제와 겹치더라도 이미 연 파일은 끝까지 읽을 수 있도록 먼저 연다
+        InputStream inputStream;
+        try {
+            inputStream = Files.newInputStream(image.getFile());
         } catch (IOException e) {
-            log.error("이미지 프록시 실패: {}", url, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            throw new UncheckedIOException(e);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream in = inputStream) {
+                imageStreamCopier.copy(in, outputStream);
+            } catch (IOException e) {
+                log.debug("이미지 프록시 클라이언트 연결 종료: {}", url);
+            }
+        };
+
+        return new ResponseEntity<>(body, buildHeaders(image.getContentType(), image.getSize()), HttpStatus.OK);
+    }
+
+    /**
+     * 캐시를 거치지 않고 원본 응답을 그대로 스트리밍
+     */
+    private ResponseEntity<StreamingResponseBody> streamFromUpstream(String url, UpstreamImage upstream) {
+        StreamingResponseBody body = outputStream -> {
+            try (UpstreamImage in = upstream) {
+                long copied = imageStreamCopier.copy(in.getInputStream(), outputStream);
+                log.info("이미지 프록시 성공: {} bytes, {}", copied, in.getContentType());
+            } catch (IOException e) {
+                if (isUpstreamAborted(e)) {
+                    // 다운로드 제한 시간 / 크기 초과로 원본 교환이 중단됨 → 잘린 이미지가 정상 응답으로 쓰이지 않게 연결을 끊음
+                    log.error("이미지 프록시 스트리밍 중단: {} - {}", url, e.getMessage());
+                    throw e;
+                }
+                // 클라이언트가 연결을 끊으면 원본 연결도 바로 정리
+                log.debug("이미지 프록시 클라이언트 연결 종료: {}", url);
+            } catch (ImageProxyException e) {
+                // 이미 헤더가 나간 상태이므로 연결을 끊어 잘린 이미지가 정상 응답으로 쓰이지 않게 함
+                log.error("이미지 프록시 스트리밍 중단: {} - {}", url, e.getMessage());
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+
+        return new ResponseEntity<>(body, buildHeaders(upstream.getContentType(), upstream.getContentLength()), HttpStatus.OK);
+    }
+
+    /**
+     * 원본 쪽에서 중단된 읽기 오류인지 (DownloadDeadline 제한 시간, 최대 크기 초과)
+     */
+    private boolean isUpstreamAborted(IOException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof ImageProxyException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<StreamingResponseBody> toErrorResponse(String url, Throwable error) {
+        Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+
+        if (cause instanceof ImageProxyException e) {
+            log.error("이미지 프록시 실패: {} - {}", url, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+
+        log.error("이미지 프록시 실패: {}", url, cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+
+    private HttpHeaders buildHeaders(String contentType, long contentLength) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        if (contentLength >= 0) {
+            headers.setContentLength(contentLength);
         }
+        headers.setCacheControl("public, max-age=86400"); // 1일 캐싱
+        headers.set("Access-Control-Allow-Origin", "*"); // CORS 허용
+        return headers;
     }
 }
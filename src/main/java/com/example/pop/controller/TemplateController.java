@@ -1,14 +1,21 @@
 package com.example.pop.controller;
 
+import com.example.pop.service.template.CategoryNode;
 import com.example.pop.service.template.TemplateService;
 import com.example.pop.vo.MartIpVO;
 import com.example.pop.vo.PopTemplateVO;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +50,23 @@ public class TemplateController {
         );
     }
 
+    /**
+     * 공통 템플릿 등록 - 스트리밍 업로드 (a4 관리자만)
+     * POST /api/templates/common/stream (multipart/form-data, 필드는 createCommonTemplate 과 동일)
+     * 요청 본문을 파트 순서대로 읽으면서 파일을 바로 디스크에 기록하므로 파일 수 / 크기와 상관없이 메모리 사용량이 일정하다.
+     */
+    @PostMapping(value = "/templates/common/stream", consumes = "multipart/form-data")
+    public Map<String, Object> createCommonTemplateStream(
+            HttpServletRequest request,
+            HttpSession session
+    ) throws IOException {
+        MartIpVO user = (MartIpVO) session.getAttribute("user");
+
+        return templateService.createCommonTemplatesStreaming(
+                request.getContentType(), request.getInputStream(), user
+        );
+    }
+
     /**
      * 우리 매장 템플릿 저장 (캔버스 편집 후 저장)
      * POST /api/templates/my (multipart/form-data)
@@ -64,8 +88,24 @@ public class TemplateController {
         return templateService.saveMyTemplate(tplNm, layoutType, tplCtgyBig, bgImgUrl, tplCtgyMid, tplCtgySml, tplCtgySub, tplJson, thumbnailImage, user);
     }
 
+    /**
+     * 템플릿을 우리 매장 템플릿으로 복제 (수정 없이 저장하는 경우, 썸네일 업로드 없음)
+     * POST /api/templates/{tplSeq}/clone
+     */
+    @PostMapping("/templates/{tplSeq}/clone")
+    public Map<String, Object> cloneTemplate(
+            @PathVariable Long tplSeq,
+            @RequestParam String tplNm,
+            @RequestParam(required = false) String tplCtgyBig,
+            HttpSession session
+    ) {
+        MartIpVO user = (MartIpVO) session.getAttribute("user");
+        return templateService.cloneTemplate(tplSeq, tplNm, tplCtgyBig, user);
+    }
+
     /**
      * 공통 템플릿 조회 (is_common = 'Y')
+     * cursor 파라미터가 있으면 키셋 페이징 (첫 페이지는 cursor= 빈 값, 응답의 nextCursor 로 다음 페이지), 없으면 page 기준
      */
     @GetMapping("/templates/common")
     public Map<String, Object> getCommonTemplates(
@@ -75,27 +115,33 @@ public class TemplateController {
             @RequestParam(required = false, name = "ctgySml") String ctgySml,
             @RequestParam(required = false, name = "ctgySub") String ctgySub,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("공통 템플릿 조회 요청 - layoutType: {}, ctgyBig: {}, ctgyMid: {}, ctgySml: {}, ctgySub: {}, page: {}, size: {}",
-                layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size);
+        log.info("공통 템플릿 조회 요청 - layoutType: {}, ctgyBig: {}, ctgyMid: {}, ctgySml: {}, ctgySub: {}, page: {}, size: {}, cursor: {}",
+                layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size, cursor);
 
-        List<PopTemplateVO> list = templateService.getCommonTemplates(
-                layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size);
-        int totalCount = templateService.getCommonTemplateCount(
-                layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub);
+        if (cursor != null) {
+            Map<String, Object> result = new HashMap<>(templateService.getCommonTemplatesByCursor(
+                    layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, cursor, size));
+            result.put("size", size);
+            result.put("totalCount", templateService.getCommonTemplateCount(
+                    layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub));
+            return result;
+        }
 
-        Map<String, Object> result = new HashMap<>();
+        // 목록 + 전체 개수 (개수는 필터별 캐시)
+        Map<String, Object> result = new HashMap<>(templateService.getCommonTemplatePage(
+                layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size));
         result.put("page", page);
         result.put("size", size);
-        result.put("totalCount", totalCount);
-        result.put("templates", list);
 
         return result;
     }
 
     /**
      * 우리 마트 템플릿 조회 (is_common = 'N' AND mart_cd = 세션 mart)
+     * cursor 파라미터가 있으면 키셋 페이징, 없으면 page 기준 (공통 템플릿 조회와 동일)
      */
     @GetMapping("/templates/my")
     public Map<String, Object> getMyTemplates(
@@ -106,27 +152,32 @@ public class TemplateController {
             @RequestParam(required = false, name = "ctgySml") String ctgySml,
             @RequestParam(required = false, name = "ctgySub") String ctgySub,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor
     ) {
         MartIpVO user = (MartIpVO) session.getAttribute("user");
         templateService.validateUser(user);
         
         String martCd = user.getId();
 
-        log.info("우리 템플릿 조회 요청 - martCd: {}, layoutType: {}, ctgyBig: {}, ctgyMid: {}, ctgySml: {}, ctgySub: {}, page: {}, size: {}",
-                martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size);
+        log.info("우리 템플릿 조회 요청 - martCd: {}, layoutType: {}, ctgyBig: {}, ctgyMid: {}, ctgySml: {}, ctgySub: {}, page: {}, size: {}, cursor: {}",
+                martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size, cursor);
 
-        List<PopTemplateVO> list = templateService.getMyTemplates(
-                martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size);
-        int totalCount = templateService.getMyTemplateCount(
-                martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub);
+        if (cursor != null) {
+            Map<String, Object> result = new HashMap<>(templateService.getMyTemplatesByCursor(
+                    martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, cursor, size));
+            result.put("martCd", martCd);
+            result.put("size", size);
+            result.put("totalCount", templateService.getMyTemplateCount(
+                    martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub));
+            return result;
+        }
 
-        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> result = new HashMap<>(templateService.getMyTemplatePage(
+                martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size));
         result.put("martCd", martCd);
         result.put("page", page);
         result.put("size", size);
-        result.put("totalCount", totalCount);
-        result.put("templates", list);
 
         return result;
     }
@@ -163,6 +214,87 @@ public class TemplateController {
         );
     }
 
+    /**
+     * 공통 템플릿 카테고리 트리 (대 → 중 → 소 → 세, 노드별 템플릿 수)
+     * GET /api/templates/categories/tree?layoutType=
+     */
+    @GetMapping("/templates/categories/tree")
+    public Map<String, Object> getCategoryTree(
+            @RequestParam(required = false) String layoutType
+    ) {
+        CategoryNode tree = templateService.getCategoryTree(null, layoutType);
+
+        return Map.of(
+                "success", true,
+                "totalCount", tree.count(),
+                "categories", tree.children()
+        );
+    }
+
+    /**
+     * 우리 마트 템플릿 카테고리 트리
+     * GET /api/templates/my/categories/tree?layoutType=
+     */
+    @GetMapping("/templates/my/categories/tree")
+    public Map<String, Object> getMyCategoryTree(
+            HttpSession session,
+            @RequestParam(required = false) String layoutType
+    ) {
+        MartIpVO user = (MartIpVO) session.getAttribute("user");
+        templateService.validateUser(user);
+
+        String martCd = user.getId();
+        CategoryNode tree = templateService.getCategoryTree(martCd, layoutType);
+
+        return Map.of(
+                "success", true,
+                "martCd", martCd,
+                "totalCount", tree.count(),
+                "categories", tree.children()
+        );
+    }
+
+    /**
+     * 공통 템플릿 조회 캐시 현황 (a4 관리자만)
+     * GET /api/templates/cache/stats
+     */
+    @GetMapping("/templates/cache/stats")
+    public Map<String, Object> getCacheStats(HttpSession session) {
+        MartIpVO user = (MartIpVO) session.getAttribute("user");
+        templateService.validateAdminUser(user);
+        return templateService.getCacheStats();
+    }
+
+    /**
+     * 템플릿 상세 조회 (편집 데이터 tpl_json 포함, 목록 조회에는 포함되지 않음)
+     * GET /api/templates/{tplSeq}
+     * 템플릿 내용은 등록 후 바뀌지 않으므로 ETag 로 재검증 (같으면 304, 본문 없음)
+     */
+    @GetMapping("/templates/{tplSeq:\\d+}")
+    public ResponseEntity<Map<String, Object>> getTemplateDetail(
+            @PathVariable Long tplSeq,
+            HttpSession session,
+            WebRequest webRequest
+    ) {
+        MartIpVO user = (MartIpVO) session.getAttribute("user");
+        PopTemplateVO template = templateService.getTemplateDetail(tplSeq, user);
+
+        String eTag = "\"tpl-" + template.getTplSeq() + "-"
+                + (template.getModDt() != null ? template.getModDt().toEpochSecond(ZoneOffset.UTC) : 0) + "\"";
+        // 로그인 사용자별 권한이 있으므로 공유 캐시에는 저장하지 않음
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("template", template);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(result);
+    }
+
     /**
      * 템플릿 삭제 (a4 관리자만 가능)
      * DELETE /api/templates/{tplSeq}
@@ -0,0 +1,242 @@
+package com.example.pop.controller;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.service.file.FileStorageService;
+import com.example.pop.service.login.LoginService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 파일 조회 Controller
+ *
+ * 업로드 디렉토리(file.upload-dir)의 파일을 직접 내려준다. (classpath 정적 리소스 조회 / 로그인 인터셉터를 거치지 않음)
+ * - 본문 전송: Tomcat sendfile 사용 가능하면 커널에서 바로 전송, 아니면 FileChannel.transferTo
+ * - 캐시: 강한 ETag + Cache-Control immutable (파일명이 내용마다 고유하므로 같은 URL 의 내용이 바뀌지 않음)
+ *   로그인이 필요한 설정(file.serve.require-login)이면 private, 아니면 public
+ * - 조건부 / 부분 요청: If-None-Match → 304, Range(단일 구간) → 206
+ * - 접근 확인: 세션의 로그인 정보만 확인 (세션을 새로 만들지 않고, 미로그인은 리다이렉트 대신 401)
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class UploadFileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** 이보다 작은 파일은 sendfile 대신 바로 기록 (Tomcat DefaultServlet 기본값과 동일) */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    /** 내용 기반 파일명 (SHA-256 해시) */
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final FileUploadConfig fileUploadConfig;
+    private final FileStorageService fileStorageService;
+    private final LoginService loginService;
+
+    /**
+     * 업로드 파일 조회
+     */
+    @RequestMapping(value = "${file.url-path}/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (fileUploadConfig.isServeRequireLogin() && !isLoggedIn(request)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        String fileUrl = UriUtils.decode(
+                request.getRequestURI().substring(request.getContextPath().length()), StandardCharsets.UTF_8);
+        Path file = fileStorageService.resolvePath(fileUrl);
+        if (file == null || fileUrl.contains("/.")) {
+            // 업로드 디렉토리 밖 경로, 작성 중인 임시 파일(.tmp_*), 이어 올리기 작업 디렉토리(.chunked) 등
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long size = attributes.size();
+        String eTag = eTag(file, attributes);
+
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        // 로그인이 필요하면 공유 캐시(프록시 / CDN)가 비로그인 요청에 내주지 않도록 private
+        String visibility = fileUploadConfig.isServeRequireLogin() ? "private" : "public";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, visibility + ", max-age=" + fileUploadConfig.getServeCacheMaxAge() + ", immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        // Range: 단일 구간만 지원 (여러 구간 요청은 전체 응답, If-Range 가 다르면 전체 응답)
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            long[] parsed = parseRange(range, size);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (length >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 응답 본문은 요청 처리가 끝난 뒤 Tomcat 이 sendfile 로 전송
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        transfer(file, start, length, response.getOutputStream());
+    }
+
+    private boolean isLoggedIn(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null && loginService.isLoggedIn(session);
+    }
+
+    /**
+     * 강한 ETag: 내용 기반 파일명이면 해시 그대로, 아니면 수정 시각 + 크기
+     */
+    private String eTag(Path file, BasicFileAttributes attributes) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        if (CONTENT_HASH.matcher(base).matches()) {
+            return "\"" + base + "\"";
+        }
+        return "\"" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(attributes.size()) + "\"";
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Range 헤더 해석
+     * @return {시작, 끝} / 빈 배열 = 전체 응답 / null = 만족할 수 없는 구간 (416)
+     */
+    private long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return new long[0];
+        }
+
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // bytes=-500 : 마지막 500바이트
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start < 0 || start >= size || end < start) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private void transfer(Path file, long start, long length, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우 등
+            log.debug("업로드 파일 전송 중단: {} ({})", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.pop.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 이미지 일괄 조회 요청 DTO
+ * 이미지 URL 또는 상품 시퀀스(seqMstrPrdt) 중 하나 이상 지정
+ */
+@Data
+@NoArgsConstructor
+public class ImageBatchRequest {
+
+    /**
+     * 이미지 URL 목록 (외부 URL 또는 로컬 미러 URL)
+     */
+    private List<String> urls;
+
+    /**
+     * 상품 시퀀스 목록 (상품의 모바일용 이미지 URL 사용)
+     */
+    private List<Integer> seqs;
+
+    /**
+     * 리사이즈 파라미터 (선택, 단건 프록시와 동일)
+     */
+    private Integer w;
+    private Integer h;
+    private String fit;
+    private Integer q;
+}
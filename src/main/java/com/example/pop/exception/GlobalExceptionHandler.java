@@ -322,6 +322,29 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    /**
+     * 409 Conflict - 이어 올리기 위치 불일치 (Upload-Offset 헤더로 현재 위치 안내)
+     */
+    @ExceptionHandler(UploadOffsetConflictException.class)
+    public ResponseEntity<ErrorResponse> handleUploadOffsetConflict(
+            UploadOffsetConflictException e,
+            HttpServletRequest request) {
+
+        log.warn("UploadOffsetConflictException: {} - path: {}", e.getMessage(), request.getRequestURI());
+
+        ErrorResponse errorResponse = ErrorResponse.of(
+                HttpStatus.CONFLICT.value(),
+                "UPLOAD_OFFSET_CONFLICT",
+                e.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .header("Upload-Offset", String.valueOf(e.getCurrentOffset()))
+                .body(errorResponse);
+    }
+
     /**
      * 500 Internal Server Error - 파일 업로드 에러
      */
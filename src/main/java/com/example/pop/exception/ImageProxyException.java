@@ -0,0 +1,23 @@
+package com.example.pop.exception;
+
+import lombok.Getter;
+
+/**
+ * 이미지 프록시 원본 서버 요청 실패 예외
+ * 원본 서버의 HTTP 상태 코드를 그대로 전달
+ */
+@Getter
+public class ImageProxyException extends RuntimeException {
+
+    private final int status;
+
+    public ImageProxyException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public ImageProxyException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.pop.exception;
+
+import lombok.Getter;
+
+/**
+ * 이어 올리기 위치 불일치 예외 (클라이언트가 보낸 위치가 서버에 기록된 위치와 다름)
+ * HTTP 409 Conflict - 응답의 Upload-Offset 헤더 위치부터 다시 보내면 된다.
+ */
+@Getter
+public class UploadOffsetConflictException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadOffsetConflictException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+}
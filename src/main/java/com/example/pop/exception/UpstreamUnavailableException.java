@@ -0,0 +1,16 @@
+package com.example.pop.exception;
+
+/**
+ * 이미지 원본 서버 장애 예외 (연결 실패, 타임아웃, 5xx 응답)
+ * 호스트별 서킷 브레이커의 실패 횟수에 반영된다.
+ */
+public class UpstreamUnavailableException extends ImageProxyException {
+
+    public UpstreamUnavailableException(int status, String message) {
+        super(status, message);
+    }
+
+    public UpstreamUnavailableException(int status, String message, Throwable cause) {
+        super(status, message, cause);
+    }
+}
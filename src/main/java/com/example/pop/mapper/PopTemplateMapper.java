@@ -1,8 +1,10 @@
 package com.example.pop.mapper;
 
 import com.example.pop.vo.PopTemplateVO;
+import com.example.pop.vo.TemplateCategoryCountVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -11,6 +13,7 @@ public interface PopTemplateMapper {
 
     /**
      * 공통 템플릿 리스트 조회 (is_common = 'Y')
+     * cursor 가 있으면 tpl_seq < cursor 인 행부터 조회 (키셋 페이징, offset 은 0)
      */
     List<PopTemplateVO> selectCommonTemplates(
             @Param("layoutType") String layoutType,
@@ -18,6 +21,7 @@ public interface PopTemplateMapper {
             @Param("ctgyMid") String ctgyMid,
             @Param("ctgySml") String ctgySml,
             @Param("ctgySub") String ctgySub,
+            @Param("cursor") Long cursor,
             @Param("offset") int offset,
             @Param("pageSize") int pageSize
     );
@@ -35,6 +39,7 @@ public interface PopTemplateMapper {
 
     /**
      * 우리 마트 템플릿 리스트 조회 (is_common = 'N' AND mart_cd = ?)
+     * cursor 가 있으면 tpl_seq < cursor 인 행부터 조회 (키셋 페이징, offset 은 0)
      */
     List<PopTemplateVO> selectMyTemplates(
             @Param("martCd") String martCd,
@@ -43,6 +48,7 @@ public interface PopTemplateMapper {
             @Param("ctgyMid") String ctgyMid,
             @Param("ctgySml") String ctgySml,
             @Param("ctgySub") String ctgySub,
+            @Param("cursor") Long cursor,
             @Param("offset") int offset,
             @Param("pageSize") int pageSize
     );
@@ -61,6 +67,23 @@ public interface PopTemplateMapper {
 
     int insertTemplate(PopTemplateVO vo);
 
+    /**
+     * 템플릿 여러 건 등록 (INSERT ... VALUES 한 문장, 생성된 tpl_seq 는 각 VO 에 설정)
+     * @return 등록 건수
+     */
+    int insertTemplates(@Param("templates") List<PopTemplateVO> templates);
+
+    /**
+     * 템플릿 복제 (srcTplSeq 원본의 메타데이터만 복사, 썸네일 / tpl_json 은 원본 참조)
+     * 원본이 없으면 0
+     */
+    int insertClone(PopTemplateVO vo);
+
+    /**
+     * 원본을 참조하는 복제본에 썸네일 / tpl_json 을 채워 넣고 참조 해제 (원본 삭제 전)
+     */
+    int materializeClones(@Param("tplSeq") Long tplSeq);
+
     /**
      * 공통 템플릿의 고유 카테고리 대분류 목록 조회
      */
@@ -71,13 +94,55 @@ public interface PopTemplateMapper {
      */
     List<String> selectDistinctCtgyBigByMartCd(@Param("martCd") String martCd);
 
+    /**
+     * 카테고리 조합(대/중/소/세)별 템플릿 개수
+     * @param martCd 마트 코드 (null 이면 공통 템플릿)
+     */
+    List<TemplateCategoryCountVO> selectCategoryCounts(
+            @Param("martCd") String martCd,
+            @Param("layoutType") String layoutType
+    );
+
     /**
      * 템플릿 조회 (tplSeq로)
      */
     PopTemplateVO selectByTplSeq(@Param("tplSeq") Long tplSeq);
 
+    /**
+     * 템플릿 상세 조회 (tpl_json 포함, 복제 템플릿은 원본의 썸네일 / tpl_json 사용)
+     * 목록 조회는 tpl_json 을 가져오지 않으므로 템플릿을 열 때 사용
+     */
+    PopTemplateVO selectTemplateDetail(@Param("tplSeq") Long tplSeq);
+
     /**
      * 템플릿 삭제
      */
     int deleteTemplate(@Param("tplSeq") Long tplSeq);
+
+    /**
+     * 파일을 배경 / 썸네일 / tpl_json 에서 참조하는 템플릿 수 (파일 참조 카운트)
+     * URL 이 같거나 업로드 디렉토리 기준 상대 경로(relativePath)를 가리키는 참조를 모두 센다.
+     * (미사용 파일 정리의 selectFileReferences, updateFileUrl 과 같은 참조 기준)
+     */
+    int countFileReferences(@Param("fileUrl") String fileUrl, @Param("relativePath") String relativePath);
+
+    /**
+     * 파일 URL 변경 (업로드 저장 구조 마이그레이션용, 배경 / 썸네일 / tpl_json 내 참조 모두)
+     */
+    int updateFileUrl(@Param("oldUrl") String oldUrl, @Param("newUrl") String newUrl);
+
+    /**
+     * 전체 템플릿의 파일 참조 컬럼 (배경 / 썸네일 / tpl_json) 스트리밍 조회 (미사용 업로드 파일 정리용)
+     */
+    Cursor<PopTemplateVO> selectFileReferences();
+
+    /**
+     * 배경 이미지 정보가 없는 템플릿 조회 (정보 보충 작업용, afterSeq 다음부터 tpl_seq 순)
+     */
+    List<PopTemplateVO> selectBgImgMetadataTargets(@Param("afterSeq") long afterSeq, @Param("limit") int limit);
+
+    /**
+     * 배경 이미지 정보 저장 (정보 없이 등록된 기존 템플릿 보충용)
+     */
+    int updateBgImgMetadata(PopTemplateVO vo);
 }
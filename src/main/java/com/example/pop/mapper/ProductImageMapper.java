@@ -29,4 +29,22 @@ public interface ProductImageMapper {
      */
     int countProductImages(@Param("searchType") String searchType,
                            @Param("keyword") String keyword);
+
+    /**
+     * 미러링 대상 상품 조회 (등록일시, 시퀀스 순으로 워터마크 이후 건만)
+     * @param afterRgstDt 마지막으로 처리한 등록일시 (null 이면 처음부터)
+     * @param afterSeq 마지막으로 처리한 시퀀스
+     * @param limit 조회 건수
+     * @return 상품 이미지 목록 (시퀀스, URL, 등록일시만 채워짐)
+     */
+    List<ProductImageVO> selectMirrorTargets(@Param("afterRgstDt") String afterRgstDt,
+                                             @Param("afterSeq") Integer afterSeq,
+                                             @Param("limit") int limit);
+
+    /**
+     * 시퀀스 목록으로 상품 이미지 조회
+     * @param seqs 상품 시퀀스 목록
+     * @return 상품 이미지 목록 (시퀀스, URL 만 채워짐)
+     */
+    List<ProductImageVO> selectProductImagesBySeqs(@Param("seqs") List<Integer> seqs);
 }
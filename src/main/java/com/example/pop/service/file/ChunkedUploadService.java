@@ -0,0 +1,397 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.exception.InvalidRequestException;
+import com.example.pop.exception.ResourceNotFoundException;
+import com.example.pop.exception.UploadOffsetConflictException;
+import com.example.pop.service.image.ImageMetadata;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 이어 올리기(분할 업로드) Service
+ *
+ * 큰 파일을 조각으로 나눠 올리고, 네트워크가 끊기면 서버에 기록된 위치부터 나머지만 다시 보낸다.
+ * 1) create   : 세션 생성 (파일명, 전체 크기, Content-Type)
+ * 2) append   : 조각 기록 (클라이언트가 보낸 위치가 현재 위치와 같아야 함, 다르거나 다른 요청이 기록 중이면 409 + 현재 위치)
+ * 3) status   : 현재 위치 조회 (끊긴 뒤 재개할 위치)
+ * 4) complete : 전체를 받았으면 FileStorageService 로 넘겨 업로드 파일로 저장
+ *
+ * 조각은 작업 파일에 위치 지정 쓰기(FileChannel.write(buffer, position))로 기록하고,
+ * 조각 도중 연결이 끊겨도 받은 만큼은 위치에 반영되므로 재시도 비용은 빠진 부분뿐이다.
+ * 세션 정보는 {id}.properties 로 남겨 재시작 후에도 이어 올릴 수 있고, 마지막 수신 후 유효 시간이 지나면 정리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileUploadConfig fileUploadConfig;
+    private final FileStorageService fileStorageService;
+
+    private final ConcurrentHashMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 업로드 세션
+     */
+    private static class UploadSession {
+        final String id;
+        final String owner;
+        final String filename;
+        final String contentType;
+        final long size;
+        long offset;
+        /** 조각 기록 중 여부 (동시에 한 요청만 기록, 본문 수신은 잠금 밖에서) */
+        boolean writing;
+        /** 완료 후 저장된 파일 (파일 삭제 시 잠금 없이 확인하므로 volatile) */
+        volatile String fileUrl;
+        ImageMetadata metadata;
+        long lastActivity;
+
+        UploadSession(String id, String owner, String filename, String contentType, long size) {
+            this.id = id;
+            this.owner = owner;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.size = size;
+            this.lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 완료된 업로드 (템플릿 등록에 사용)
+     */
+    public record CompletedUpload(String originalFilename, String fileUrl, ImageMetadata metadata) {
+    }
+
+    /**
+     * 재시작 전에 만든 세션 불러오기
+     */
+    @PostConstruct
+    public void init() {
+        Path dir = Paths.get(fileUploadConfig.getChunkedDir());
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.properties")) {
+                for (Path file : stream) {
+                    UploadSession session = load(file);
+                    if (session != null) {
+                        sessions.put(session.id, session);
+                    }
+                }
+            }
+            if (!sessions.isEmpty()) {
+                log.info("이어 올리기 세션 복원: {}건", sessions.size());
+            }
+        } catch (IOException e) {
+            log.error("이어 올리기 디렉토리 준비 실패: {}", dir, e);
+        }
+    }
+
+    /**
+     * 세션 생성
+     */
+    public Map<String, Object> create(String owner, String filename, String contentType, long size) {
+        if (filename == null || filename.isBlank()) {
+            throw new InvalidRequestException("파일명(filename)은 필수입니다.");
+        }
+        if (size <= 0 || size > fileUploadConfig.getChunkedMaxFileSize()) {
+            throw new InvalidRequestException(String.format("파일 크기는 1 ~ %dMB 사이여야 합니다.",
+                    fileUploadConfig.getChunkedMaxFileSize() / (1024 * 1024)));
+        }
+        if (!fileStorageService.isImageContentType(contentType)) {
+            throw new InvalidRequestException("이미지 파일만 업로드 가능합니다.");
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString().replace("-", ""),
+                owner, filename, contentType, size);
+        try {
+            Files.createFile(partPath(session.id));
+            save(session);
+        } catch (IOException e) {
+            deleteFiles(session.id);
+            throw new IllegalStateException("이어 올리기 세션 생성 실패", e);
+        }
+        sessions.put(session.id, session);
+
+        log.info("이어 올리기 시작: {} ({}, {} bytes)", session.id, filename, size);
+        return toStatus(session);
+    }
+
+    /**
+     * 세션 상태 (현재 위치 등)
+     */
+    public Map<String, Object> status(String owner, String uploadId) {
+        UploadSession session = get(owner, uploadId);
+        synchronized (session) {
+            return toStatus(session);
+        }
+    }
+
+    /**
+     * 조각 기록
+     *
+     * @param offset 조각 시작 위치 (현재 위치와 같아야 함)
+     * @param body   조각 본문
+     * @return 기록 후 위치
+     */
+    public long append(String owner, String uploadId, long offset, InputStream body) throws IOException {
+        UploadSession session = get(owner, uploadId);
+
+        // 위치 확인과 기록 권한 획득만 잠금 안에서 (느린 네트워크에서 본문을 받는 동안 상태 조회 / 완료 요청이 막히지 않도록)
+        synchronized (session) {
+            if (session.writing) {
+                throw new UploadOffsetConflictException("다른 요청이 조각을 기록 중입니다. (현재: " + session.offset + ")", session.offset);
+            }
+            if (session.fileUrl != null || offset != session.offset) {
+                throw new UploadOffsetConflictException("업로드 위치가 맞지 않습니다. (현재: " + session.offset + ")", session.offset);
+            }
+            session.writing = true;
+        }
+
+        long maxEnd = Math.min(session.size, offset + fileUploadConfig.getChunkedMaxChunkSize());
+        long position = offset;
+        try (FileChannel channel = FileChannel.open(partPath(session.id), StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] array = buffer.array();
+            int read;
+            while ((read = body.read(array, 0, (int) Math.min(array.length, maxEnd - position + 1))) != -1) {
+                if (position + read > maxEnd) {
+                    // 전체 크기 / 조각 크기 초과: 이번 조각은 버리고 원래 위치로
+                    channel.truncate(offset);
+                    position = offset;
+                    throw new InvalidRequestException("조각이 너무 크거나 파일 전체 크기를 넘습니다.");
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+        } finally {
+            // 중간에 끊겨도 받은 만큼은 반영 (재시도 시 빠진 부분만 전송)
+            synchronized (session) {
+                session.offset = position;
+                session.lastActivity = System.currentTimeMillis();
+                session.writing = false;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * 업로드 완료: 전체를 받았으면 업로드 파일로 저장 (같은 세션으로 다시 호출하면 같은 URL 반환)
+     */
+    public Map<String, Object> complete(String owner, String uploadId) {
+        UploadSession session = get(owner, uploadId);
+
+        synchronized (session) {
+            if (session.fileUrl == null) {
+                if (session.writing || session.offset != session.size) {
+                    throw new UploadOffsetConflictException(
+                            "아직 받지 못한 부분이 있습니다. (" + session.offset + " / " + session.size + ")", session.offset);
+                }
+
+                StoredFile stored = fileStorageService.storeLocalFile(partPath(session.id), session.filename);
+                session.fileUrl = stored.getUrl();
+                session.metadata = stored.getMetadata();
+                session.lastActivity = System.currentTimeMillis();
+                try {
+                    save(session);
+                } catch (IOException e) {
+                    log.warn("이어 올리기 세션 저장 실패 (계속 진행): {}", session.id, e);
+                }
+                log.info("이어 올리기 완료: {} -> {}", session.id, session.fileUrl);
+            }
+            return toStatus(session);
+        }
+    }
+
+    /**
+     * 완료된 업로드 조회 (완료되지 않았으면 예외)
+     */
+    public CompletedUpload getCompleted(String owner, String uploadId) {
+        UploadSession session = get(owner, uploadId);
+        synchronized (session) {
+            if (session.fileUrl == null) {
+                throw new InvalidRequestException("완료되지 않은 업로드입니다: " + uploadId);
+            }
+            return new CompletedUpload(session.filename, session.fileUrl, session.metadata);
+        }
+    }
+
+    /**
+     * 완료되었지만 아직 템플릿에 연결되지 않은 업로드가 파일을 사용 중인지 확인
+     * 파일 저장 잠금 안에서 호출되므로 세션 잠금을 잡지 않는다. (complete 는 세션 잠금 → 파일 저장 잠금 순서)
+     */
+    public boolean holdsFile(String fileUrl) {
+        for (UploadSession session : sessions.values()) {
+            if (fileUrl.equals(session.fileUrl)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 업로드 취소
+     */
+    public void cancel(String owner, String uploadId) {
+        UploadSession session = get(owner, uploadId);
+        synchronized (session) {
+            sessions.remove(session.id);
+            deleteFiles(session.id);
+        }
+        log.info("이어 올리기 취소: {}", uploadId);
+    }
+
+    /**
+     * 유효 시간이 지난 세션 정리
+     */
+    @Scheduled(fixedDelayString = "${file.chunked.cleanup-interval-ms:600000}")
+    public void cleanupExpired() {
+        long expireMillis = TimeUnit.HOURS.toMillis(fileUploadConfig.getChunkedExpireHours());
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        for (UploadSession session : sessions.values()) {
+            synchronized (session) {
+                if (!session.writing && now - session.lastActivity > expireMillis && sessions.remove(session.id, session)) {
+                    deleteFiles(session.id);
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.info("만료된 이어 올리기 세션 정리: {}건", removed);
+        }
+    }
+
+    private UploadSession get(String owner, String uploadId) {
+        UploadSession session = uploadId == null || !UPLOAD_ID.matcher(uploadId).matches() ? null : sessions.get(uploadId);
+        if (session == null || !session.owner.equals(owner)) {
+            throw new ResourceNotFoundException("업로드 세션을 찾을 수 없습니다: " + uploadId);
+        }
+        return session;
+    }
+
+    private Map<String, Object> toStatus(UploadSession session) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.put("uploadId", session.id);
+        result.put("offset", session.offset);
+        result.put("size", session.size);
+        result.put("chunkSize", fileUploadConfig.getChunkedMaxChunkSize());
+        result.put("completed", session.fileUrl != null);
+        result.put("fileUrl", session.fileUrl);
+        return result;
+    }
+
+    private Path partPath(String id) {
+        return Paths.get(fileUploadConfig.getChunkedDir(), id + ".part");
+    }
+
+    private Path metaPath(String id) {
+        return Paths.get(fileUploadConfig.getChunkedDir(), id + ".properties");
+    }
+
+    private void save(UploadSession session) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("owner", session.owner);
+        properties.setProperty("filename", session.filename);
+        properties.setProperty("contentType", session.contentType);
+        properties.setProperty("size", String.valueOf(session.size));
+        if (session.fileUrl != null) {
+            properties.setProperty("fileUrl", session.fileUrl);
+        }
+        if (session.metadata != null) {
+            properties.setProperty("imageWidth", String.valueOf(session.metadata.width()));
+            properties.setProperty("imageHeight", String.valueOf(session.metadata.height()));
+            properties.setProperty("imageFormat", session.metadata.format());
+            properties.setProperty("imageOrientation", String.valueOf(session.metadata.orientation()));
+        }
+        try (OutputStream out = Files.newOutputStream(metaPath(session.id))) {
+            properties.store(out, null);
+        }
+    }
+
+    private UploadSession load(Path metaFile) {
+        String fileName = metaFile.getFileName().toString();
+        String id = fileName.substring(0, fileName.length() - ".properties".length());
+        if (!UPLOAD_ID.matcher(id).matches()) {
+            return null;
+        }
+
+        try {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.ISO_8859_1)) {
+                properties.load(reader);
+            }
+            UploadSession session = new UploadSession(id, properties.getProperty("owner"), properties.getProperty("filename"),
+                    properties.getProperty("contentType"), Long.parseLong(properties.getProperty("size")));
+            session.fileUrl = properties.getProperty("fileUrl");
+            if (properties.getProperty("imageWidth") != null) {
+                session.metadata = new ImageMetadata(
+                        Integer.parseInt(properties.getProperty("imageWidth")),
+                        Integer.parseInt(properties.getProperty("imageHeight")),
+                        properties.getProperty("imageFormat"),
+                        Integer.parseInt(properties.getProperty("imageOrientation")));
+            }
+
+            // 위치는 작업 파일 크기 (마지막 조각 도중 종료되었어도 기록된 만큼)
+            Path part = partPath(id);
+            long lastModified = Files.getLastModifiedTime(metaFile).toMillis();
+            if (Files.exists(part)) {
+                session.offset = Math.min(Files.size(part), session.size);
+                lastModified = Math.max(lastModified, Files.getLastModifiedTime(part).toMillis());
+            } else if (session.fileUrl == null) {
+                deleteFiles(id);
+                return null;
+            } else {
+                session.offset = session.size;
+            }
+            session.lastActivity = lastModified;
+            return session;
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("이어 올리기 세션 복원 실패 (삭제): {}", metaFile, e);
+            deleteFiles(id);
+            return null;
+        }
+    }
+
+    private void deleteFiles(String id) {
+        for (Path file : new Path[]{partPath(id), metaPath(id)}) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("이어 올리기 파일 삭제 실패: {}", file, e);
+            }
+        }
+    }
+}
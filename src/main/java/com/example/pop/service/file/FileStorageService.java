@@ -2,35 +2,266 @@ package com.example.pop.service.file;
 
 import com.example.pop.config.FileUploadConfig;
 import com.example.pop.exception.FileUploadException;
-import lombok.RequiredArgsConstructor;
+import com.example.pop.exception.InvalidRequestException;
+import com.example.pop.service.image.ImageMetadata;
+import com.example.pop.service.image.ImageValidator;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
+/**
+ * 업로드 파일 저장 Service
+ *
+ * 내용 기반 저장 모드(file.content-addressed)에서는 파일 내용의 SHA-256 해시를 파일명으로 사용한다.
+ * - 같은 이미지를 여러 번 올려도 디스크에는 한 번만 저장되고 같은 URL 을 공유
+ * - URL 이 내용과 1:1 이므로 한 번 내려받은 파일은 영구 캐시 가능
+ * - 여러 템플릿이 같은 파일을 가리킬 수 있으므로 삭제는 참조가 모두 없어진 경우에만 (deleteIfUnreferenced)
+ * - 같은 파일의 저장(commit)과 삭제는 경로별 잠금으로 직렬화하여, "이미 있음" 으로 판단한 직후 파일이 지워지지 않도록 함
+ * - file.sharded 이면 해시 앞 4자리로 2단계 디렉토리 분산 (ab/cd/{해시}.{확장자})
+ *
+ * 쓰기 순서: 임시 파일에 복사(+해시 계산) → fsync → 최종 위치로 원자적 이동
+ * file.async-write.enabled 이면 fsync / 이동은 별도 스레드에서 처리하고 완료 여부는 StoredFile 로 알려준다.
+ * 기록이 끝나면 FileStoredEvent 를 발행한다 (파생 이미지 생성 등).
+ * 저장하면서 이미지 헤더 정보(크기 / 형식 / EXIF 방향)를 함께 읽어 StoredFile 로 돌려준다. (픽셀 디코딩 없음)
+ *
+ * 이미지 전용 저장소이므로 Content-Type 대신 내용으로 검증한다 (ImageValidator).
+ * 시그니처가 이미지가 아니면 본문을 받기 전에, 픽셀 수 제한을 넘으면 최종 위치로 옮기기 전에 거절하고 임시 파일을 지운다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FileStorageService {
 
+    private static final String TEMP_PREFIX = ".tmp_";
+    private static final int LOCK_STRIPES = 64;
+    private static final int RECENT_STORES_PURGE_SIZE = 1024;
+
     private final FileUploadConfig fileUploadConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageValidator imageValidator;
+    private final ThreadPoolExecutor writeExecutor;
+    private final ThreadPoolExecutor storeExecutor;
+
+    /** 같은 파일의 저장 / 삭제 잠금 (경로 해시로 분산) */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /** 최근 저장된 파일 → 마지막 저장 시각 / 유예 시간 안의 저장 횟수 (참조하는 행이 아직 커밋 전일 수 있음) */
+    private final ConcurrentHashMap<Path, RecentStore> recentStores = new ConcurrentHashMap<>();
+
+    private record RecentStore(long storedAt, int stores) {
+    }
+
+    public FileStorageService(FileUploadConfig fileUploadConfig,
+                              ApplicationEventPublisher eventPublisher,
+                              ImageValidator imageValidator) {
+        this.fileUploadConfig = fileUploadConfig;
+        this.eventPublisher = eventPublisher;
+        this.imageValidator = imageValidator;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        if (fileUploadConfig.isAsyncWriteEnabled()) {
+            this.writeExecutor = new ThreadPoolExecutor(
+                    fileUploadConfig.getAsyncWriteThreads(), fileUploadConfig.getAsyncWriteThreads(),
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(fileUploadConfig.getAsyncWriteQueueSize()),
+                    r -> {
+                        Thread thread = new Thread(r, "file-write");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // 대기열이 가득 차면 요청 스레드에서 직접 처리 (업로드를 거절하지 않음)
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        } else {
+            this.writeExecutor = null;
+        }
+
+        int storeThreads = fileUploadConfig.getStoreThreads() > 0
+                ? fileUploadConfig.getStoreThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.storeExecutor = new ThreadPoolExecutor(
+                storeThreads, storeThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fileUploadConfig.getStoreQueueSize()),
+                r -> {
+                    Thread thread = new Thread(r, "file-store");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 대기열이 가득 차면 요청 스레드에서 직접 처리 (업로드를 거절하지 않음)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // 업로드가 없을 때는 스레드를 남겨두지 않음
+        this.storeExecutor.allowCoreThreadTimeOut(true);
+    }
 
     /**
-     * 파일 저장 및 URL 반환
+     * 종료 시 남은 쓰기 작업을 마저 처리
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        storeExecutor.shutdown();
+        if (writeExecutor != null) {
+            writeExecutor.shutdown();
+            if (!writeExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("파일 쓰기 작업이 종료 시간 내에 끝나지 않았습니다: 남은 작업 {}건", writeExecutor.getQueue().size());
+            }
+        }
+    }
+
+    /**
+     * 파일 저장 (디스크 기록이 끝난 뒤 반환)
      * 
      * @param file 업로드 파일
-     * @return 저장된 파일의 URL 경로
+     * @return 저장된 파일의 URL 경로와 이미지 정보
+     */
+    public StoredFile storeFile(MultipartFile file) {
+        validateUpload(file);
+
+        if (!fileUploadConfig.isContentAddressed()) {
+            return storeLegacy(file);
+        }
+
+        StagedFile staged = stage(file);
+        commit(staged);
+        return staged.toStoredFile();
+    }
+
+    /**
+     * 여러 파일 병렬 저장 (형식 / 크기 검증, 해시, 디스크 기록, 이미지 정보 읽기)
+     * 파일마다 따로 처리하므로 일부가 실패해도 나머지는 저장된다.
+     * 처리 시간이 파일 개수가 아니라 코어 / 디스크 수에 비례하도록 스레드 풀(file.store.threads)에서 실행한다.
+     *
+     * @param files       업로드 파일
+     * @param maxSizeInMB 파일 1개 최대 크기
+     * @return 파일 순서대로 저장 결과 (실패한 파일은 예외로 완료)
+     */
+    public List<CompletableFuture<StoredFile>> storeFiles(List<MultipartFile> files, long maxSizeInMB) {
+        List<CompletableFuture<StoredFile>> results = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                if (!isImageFile(file)) {
+                    throw new InvalidRequestException("이미지 파일만 업로드 가능합니다.");
+                }
+                validateFileSize(file, maxSizeInMB);
+                return storeFile(file);
+            }, storeExecutor));
+        }
+        return results;
+    }
+
+    /**
+     * 파일 저장 요청 (비동기 쓰기 사용 시 fsync / 이동은 별도 스레드)
+     * 요청 스레드에서는 업로드 스트림을 임시 파일로 복사하는 것까지만 처리하므로,
+     * 호출자는 그동안 DB 작업 등을 진행하고 필요한 시점에 completion 을 확인하면 된다.
+     *
+     * @param file 업로드 파일
+     * @return 파일 URL 과 디스크 기록 완료 Future
      */
-    public String storeFile(MultipartFile file) {
+    public StoredFile storeFileAsync(MultipartFile file) {
+        if (writeExecutor == null || !fileUploadConfig.isContentAddressed()) {
+            return storeFile(file);
+        }
+
+        validateUpload(file);
+        StagedFile staged = stage(file);
+        CompletableFuture<Void> completion = CompletableFuture.runAsync(() -> commit(staged), writeExecutor);
+        return new StoredFile(staged.url(), staged.metadata(), completion);
+    }
+
+    /**
+     * 스트림으로 받은 파일 저장 (multipart 스트리밍 업로드용)
+     * 읽는 도중 maxBytes 를 넘으면 바로 중단하고 임시 파일을 지운다.
+     *
+     * @param in               파일 본문
+     * @param originalFilename 원본 파일명
+     * @param maxBytes         최대 크기
+     * @return 저장된 파일의 URL 경로와 이미지 정보
+     */
+    public StoredFile storeStream(InputStream in, String originalFilename, long maxBytes) {
+        if (originalFilename == null || originalFilename.isEmpty()) {
+            throw new FileUploadException("파일명이 유효하지 않습니다.");
+        }
+
+        InputStream limited = new SizeLimitedInputStream(in, maxBytes);
+        if (!fileUploadConfig.isContentAddressed()) {
+            return storeLegacy(limited, originalFilename);
+        }
+
+        StagedFile staged = stage(limited, originalFilename);
+        commit(staged);
+        return staged.toStoredFile();
+    }
+
+    /**
+     * 서버에 이미 받아 둔 파일 저장 (이어 올리기 완료 파일 등)
+     * 원본 파일은 업로드 디렉토리로 이동되므로 호출 후에는 남지 않는다. (같은 파일 시스템이면 복사 없음)
+     *
+     * @param source           받아 둔 파일
+     * @param originalFilename 원본 파일명
+     * @return 저장된 파일의 URL 경로와 이미지 정보
+     */
+    public StoredFile storeLocalFile(Path source, String originalFilename) {
+        if (originalFilename == null || originalFilename.isEmpty()) {
+            throw new FileUploadException("파일명이 유효하지 않습니다.");
+        }
+
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir());
+        String relativePath;
+        try {
+            if (fileUploadConfig.isContentAddressed()) {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+                relativePath = toRelativePath(HexFormat.of().formatHex(digest.digest()), getFileExtension(originalFilename));
+            } else {
+                relativePath = generateUniqueFilename(originalFilename);
+            }
+        } catch (IOException e) {
+            log.error("파일 저장 실패: {}", originalFilename, e);
+            throw new FileUploadException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+
+        StagedFile staged = new StagedFile(originalFilename, source, uploadPath.resolve(relativePath),
+                fileUploadConfig.getUrlPath() + "/" + relativePath, imageValidator.validate(source));
+        commit(staged);
+        return staged.toStoredFile();
+    }
+
+    private void validateUpload(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new FileUploadException("파일이 비어있습니다.");
         }
@@ -40,10 +271,22 @@ public class FileStorageService {
         if (originalFilename == null || originalFilename.isEmpty()) {
             throw new FileUploadException("파일명이 유효하지 않습니다.");
         }
+    }
+
+    /**
+     * 기존 방식 저장: 날짜_UUID_원본파일명
+     */
+    private StoredFile storeLegacy(MultipartFile file) {
+        try {
+            return storeLegacy(file.getInputStream(), file.getOriginalFilename());
+        } catch (IOException e) {
+            log.error("파일 저장 실패: {}", file.getOriginalFilename(), e);
+            throw new FileUploadException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    private StoredFile storeLegacy(InputStream in, String originalFilename) {
 
-        // 파일 확장자 추출
-        String extension = getFileExtension(originalFilename);
-        
         // 고유한 파일명 생성: 날짜_UUID_원본파일명
         String uniqueFilename = generateUniqueFilename(originalFilename);
 
@@ -58,19 +301,195 @@ public class FileStorageService {
 
             // 파일 저장
             Path targetPath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            ImageMetadata metadata;
+            try {
+                Files.copy(imageValidator.requireImageSignature(in), targetPath, StandardCopyOption.REPLACE_EXISTING);
+                metadata = imageValidator.validate(targetPath);
+            } catch (IOException | RuntimeException e) {
+                deleteQuietly(targetPath);
+                throw e;
+            }
 
             log.info("파일 저장 완료: {} -> {}", originalFilename, targetPath.toString());
 
+            String url = fileUploadConfig.getUrlPath() + "/" + uniqueFilename;
+            eventPublisher.publishEvent(new FileStoredEvent(url, targetPath));
+            return new StoredFile(url, metadata, CompletableFuture.completedFuture(null));
 
-            return fileUploadConfig.getUrlPath() + "/" + uniqueFilename;
+        } catch (IOException e) {
+            log.error("파일 저장 실패: {}", originalFilename, e);
+            throw new FileUploadException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 임시 파일에 복사된 업로드 (최종 위치로 이동 전)
+     */
+    private record StagedFile(String originalFilename, Path tempFile, Path targetPath, String url, ImageMetadata metadata) {
+
+        StoredFile toStoredFile() {
+            return new StoredFile(url, metadata, CompletableFuture.completedFuture(null));
+        }
+    }
+
+    /**
+     * 1단계: 임시 파일로 복사하면서 해시 계산 (파일을 두 번 읽지 않음)
+     * 복사 전에 시그니처를, 복사가 끝난 임시 파일에서 헤더(크기 / 픽셀 수)를 검증
+     * (파일 앞부분만 읽으므로 방금 쓴 페이지 캐시에서 처리됨)
+     */
+    private StagedFile stage(MultipartFile file) {
+        try {
+            return stage(file.getInputStream(), file.getOriginalFilename());
+        } catch (IOException e) {
+            log.error("파일 저장 실패: {}", file.getOriginalFilename(), e);
+            throw new FileUploadException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    private StagedFile stage(InputStream source, String originalFilename) {
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir());
+        Path tempFile = null;
+
+        try {
+            Files.createDirectories(uploadPath);
+            tempFile = Files.createTempFile(uploadPath, TEMP_PREFIX, null);
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(imageValidator.requireImageSignature(source), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String extension = getFileExtension(originalFilename);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relativePath = toRelativePath(hash, extension);
+
+            return new StagedFile(originalFilename, tempFile, uploadPath.resolve(relativePath),
+                    fileUploadConfig.getUrlPath() + "/" + relativePath, imageValidator.validate(tempFile));
 
         } catch (IOException e) {
+            deleteQuietly(tempFile);
             log.error("파일 저장 실패: {}", originalFilename, e);
             throw new FileUploadException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // 크기 초과, 이미지 검증 실패 등
+            deleteQuietly(tempFile);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            deleteQuietly(tempFile);
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
         }
     }
 
+    /**
+     * 2단계: fsync 후 최종 위치로 원자적 이동
+     * 같은 내용의 파일이 이미 있으면 새로 쓰지 않고 기존 파일 사용
+     * 삭제(deleteIfUnreferenced)와 같은 잠금 안에서 처리하고, 참조가 커밋될 때까지 삭제되지 않도록 최근 저장 목록에 기록
+     */
+    private void commit(StagedFile staged) {
+        Path targetPath = staged.targetPath();
+        synchronized (lockFor(targetPath)) {
+            moveToTarget(staged);
+            long now = System.currentTimeMillis();
+            recentStores.compute(targetPath.toAbsolutePath().normalize(),
+                    (path, recent) -> new RecentStore(now, isRecent(recent, now) ? recent.stores() + 1 : 1));
+        }
+        purgeRecentStores();
+
+        eventPublisher.publishEvent(new FileStoredEvent(staged.url(), targetPath));
+    }
+
+    private void moveToTarget(StagedFile staged) {
+        Path targetPath = staged.targetPath();
+        try {
+            if (Files.exists(targetPath)) {
+                // 이미 같은 내용이 저장되어 있음 → 수정 시각만 갱신 (정리 작업이 방금 쓰인 파일을 지우지 않도록)
+                Files.delete(staged.tempFile());
+                Files.setLastModifiedTime(targetPath, FileTime.fromMillis(System.currentTimeMillis()));
+                log.info("파일 중복 저장 생략: {} -> {}", staged.originalFilename(), targetPath);
+            } else {
+                try (FileChannel channel = FileChannel.open(staged.tempFile(), StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                Files.createDirectories(targetPath.getParent());
+                moveAtomically(staged.tempFile(), targetPath);
+                log.info("파일 저장 완료: {} -> {}", staged.originalFilename(), targetPath);
+            }
+
+        } catch (IOException e) {
+            deleteQuietly(staged.tempFile());
+            log.error("파일 저장 실패: {}", staged.originalFilename(), e);
+            throw new FileUploadException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    private Object lockFor(Path path) {
+        return locks[Math.floorMod(path.toAbsolutePath().normalize().hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * 유예 시간이 지난 최근 저장 기록 정리 (기록이 많이 쌓였을 때만)
+     */
+    private void purgeRecentStores() {
+        if (recentStores.size() < RECENT_STORES_PURGE_SIZE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // 그 사이 다시 저장되어 시각이 바뀐 항목은 남음
+        recentStores.values().removeIf(recent -> !isRecent(recent, now));
+    }
+
+    private boolean isRecent(RecentStore recent, long now) {
+        return recent != null && now - recent.storedAt() < TimeUnit.SECONDS.toMillis(fileUploadConfig.getReleaseGraceSeconds());
+    }
+
+    /**
+     * 내용 해시로 저장 경로 생성 (업로드 디렉토리 기준 상대 경로)
+     * 분산 저장이면 ab/cd/{해시}.{확장자}, 아니면 {해시}.{확장자}
+     */
+    public String toRelativePath(String hash, String extension) {
+        String filename = extension.isEmpty() ? hash : hash + "." + extension;
+        if (!fileUploadConfig.isSharded()) {
+            return filename;
+        }
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + filename;
+    }
+
+    /**
+     * 파일 URL → 실제 파일 경로 (file.url-path 로 시작하지 않거나 업로드 디렉토리 밖을 가리키면 null)
+     * 파일명만 같은 다른 URL 이 업로드 파일로 해석되지 않도록 접두어가 없는 URL 은 받지 않는다.
+     */
+    public Path resolvePath(String fileUrl) {
+        String prefix = fileUploadConfig.getUrlPath() + "/";
+        if (fileUrl == null || !fileUrl.startsWith(prefix)) {
+            return null;
+        }
+
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+        Path filePath = uploadPath.resolve(fileUrl.substring(prefix.length())).normalize();
+        return filePath.startsWith(uploadPath) && !filePath.equals(uploadPath) ? filePath : null;
+    }
+
+    /**
+     * 업로드 디렉토리 기준 상대 경로 (ab/cd/{해시}.{확장자}, 업로드 파일이 아니면 null)
+     * "./", "../" 등을 정리한 경로이므로 같은 파일은 항상 같은 값 (참조 카운트 기준)
+     */
+    public String relativePathOf(String fileUrl) {
+        Path filePath = resolvePath(fileUrl);
+        if (filePath == null) {
+            return null;
+        }
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+        return uploadPath.relativize(filePath).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * 저장 형식의 파일 URL ({file.url-path}/{상대 경로}, 업로드 파일이 아니면 null)
+     */
+    public String toCanonicalUrl(String fileUrl) {
+        String relativePath = relativePathOf(fileUrl);
+        return relativePath == null ? null : fileUploadConfig.getUrlPath() + "/" + relativePath;
+    }
+
     /**
      * 파일 삭제
      * 
@@ -83,12 +502,10 @@ public class FileStorageService {
         }
 
         try {
-            // URL에서 파일명 추출 (예: /uploads/templates/filename.jpg -> filename.jpg)
-            String filename = fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+            // URL에서 파일 경로 추출 (예: /uploads/templates/ab/cd/abcd...jpg -> {업로드 디렉토리}/ab/cd/abcd...jpg)
+            Path filePath = resolvePath(fileUrl);
             
-            Path filePath = Paths.get(fileUploadConfig.getUploadDir(), filename);
-            
-            if (Files.exists(filePath)) {
+            if (filePath != null && Files.exists(filePath)) {
                 Files.delete(filePath);
                 log.info("파일 삭제 완료: {}", filePath);
                 return true;
@@ -102,6 +519,85 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * 참조가 없는 파일 삭제
+     * 저장과 같은 잠금 안에서 참조를 다시 확인한 뒤 삭제하므로, 같은 내용을 동시에 올린 요청이 기존 파일을 재사용한 직후 지워지지 않는다.
+     * 유예 시간(file.release-grace-seconds) 안에 저장된 파일은 참조하는 행이 아직 커밋 전일 수 있으므로 남긴다.
+     * (남은 파일은 미사용 파일 정리 작업 대상)
+     *
+     * @param fileUrl    삭제할 파일의 URL 경로
+     * @param referenced 참조 여부 확인 (잠금 안에서 호출)
+     * @return 삭제 여부
+     */
+    public boolean deleteIfUnreferenced(String fileUrl, Predicate<String> referenced) {
+        Path filePath = resolvePath(fileUrl);
+        if (filePath == null) {
+            return false;
+        }
+
+        synchronized (lockFor(filePath)) {
+            if (isRecent(recentStores.get(filePath), System.currentTimeMillis())) {
+                log.info("최근 저장된 파일 유지: {}", fileUrl);
+                return false;
+            }
+            if (referenced.test(fileUrl)) {
+                return false;
+            }
+            recentStores.remove(filePath);
+            return deleteFile(fileUrl);
+        }
+    }
+
+    /**
+     * 방금 저장했지만 등록(INSERT)에 실패해 쓰지 않게 된 파일 정리
+     * 이 저장만큼 최근 저장 기록을 줄이고, 유예 시간 안에 다른 요청도 같은 내용을 저장했으면 (아직 커밋 전일 수 있으므로) 남긴다.
+     * 그 외에는 deleteIfUnreferenced 와 같이 잠금 안에서 참조를 확인한 뒤 삭제한다.
+     *
+     * @param fileUrl    저장 시 받은 URL 경로
+     * @param referenced 참조 여부 확인 (잠금 안에서 호출)
+     * @return 삭제 여부
+     */
+    public boolean discardStored(String fileUrl, Predicate<String> referenced) {
+        Path filePath = resolvePath(fileUrl);
+        if (filePath == null) {
+            return false;
+        }
+
+        synchronized (lockFor(filePath)) {
+            RecentStore recent = recentStores.get(filePath);
+            if (isRecent(recent, System.currentTimeMillis()) && recent.stores() > 1) {
+                recentStores.put(filePath, new RecentStore(recent.storedAt(), recent.stores() - 1));
+                log.info("다른 요청이 함께 저장한 파일 유지: {}", fileUrl);
+                return false;
+            }
+            recentStores.remove(filePath);
+            if (referenced.test(fileUrl)) {
+                return false;
+            }
+            return deleteFile(fileUrl);
+        }
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            // 같은 내용을 동시에 올린 경우 덮어써도 내용이 같음
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", file, e);
+        }
+    }
+
     /**
      * 고유한 파일명 생성
      * 형식: 날짜(yyyyMMdd)_UUID_원본파일명
@@ -119,19 +615,27 @@ public class FileStorageService {
     /**
      * 파일 확장자 추출
      */
-    private String getFileExtension(String filename) {
+    public String getFileExtension(String filename) {
         int lastDotIndex = filename.lastIndexOf('.');
         if (lastDotIndex > 0 && lastDotIndex < filename.length() - 1) {
-            return filename.substring(lastDotIndex + 1).toLowerCase();
+            String extension = filename.substring(lastDotIndex + 1).toLowerCase();
+            // 확장자는 파일명에 그대로 쓰이므로 영문/숫자만 허용
+            return extension.matches("[a-z0-9]{1,10}") ? extension : "";
         }
         return "";
     }
 
     /**
-     * 이미지 파일 여부 확인
+     * 이미지 파일 여부 확인 (Content-Type 으로 하는 빠른 사전 확인, 실제 내용은 저장 시 ImageValidator 로 검증)
      */
     public boolean isImageFile(MultipartFile file) {
-        String contentType = file.getContentType();
+        return isImageContentType(file.getContentType());
+    }
+
+    /**
+     * 이미지 Content-Type 여부 확인
+     */
+    public boolean isImageContentType(String contentType) {
         if (contentType == null) {
             return false;
         }
@@ -153,4 +657,43 @@ public class FileStorageService {
             );
         }
     }
+
+    /**
+     * 최대 크기를 넘으면 읽는 도중 예외를 던지는 InputStream (전체를 받기 전에 거절)
+     */
+    private static class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long count = 0;
+
+        SizeLimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                checkLimit(read);
+            }
+            return read;
+        }
+
+        private void checkLimit(int read) {
+            count += read;
+            if (count > maxBytes) {
+                throw new FileUploadException(String.format("파일 크기가 너무 큽니다. (최대: %dMB)", maxBytes / (1024 * 1024)));
+            }
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.pop.service.file;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * 업로드 파일 디스크 기록 완료 이벤트 (파생 이미지 생성 등 후처리용)
+ */
+@Getter
+@RequiredArgsConstructor
+public class FileStoredEvent {
+
+    /** 파일 URL 경로 */
+    private final String url;
+
+    /** 저장된 파일 경로 */
+    private final Path path;
+}
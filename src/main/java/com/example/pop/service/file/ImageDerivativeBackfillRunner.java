@@ -0,0 +1,92 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * 파생 이미지 보충 도구
+ *
+ * 파생 이미지 기능 도입 전에 올라간 업로드 파일(또는 생성 대기열이 가득 차 건너뛴 파일)의 파생본을 만든다.
+ * 목록 조회에서는 파생본을 만들지 않으므로 기존 파일은 이 작업으로 한 번에 채운다.
+ *
+ * 실행: --file.derivatives.backfill.run=true
+ * 원본마다 호출 스레드에서 차례로 생성한다. (디코딩은 ImageDecodeService 의 메모리 예산을 따름)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageDerivativeBackfillRunner implements ApplicationRunner {
+
+    private static final String TEMP_PREFIX = ".tmp_";
+
+    private final FileUploadConfig fileUploadConfig;
+    private final ImageDerivativeService imageDerivativeService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!fileUploadConfig.isDerivativeBackfillRun()) {
+            return;
+        }
+        if (!fileUploadConfig.isDerivativesEnabled()) {
+            log.warn("파생 이미지 보충 생략: 파생 이미지(file.derivatives.enabled)가 꺼져 있습니다.");
+            return;
+        }
+
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+        int[] counts = new int[3]; // 생성, 이미 있음, 실패
+
+        log.info("파생 이미지 보충 시작: {}", uploadPath);
+
+        try {
+            Files.walkFileTree(uploadPath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    boolean hidden = !dir.equals(uploadPath) && dir.getFileName().toString().startsWith(".");
+                    return hidden ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String fileName = file.getFileName().toString();
+                    if (!attrs.isRegularFile() || fileName.startsWith(".") || fileName.startsWith(TEMP_PREFIX)
+                            || imageDerivativeService.getOriginalBaseName(fileName) != null) {
+                        return FileVisitResult.CONTINUE; // 임시 파일, 파생본
+                    }
+
+                    if (imageDerivativeService.hasAllDerivatives(file)) {
+                        counts[1]++;
+                    } else if (imageDerivativeService.generateNow(file)) {
+                        counts[0]++;
+                    } else {
+                        counts[2]++;
+                        log.warn("파생 이미지 생성 실패 (이미지가 아니거나 생성 중): {}", file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    log.warn("업로드 파일 검사 실패 (건너뜀): {} ({})", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("업로드 디렉토리 조회 실패: {}", uploadPath, e);
+            return;
+        }
+
+        log.info("파생 이미지 보충 완료 - 생성 {}건, 기존 {}건, 실패 {}건", counts[0], counts[1], counts[2]);
+    }
+}
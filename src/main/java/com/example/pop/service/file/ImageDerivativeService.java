@@ -0,0 +1,403 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.service.image.ImageResizeService;
+import com.example.pop.service.image.ResizeSpec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 이미지 파생본 생성 Service
+ *
+ * 업로드가 끝나면(FileStoredEvent) 별도 스레드에서 용도별 크기의 파생 이미지를 미리 만들어 둔다.
+ * 목록 화면은 원본 대신 작은 파생본을 받아 가므로 전송량과 브라우저 디코딩 비용이 줄어든다.
+ *
+ * 파생본은 원본 옆에 정해진 이름으로 저장한다: {원본 파일명(확장자 제외)}_{이름}.jpg (투명도가 있으면 .png)
+ * 예) ab/cd/abcd...ef.png → ab/cd/abcd...ef_gallery.jpg, ab/cd/abcd...ef_preview.jpg
+ * 원본이 내용 기반이면 파생본도 영구 캐시 가능하다.
+ *
+ * 생성한 파생본은 메모리 색인(원본 → 파생본 확장자)에 기록하고, 목록 조회는 색인만 본다. (조회 시 파일 확인 / 생성 요청 없음)
+ * 색인은 시작 시 업로드 디렉토리의 파생본 파일로 복원한다.
+ * 파생본이 없는 기존 업로드 파일은 ImageDerivativeBackfillRunner 로 한 번에 생성한다.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private static final String TEMP_PREFIX = ".tmp_";
+    private static final String[] EXTENSIONS = {"jpg", "png"};
+
+    /** 파생본 종류 */
+    private record Derivative(String name, int maxSize, int quality) {
+    }
+
+    private final FileUploadConfig fileUploadConfig;
+    private final FileStorageService fileStorageService;
+    private final ImageResizeService imageResizeService;
+    private final List<Derivative> derivatives;
+    private final ThreadPoolExecutor executor;
+
+    /** 생성 중인 원본 (같은 원본 중복 생성 방지) */
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    /** 디코딩할 수 없는 원본 (같은 파일이 다시 저장되어도 다시 시도하지 않도록) */
+    private final Set<Path> unsupported = ConcurrentHashMap.newKeySet();
+
+    /** 생성된 파생본 색인: 원본 경로(확장자 제외) → 파생본 이름 → 확장자 */
+    private final ConcurrentHashMap<Path, Map<String, String>> index = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(FileUploadConfig fileUploadConfig,
+                                  FileStorageService fileStorageService,
+                                  ImageResizeService imageResizeService) {
+        this.fileUploadConfig = fileUploadConfig;
+        this.fileStorageService = fileStorageService;
+        this.imageResizeService = imageResizeService;
+        this.derivatives = parseSizes(fileUploadConfig.getDerivativeSizes());
+        this.executor = new ThreadPoolExecutor(
+                fileUploadConfig.getDerivativeThreads(), fileUploadConfig.getDerivativeThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fileUploadConfig.getDerivativeQueueSize()),
+                r -> {
+                    Thread thread = new Thread(r, "image-derivative");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                // 가득 차면 건너뜀 (보충 작업 ImageDerivativeBackfillRunner 에서 생성)
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 시작 시 업로드 디렉토리에 있는 파생본 파일로 색인 복원
+     */
+    @PostConstruct
+    public void loadIndex() {
+        if (!fileUploadConfig.isDerivativesEnabled()) {
+            return;
+        }
+
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(uploadPath)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(uploadPath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    // 이어 올리기 작업 디렉토리(.chunked), 격리 디렉토리 등 숨김 디렉토리는 건너뜀
+                    boolean hidden = !dir.equals(uploadPath) && dir.getFileName().toString().startsWith(".");
+                    return hidden ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    recordExisting(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("파생 이미지 색인 복원 실패: {}", uploadPath, e);
+        }
+        log.info("파생 이미지 색인 복원 완료: 원본 {}건", index.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 업로드 완료 시 파생본 생성 요청
+     */
+    @EventListener
+    public void onFileStored(FileStoredEvent event) {
+        schedule(event.getPath());
+    }
+
+    /**
+     * 파생본 URL 목록 (이름 → URL, 작은 것부터, 변경 불가)
+     * 색인에 기록된 파생본만 돌려준다. (파일 확인 / 생성 요청 없음, 아직 없는 파생본은 빠짐)
+     */
+    public Map<String, String> getDerivatives(String fileUrl) {
+        Path original = fileStorageService.resolvePath(fileUrl);
+        if (!fileUploadConfig.isDerivativesEnabled() || original == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> recorded = index.get(indexKey(original));
+        if (recorded == null) {
+            return Collections.emptyMap();
+        }
+
+        String urlBase = stripExtension(fileUrl);
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Derivative derivative : derivatives) {
+            String extension = recorded.get(derivative.name());
+            if (extension != null) {
+                result.put(derivative.name(), urlBase + "_" + derivative.name() + "." + extension);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 모든 파생본이 색인에 있는지 (보충 작업 대상 확인용)
+     */
+    boolean hasAllDerivatives(Path original) {
+        Map<String, String> recorded = index.get(indexKey(original));
+        return recorded != null && recorded.size() >= derivatives.size();
+    }
+
+    /**
+     * 빠진 파생본을 바로 생성 (보충 작업용, 호출 스레드에서 실행)
+     * @return 모든 파생본이 준비되었는지
+     */
+    boolean generateNow(Path original) {
+        if (!inFlight.add(original)) {
+            return false; // 업로드 직후 생성 중
+        }
+        try {
+            generate(original);
+        } finally {
+            inFlight.remove(original);
+        }
+        return hasAllDerivatives(original);
+    }
+
+    /**
+     * srcset 속성 값 ("url 320w, url 1200w, ...")
+     */
+    public String toSrcset(Map<String, String> derivativeUrls) {
+        List<String> entries = new ArrayList<>();
+        for (Derivative derivative : derivatives) {
+            String url = derivativeUrls.get(derivative.name());
+            if (url != null) {
+                entries.add(url + " " + derivative.maxSize() + "w");
+            }
+        }
+        return entries.isEmpty() ? null : String.join(", ", entries);
+    }
+
+    /**
+     * 원본 삭제 시 파생본도 삭제
+     */
+    public void deleteDerivatives(String fileUrl) {
+        Path original = fileStorageService.resolvePath(fileUrl);
+        if (original == null) {
+            return;
+        }
+
+        index.remove(indexKey(original));
+        for (Derivative derivative : derivatives) {
+            for (String extension : EXTENSIONS) {
+                try {
+                    if (Files.deleteIfExists(derivativePath(original, derivative, extension))) {
+                        log.debug("파생 이미지 삭제: {} ({})", fileUrl, derivative.name());
+                    }
+                } catch (IOException e) {
+                    log.warn("파생 이미지 삭제 실패 (계속 진행): {} ({})", fileUrl, derivative.name(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 파생본 파일명이면 원본 파일명(확장자 제외)을, 아니면 null
+     * 예) abcd...ef_gallery.jpg → abcd...ef
+     */
+    public String getOriginalBaseName(String fileName) {
+        for (Derivative derivative : derivatives) {
+            for (String extension : EXTENSIONS) {
+                String suffix = "_" + derivative.name() + "." + extension;
+                if (fileName.endsWith(suffix) && fileName.length() > suffix.length()) {
+                    return fileName.substring(0, fileName.length() - suffix.length());
+                }
+            }
+        }
+        return null;
+    }
+
+    private void schedule(Path original) {
+        if (!fileUploadConfig.isDerivativesEnabled() || unsupported.contains(original) || !inFlight.add(original)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    inFlight.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(original);
+            log.debug("파생 이미지 생성 대기열 가득 참 (건너뜀): {}", original);
+        }
+    }
+
+    private void generate(Path original) {
+        if (!Files.isRegularFile(original)) {
+            return;
+        }
+
+        for (Derivative derivative : derivatives) {
+            Path existing = findExisting(original, derivative);
+            if (existing != null) {
+                record(original, derivative.name(), extensionOf(existing));
+                continue;
+            }
+
+            Path tempFile = null;
+            try {
+                tempFile = Files.createTempFile(original.getParent(), TEMP_PREFIX, null);
+                ResizeSpec spec = ResizeSpec.of(derivative.maxSize(), derivative.maxSize(), "contain",
+                        derivative.quality(), Integer.MAX_VALUE);
+                String contentType = imageResizeService.resize(original, spec, tempFile);
+                if (contentType == null) {
+                    // 이미지가 아니거나 지원하지 않는 형식
+                    if (unsupported.size() > 10_000) {
+                        unsupported.clear();
+                    }
+                    unsupported.add(original);
+                    return;
+                }
+
+                String extension = "image/png".equals(contentType) ? "png" : "jpg";
+                moveAtomically(tempFile, derivativePath(original, derivative, extension));
+                record(original, derivative.name(), extension);
+                log.debug("파생 이미지 생성: {} ({}, {}px)", original, derivative.name(), derivative.maxSize());
+
+            } catch (IOException | RuntimeException e) {
+                log.warn("파생 이미지 생성 실패: {} ({})", original, derivative.name(), e);
+                return;
+            } finally {
+                if (tempFile != null) {
+                    try {
+                        Files.deleteIfExists(tempFile);
+                    } catch (IOException ignored) {
+                        // 다음 정리 때 삭제
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 파생본 파일이면 색인에 기록 (시작 시 색인 복원용)
+     */
+    private void recordExisting(Path file) {
+        String fileName = file.getFileName().toString();
+        if (fileName.startsWith(".")) {
+            return;
+        }
+        for (Derivative derivative : derivatives) {
+            for (String extension : EXTENSIONS) {
+                String suffix = "_" + derivative.name() + "." + extension;
+                if (fileName.endsWith(suffix) && fileName.length() > suffix.length()) {
+                    Path key = file.resolveSibling(fileName.substring(0, fileName.length() - suffix.length()));
+                    recordKey(key, derivative.name(), extension);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void record(Path original, String name, String extension) {
+        recordKey(indexKey(original), name, extension);
+    }
+
+    private void recordKey(Path key, String name, String extension) {
+        index.compute(key, (k, recorded) -> {
+            Map<String, String> updated = recorded == null ? new HashMap<>() : new HashMap<>(recorded);
+            updated.put(name, extension);
+            return Map.copyOf(updated);
+        });
+    }
+
+    /**
+     * 색인 키: 원본 경로에서 확장자를 뺀 경로 (파생본 파일명과 같은 기준)
+     */
+    private Path indexKey(Path original) {
+        return original.toAbsolutePath().normalize().resolveSibling(stripExtension(original.getFileName().toString()));
+    }
+
+    private String extensionOf(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(fileName.lastIndexOf('.') + 1);
+    }
+
+    private Path findExisting(Path original, Derivative derivative) {
+        for (String extension : EXTENSIONS) {
+            Path path = derivativePath(original, derivative, extension);
+            if (Files.exists(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private Path derivativePath(Path original, Derivative derivative, String extension) {
+        String base = stripExtension(original.getFileName().toString());
+        return original.resolveSibling(base + "_" + derivative.name() + "." + extension);
+    }
+
+    private String stripExtension(String name) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        return dot > slash ? name.substring(0, dot) : name;
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * "gallery:320:75,preview:1200:80" → 작은 크기부터 정렬된 파생본 목록
+     */
+    private static List<Derivative> parseSizes(String sizes) {
+        List<Derivative> result = new ArrayList<>();
+        for (String entry : sizes.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalStateException("file.derivatives.sizes 형식 오류 (이름:크기:품질): " + entry);
+            }
+            result.add(new Derivative(parts[0].trim(), Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim())));
+        }
+        result.sort((a, b) -> Integer.compare(a.maxSize(), b.maxSize()));
+        return List.copyOf(result);
+    }
+}
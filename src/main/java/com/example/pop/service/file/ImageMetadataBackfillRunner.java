@@ -0,0 +1,102 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.mapper.PopTemplateMapper;
+import com.example.pop.service.image.ImageMetadata;
+import com.example.pop.service.image.ImageMetadataReader;
+import com.example.pop.service.template.CommonTemplateCache;
+import com.example.pop.service.template.TemplateDetailCache;
+import com.example.pop.vo.PopTemplateVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 배경 이미지 정보 보충 도구
+ *
+ * 배경 이미지 정보(크기 / 형식 / 방향) 없이 등록된 기존 템플릿을 tpl_seq 순으로 읽어
+ * 파일 헤더에서 정보를 채운다. 조회 경로에서는 파일을 읽거나 DB 를 고치지 않는다.
+ *
+ * 실행: --file.metadata-backfill.run=true
+ * 파일이 없거나 이미지가 아닌 템플릿은 실패로 집계하고 이번 실행에서는 다시 시도하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageMetadataBackfillRunner implements ApplicationRunner {
+
+    private final FileUploadConfig fileUploadConfig;
+    private final FileStorageService fileStorageService;
+    private final ImageMetadataReader imageMetadataReader;
+    private final PopTemplateMapper popTemplateMapper;
+    private final TemplateDetailCache templateDetailCache;
+    private final CommonTemplateCache commonTemplateCache;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!fileUploadConfig.isMetadataBackfillRun()) {
+            return;
+        }
+
+        int batchSize = Math.max(1, fileUploadConfig.getMetadataBackfillBatchSize());
+        long afterSeq = 0;
+        int updated = 0;
+        int failed = 0;
+
+        log.info("배경 이미지 정보 보충 시작 (batch-size: {})", batchSize);
+
+        while (true) {
+            List<PopTemplateVO> targets;
+            try {
+                targets = popTemplateMapper.selectBgImgMetadataTargets(afterSeq, batchSize);
+            } catch (RuntimeException e) {
+                log.error("배경 이미지 정보 보충 대상 조회 실패 (중단): afterSeq={}", afterSeq, e);
+                break;
+            }
+            if (targets.isEmpty()) {
+                break;
+            }
+
+            for (PopTemplateVO template : targets) {
+                // 실패한 템플릿은 다음 조회에 다시 나오지 않도록 키셋 위치를 먼저 옮김
+                afterSeq = template.getTplSeq();
+                try {
+                    ImageMetadata metadata = read(template.getBgImgUrl());
+                    if (metadata == null) {
+                        failed++;
+                        log.warn("배경 이미지 정보 읽기 실패 (파일 없음 또는 이미지 아님): tplSeq={}, url={}",
+                                template.getTplSeq(), template.getBgImgUrl());
+                        continue;
+                    }
+                    template.setBgImgWidth(metadata.width());
+                    template.setBgImgHeight(metadata.height());
+                    template.setBgImgFormat(metadata.format());
+                    template.setBgImgOrientation(metadata.orientation());
+                    if (popTemplateMapper.updateBgImgMetadata(template) > 0) {
+                        updated++;
+                        templateDetailCache.evict(template.getTplSeq());
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.error("배경 이미지 정보 저장 실패: tplSeq={}", template.getTplSeq(), e);
+                }
+            }
+        }
+
+        if (updated > 0) {
+            commonTemplateCache.clear();
+        }
+        log.info("배경 이미지 정보 보충 완료 - 변경 {}건, 실패 {}건", updated, failed);
+    }
+
+    private ImageMetadata read(String fileUrl) {
+        Path file = fileStorageService.resolvePath(fileUrl);
+        return file != null && Files.isRegularFile(file) ? imageMetadataReader.read(file) : null;
+    }
+}
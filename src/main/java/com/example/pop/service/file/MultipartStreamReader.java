@@ -0,0 +1,315 @@
+package com.example.pop.service.file;
+
+import com.example.pop.exception.InvalidRequestException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * multipart/form-data 요청 본문을 파트 단위로 순서대로 읽는 스트리밍 파서
+ *
+ * 서블릿 multipart 처리(요청 전체를 받아 파트별로 저장한 뒤 컨트롤러 호출)와 달리
+ * 요청 본문을 고정 크기 버퍼 하나로 읽으면서 파트마다 InputStream 을 넘겨주므로,
+ * 파일 수 / 크기와 상관없이 요청당 메모리 사용량이 일정하다.
+ *
+ * 사용: nextPart() 로 다음 파트를 받고, 그 파트의 body 를 (필요한 만큼) 읽은 뒤 다시 nextPart() 호출
+ * (읽지 않은 나머지 본문은 nextPart() 에서 건너뜀)
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_LINE = 8 * 1024;
+
+    /**
+     * 파트 1건
+     * @param name        폼 필드명
+     * @param filename    파일명 (파일 파트가 아니면 null)
+     * @param contentType 파트 Content-Type (없으면 null)
+     * @param body        파트 본문 (다음 경계 전까지)
+     */
+    public record Part(String name, String filename, String contentType, InputStream body) {
+
+        public boolean isFile() {
+            return filename != null;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head = 0;
+    private int tail = 0;
+    private boolean eof = false;
+    private boolean finished = false;
+    private PartInputStream current;
+
+    public MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+
+        // 첫 경계 앞에는 CRLF 가 없으므로 미리 넣어 두고 나머지 경계와 같은 방식으로 찾음
+        buffer[tail++] = '\r';
+        buffer[tail++] = '\n';
+
+        // 첫 경계 이전(preamble)은 버림
+        this.current = new PartInputStream();
+    }
+
+    /**
+     * Content-Type 헤더에서 boundary 추출 (multipart/form-data 가 아니면 예외)
+     */
+    public static String extractBoundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            throw new InvalidRequestException("multipart/form-data 요청이 아닙니다.");
+        }
+        for (String parameter : contentType.split(";")) {
+            String value = parameter.trim();
+            if (value.toLowerCase(Locale.ROOT).startsWith("boundary=")) {
+                String boundary = unquote(value.substring("boundary=".length()).trim());
+                if (!boundary.isEmpty() && boundary.length() <= 70) {
+                    return boundary;
+                }
+            }
+        }
+        throw new InvalidRequestException("multipart boundary 가 없습니다.");
+    }
+
+    /**
+     * 다음 파트 (더 없으면 null)
+     */
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        // 이전 파트의 남은 본문 건너뜀
+        current.skipToEnd();
+
+        // 경계 뒤: "--" 면 끝(이후 epilogue 는 무시), CRLF 면 다음 파트 헤더 (경계 뒤 공백은 허용)
+        int first = readByte();
+        if (first == '-') {
+            if (readByte() != '-') {
+                throw new InvalidRequestException("multipart 형식이 올바르지 않습니다.");
+            }
+            finished = true;
+            return null;
+        }
+        while (first == ' ' || first == '\t') {
+            first = readByte();
+        }
+        if (first != '\r' || readByte() != '\n') {
+            throw new InvalidRequestException("multipart 형식이 올바르지 않습니다.");
+        }
+
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        String line;
+        while (!(line = readHeaderLine()).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String headerName = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String headerValue = line.substring(colon + 1).trim();
+            if (headerName.equals("content-disposition")) {
+                name = dispositionParameter(headerValue, "name");
+                filename = dispositionParameter(headerValue, "filename");
+            } else if (headerName.equals("content-type")) {
+                contentType = headerValue;
+            }
+        }
+
+        current = new PartInputStream();
+        return new Part(name, filename, contentType, current);
+    }
+
+    /**
+     * 폼 필드 값 읽기 (UTF-8, 최대 크기 초과 시 예외)
+     */
+    public static String readField(Part part, int maxBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = part.body().read(chunk)) != -1) {
+            if (out.size() + read > maxBytes) {
+                throw new InvalidRequestException("입력값이 너무 깁니다: " + part.name());
+            }
+            out.write(chunk, 0, read);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String readHeaderLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int previous = -1;
+        while (true) {
+            int b = readByte();
+            if (previous == '\r' && b == '\n') {
+                byte[] bytes = line.toByteArray();
+                return new String(bytes, 0, bytes.length - 1, StandardCharsets.UTF_8);
+            }
+            if (line.size() >= MAX_HEADER_LINE) {
+                throw new InvalidRequestException("multipart 헤더가 너무 깁니다.");
+            }
+            line.write(b);
+            previous = b;
+        }
+    }
+
+    private int readByte() throws IOException {
+        if (head == tail && !fill()) {
+            throw new InvalidRequestException("multipart 요청이 중간에 끊겼습니다.");
+        }
+        return buffer[head++] & 0xff;
+    }
+
+    /**
+     * 버퍼 앞으로 당기고 추가로 읽음
+     * @return 새로 읽은 데이터가 있으면 true
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read == -1) {
+            eof = true;
+            return false;
+        }
+        tail += read;
+        return true;
+    }
+
+    private int indexOfDelimiter() {
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Content-Disposition 파라미터 값 (없으면 null)
+     * 따옴표 안의 ; 는 구분자가 아니므로 (예: filename="a;b.png") 값 단위로 읽음. 따옴표 안의 \" 는 " 로 처리
+     */
+    static String dispositionParameter(String disposition, String parameter) {
+        int length = disposition.length();
+        int position = disposition.indexOf(';');
+        while (position >= 0 && position < length) {
+            int equals = disposition.indexOf('=', position + 1);
+            int next = disposition.indexOf(';', position + 1);
+            if (equals < 0) {
+                return null;
+            }
+            if (next >= 0 && next < equals) {
+                // 값 없는 파라미터
+                position = next;
+                continue;
+            }
+
+            String name = disposition.substring(position + 1, equals).trim();
+            int start = equals + 1;
+            while (start < length && Character.isWhitespace(disposition.charAt(start))) {
+                start++;
+            }
+
+            String value;
+            if (start < length && disposition.charAt(start) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                int i = start + 1;
+                while (i < length && disposition.charAt(i) != '"') {
+                    if (disposition.charAt(i) == '\\' && i + 1 < length && disposition.charAt(i + 1) == '"') {
+                        i++;
+                    }
+                    quoted.append(disposition.charAt(i++));
+                }
+                value = quoted.toString();
+                next = disposition.indexOf(';', Math.min(i + 1, length));
+            } else {
+                next = disposition.indexOf(';', start);
+                value = disposition.substring(start, next < 0 ? length : next).trim();
+            }
+
+            if (name.equalsIgnoreCase(parameter)) {
+                return value;
+            }
+            position = next;
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1)
+                : value;
+    }
+
+    /**
+     * 현재 파트 본문 (다음 경계에서 끝남)
+     */
+    private class PartInputStream extends InputStream {
+
+        private boolean done = false;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+
+            while (true) {
+                int index = indexOfDelimiter();
+                if (index == head) {
+                    done = true;
+                    head += delimiter.length;
+                    return -1;
+                }
+
+                // 경계 전까지, 또는 경계 일부일 수 있는 끝부분을 제외한 만큼 반환
+                int available = index >= 0 ? index - head : tail - head - (delimiter.length - 1);
+                if (available > 0) {
+                    int count = Math.min(len, available);
+                    System.arraycopy(buffer, head, b, off, count);
+                    head += count;
+                    return count;
+                }
+
+                if (!fill()) {
+                    throw new InvalidRequestException("multipart 요청이 중간에 끊겼습니다.");
+                }
+            }
+        }
+
+        void skipToEnd() throws IOException {
+            byte[] discard = new byte[8192];
+            while (read(discard, 0, discard.length) != -1) {
+                // 버림
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.mapper.PopTemplateMapper;
+import com.example.pop.vo.PopTemplateVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 미사용 업로드 파일 정리 (pop_tpl 과 업로드 디렉토리 대조)
+ *
+ * 템플릿 삭제 중 파일 삭제 실패, 파일 저장 후 DB 저장 실패 등으로 어떤 템플릿도 참조하지 않는 파일이 남는다.
+ * 1) pop_tpl 의 bg_img_url / thumbnail_url / tpl_json 을 Cursor 로 한 행씩 읽어 참조 경로 집합을 만든다.
+ *    (템플릿 삭제 시의 참조 카운트 countFileReferences 와 같은 기준)
+ *    (경로 문자열 대신 64비트 해시를 정렬 배열로 보관하여 메모리를 줄임. 해시 충돌은 파일을 남기는 쪽으로만 작용)
+ * 2) 업로드 디렉토리를 순회하며 참조되지 않고 유예 시간(file.gc.grace-hours)이 지난 파일을 삭제 또는 격리한다.
+ *    - 파생 이미지({원본}_{이름}.jpg)는 원본이 참조되고 있으면 유지
+ *    - 기록 중인 임시 파일(.tmp_*)은 유예 시간이 지난 것만 정리 (중단된 업로드 잔여물)
+ *
+ * 기본은 dry-run (file.gc.dry-run=false 일 때만 실제 삭제), 초당 처리 수는 file.gc.max-per-second 로 제한
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrphanUploadCollector {
+
+    private static final String TEMP_PREFIX = ".tmp_";
+
+    private final FileUploadConfig fileUploadConfig;
+    private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final PopTemplateMapper popTemplateMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 정해진 시간에 정리 실행
+     */
+    @Scheduled(cron = "${file.gc.cron:0 30 4 * * *}")
+    public void scheduledRun() {
+        if (fileUploadConfig.isGcEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * 미사용 업로드 파일 정리 실행
+     */
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("미사용 업로드 파일 정리가 이미 실행 중입니다.");
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+        try {
+            // 1) 참조 목록 (DB 조회가 실패하면 아무것도 지우지 않음)
+            long[] references = loadReferences(uploadPath);
+            if (references.length == 0) {
+                log.warn("미사용 업로드 파일 정리 생략: 참조 중인 파일이 하나도 없습니다. (DB 확인 필요)");
+                return;
+            }
+
+            // 2) 디스크 순회
+            Sweeper sweeper = new Sweeper(uploadPath, references);
+            Files.walkFileTree(uploadPath, sweeper);
+
+            log.info("미사용 업로드 파일 정리 완료 (dry-run: {}) - 참조 {}건, 검사 {}건, 유예 {}건, 정리 {}건 ({} bytes), 실패 {}건 ({}ms)",
+                    fileUploadConfig.isGcDryRun(), references.length, sweeper.scanned, sweeper.young,
+                    sweeper.collected, sweeper.collectedBytes, sweeper.failed, System.currentTimeMillis() - startedAt);
+
+        } catch (Exception e) {
+            log.error("미사용 업로드 파일 정리 중단", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * pop_tpl 전체를 Cursor 로 읽어 참조 경로 해시 목록 생성 (정렬됨)
+     */
+    private long[] loadReferences(Path uploadPath) {
+        Pattern urlPattern = Pattern.compile(Pattern.quote(fileUploadConfig.getUrlPath() + "/") + "[^\"'\\s)\\\\?#]+");
+        LongArray keys = new LongArray();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Cursor<PopTemplateVO> cursor = popTemplateMapper.selectFileReferences()) {
+                for (PopTemplateVO template : cursor) {
+                    addReference(keys, uploadPath, template.getBgImgUrl());
+                    addReference(keys, uploadPath, template.getThumbnailUrl());
+                    if (template.getTplJson() != null) {
+                        Matcher matcher = urlPattern.matcher(template.getTplJson());
+                        while (matcher.find()) {
+                            addReference(keys, uploadPath, matcher.group());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("템플릿 파일 참조 조회 실패", e);
+            }
+        });
+
+        return keys.toSortedArray();
+    }
+
+    private void addReference(LongArray keys, Path uploadPath, String fileUrl) {
+        Path file = fileStorageService.resolvePath(fileUrl);
+        if (file != null) {
+            keys.add(key(stripExtension(uploadPath.relativize(file).toString())));
+        }
+    }
+
+    /**
+     * 업로드 디렉토리 순회하며 미사용 파일 정리
+     */
+    private class Sweeper extends SimpleFileVisitor<Path> {
+
+        private final Path uploadPath;
+        private final long[] references;
+        private final Path quarantinePath;
+        private final long graceMillis = TimeUnit.HOURS.toMillis(fileUploadConfig.getGcGraceHours());
+        private final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, fileUploadConfig.getGcMaxPerSecond());
+        private long lastActionAt = 0;
+
+        int scanned = 0;
+        int young = 0;
+        int collected = 0;
+        long collectedBytes = 0;
+        int failed = 0;
+
+        Sweeper(Path uploadPath, long[] references) {
+            this.uploadPath = uploadPath;
+            this.references = references;
+            String quarantineDir = fileUploadConfig.getGcQuarantineDir();
+            this.quarantinePath = (quarantineDir == null || quarantineDir.isBlank())
+                    ? null
+                    : Paths.get(quarantineDir).toAbsolutePath().normalize();
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            // 격리 디렉토리, 숨김 작업 디렉토리(.chunked 등)는 건너뜀
+            boolean hidden = !dir.equals(uploadPath) && dir.getFileName().toString().startsWith(".");
+            return hidden || dir.equals(quarantinePath) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (!attrs.isRegularFile()) {
+                return FileVisitResult.CONTINUE;
+            }
+            scanned++;
+
+            if (System.currentTimeMillis() - attrs.lastModifiedTime().toMillis() < graceMillis) {
+                young++;
+                return FileVisitResult.CONTINUE;
+            }
+
+            String fileName = file.getFileName().toString();
+            if (fileName.startsWith(".") && !fileName.startsWith(TEMP_PREFIX)) {
+                return FileVisitResult.CONTINUE;
+            }
+            if (!fileName.startsWith(TEMP_PREFIX) && isReferenced(file)) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            collect(file, attrs.size());
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            log.warn("업로드 파일 검사 실패 (건너뜀): {} ({})", file, e.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
+
+        private boolean isReferenced(Path file) {
+            String relativePath = uploadPath.relativize(file).toString();
+            if (Arrays.binarySearch(references, key(stripExtension(relativePath))) >= 0) {
+                return true;
+            }
+
+            // 파생 이미지는 원본이 참조되고 있으면 유지
+            String originalBase = imageDerivativeService.getOriginalBaseName(file.getFileName().toString());
+            if (originalBase != null) {
+                Path original = uploadPath.relativize(file.resolveSibling(originalBase));
+                return Arrays.binarySearch(references, key(original.toString())) >= 0;
+            }
+            return false;
+        }
+
+        private void collect(Path file, long size) {
+            if (fileUploadConfig.isGcDryRun()) {
+                log.info("[dry-run] 미사용 업로드 파일: {} ({} bytes)", file, size);
+                collected++;
+                collectedBytes += size;
+                return;
+            }
+
+            throttle();
+            try {
+                if (quarantinePath != null) {
+                    Path target = quarantinePath.resolve(uploadPath.relativize(file).toString());
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    log.info("미사용 업로드 파일 격리: {} -> {}", file, target);
+                } else {
+                    Files.deleteIfExists(file);
+                    log.info("미사용 업로드 파일 삭제: {}", file);
+                }
+                collected++;
+                collectedBytes += size;
+            } catch (IOException e) {
+                failed++;
+                log.warn("미사용 업로드 파일 정리 실패 (계속 진행): {}", file, e);
+            }
+        }
+
+        /**
+         * 초당 처리 수 제한
+         */
+        private void throttle() {
+            long waitNanos = lastActionAt + intervalNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            lastActionAt = System.nanoTime();
+        }
+    }
+
+    private static String stripExtension(String relativePath) {
+        int separator = Math.max(relativePath.lastIndexOf('/'), relativePath.lastIndexOf('\\'));
+        int dot = relativePath.lastIndexOf('.');
+        return dot > separator + 1 ? relativePath.substring(0, dot) : relativePath;
+    }
+
+    /**
+     * 경로 → 64비트 해시 (FNV-1a, 구분자는 '/' 로 통일)
+     */
+    private static long key(String relativePath) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < relativePath.length(); i++) {
+            char c = relativePath.charAt(i);
+            hash ^= (c == '\\' ? '/' : c);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * long 가변 배열 (참조 수만큼 박싱 객체를 만들지 않기 위함)
+     */
+    private static class LongArray {
+
+        private long[] values = new long[1024];
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
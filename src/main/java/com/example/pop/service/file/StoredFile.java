@@ -0,0 +1,25 @@
+package com.example.pop.service.file;
+
+import com.example.pop.service.image.ImageMetadata;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 저장 요청된 업로드 파일
+ * URL 은 바로 사용할 수 있고, 디스크 기록(fsync + 최종 위치 이동) 완료 여부는 completion 으로 알 수 있다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StoredFile {
+
+    /** 파일 URL 경로 */
+    private final String url;
+
+    /** 이미지 헤더 정보 (이미지가 아니거나 읽을 수 없으면 null) */
+    private final ImageMetadata metadata;
+
+    /** 디스크 기록 완료 (실패 시 FileUploadException 으로 완료) */
+    private final CompletableFuture<Void> completion;
+}
@@ -0,0 +1,155 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.mapper.PopTemplateMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 업로드 저장 구조 마이그레이션 도구
+ *
+ * 업로드 디렉토리 바로 아래에 있는 기존 파일(날짜_UUID_파일명, 분산 전 {해시}.{확장자})을
+ * 현재 저장 구조(ab/cd/{해시}.{확장자})로 옮기고 pop_tpl 의 URL 을 함께 바꾼다.
+ * 같은 내용의 파일은 하나로 합쳐진다.
+ *
+ * 실행: --file.migration.run=true (기본은 dry-run, 실제 이동은 --file.migration.dry-run=false)
+ * 순서: 새 위치에 기록 → DB URL 변경 → 기존 파일 삭제 (중간에 중단되어도 기존 URL 은 계속 동작)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadLayoutMigrationRunner implements ApplicationRunner {
+
+    private static final String TEMP_PREFIX = ".tmp_";
+
+    private final FileUploadConfig fileUploadConfig;
+    private final FileStorageService fileStorageService;
+    private final PopTemplateMapper popTemplateMapper;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!fileUploadConfig.isMigrationRun()) {
+            return;
+        }
+        if (!fileUploadConfig.isContentAddressed()) {
+            log.warn("업로드 마이그레이션 생략: 내용 기반 저장(file.content-addressed)이 꺼져 있습니다.");
+            return;
+        }
+
+        boolean dryRun = fileUploadConfig.isMigrationDryRun();
+        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir());
+        int moved = 0;
+        int merged = 0;
+        int updatedRows = 0;
+        int failed = 0;
+
+        log.info("업로드 마이그레이션 시작 (dry-run: {}): {}", dryRun, uploadPath.toAbsolutePath());
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(uploadPath, Files::isRegularFile)) {
+            for (Path source : stream) {
+                String filename = source.getFileName().toString();
+                if (filename.startsWith(TEMP_PREFIX)) {
+                    continue;
+                }
+
+                try {
+                    String relativePath = fileStorageService.toRelativePath(
+                            sha256(source), fileStorageService.getFileExtension(filename));
+                    if (relativePath.equals(filename)) {
+                        continue; // 이미 현재 구조
+                    }
+
+                    String oldUrl = fileUploadConfig.getUrlPath() + "/" + filename;
+                    String newUrl = fileUploadConfig.getUrlPath() + "/" + relativePath;
+                    Path target = uploadPath.resolve(relativePath);
+                    boolean duplicate = Files.exists(target);
+
+                    if (dryRun) {
+                        log.info("[dry-run] {} -> {}{}", oldUrl, newUrl, duplicate ? " (중복)" : "");
+                        continue;
+                    }
+
+                    // 1) 새 위치에 기록 (같은 내용이 이미 있으면 생략)
+                    if (!duplicate) {
+                        copyDurably(source, target);
+                    }
+
+                    // 2) DB 참조 변경
+                    updatedRows += popTemplateMapper.updateFileUrl(oldUrl, newUrl);
+
+                    // 3) 기존 파일 삭제
+                    Files.delete(source);
+
+                    if (duplicate) {
+                        merged++;
+                    } else {
+                        moved++;
+                    }
+                    log.info("업로드 파일 이동: {} -> {}", oldUrl, newUrl);
+
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    log.error("업로드 파일 이동 실패 (기존 위치 유지): {}", source, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("업로드 디렉토리 조회 실패: {}", uploadPath, e);
+            return;
+        }
+
+        log.info("업로드 마이그레이션 완료 - 이동 {}건, 중복 병합 {}건, 템플릿 변경 {}건, 실패 {}건",
+                moved, merged, updatedRows, failed);
+    }
+
+    /**
+     * 임시 파일로 복사 → fsync → 원자적 이동
+     */
+    private void copyDurably(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), TEMP_PREFIX, null);
+        try {
+            Files.copy(source, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.pop.service.image;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * 디스크 캐시에 저장된 프록시 이미지 항목
+ */
+@Getter
+public class CachedImage {
+
+    private final String key;
+    private final Path file;
+    private final long size;
+    private final String contentType;
+    private final String etag;
+    private final String lastModified;
+    private volatile long fetchedAt;
+
+    public CachedImage(String key, Path file, long size, String contentType,
+                       String etag, String lastModified, long fetchedAt) {
+        this.key = key;
+        this.file = file;
+        this.size = size;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * 캐시 유효 시간 내인지 확인
+     */
+    public boolean isFresh(long ttlMillis) {
+        return System.currentTimeMillis() - fetchedAt < ttlMillis;
+    }
+
+    /**
+     * 원본 서버에 재검증 요청을 보낼 수 있는지 (ETag 또는 Last-Modified 보유)
+     */
+    public boolean isRevalidatable() {
+        return etag != null || lastModified != null;
+    }
+
+    void markRevalidated(long now) {
+        this.fetchedAt = now;
+    }
+}
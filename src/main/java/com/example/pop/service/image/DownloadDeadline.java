@@ -0,0 +1,68 @@
+package com.example.pop.service.image;
+
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 원본 다운로드 제한 시간 (응답 헤더 + 본문 전체)
+ *
+ * CompletableFuture.orTimeout 은 결과 Future 만 실패시키고 HttpClient 교환은 계속 진행되므로,
+ * 그 시점에 호스트별 동시 요청 수를 반납하면 실제 연결 수가 제한을 넘게 된다.
+ * 여기서는 제한 시간이 지나면 본문 구독을 취소하여 교환 자체를 끝내고, 결과 Future 는 교환이 끝날 때 HttpTimeoutException 으로 실패한다.
+ * (응답 헤더를 기다리는 단계는 HttpRequest.timeout 으로도 제한)
+ */
+class DownloadDeadline {
+
+    private final String url;
+    private final AtomicBoolean expired = new AtomicBoolean(false);
+    private final AtomicReference<LimitedBodySubscriber<?>> subscriber = new AtomicReference<>();
+
+    private DownloadDeadline(String url) {
+        this.url = url;
+    }
+
+    /**
+     * 제한 시간 시작 (sendAsync 호출 직전)
+     */
+    static DownloadDeadline start(String url, long timeoutMs) {
+        DownloadDeadline deadline = new DownloadDeadline(url);
+        CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(deadline::expire);
+        return deadline;
+    }
+
+    /**
+     * 본문 구독자를 제한 시간에 연결 (BodyHandler 안에서 호출, 이미 지났으면 바로 중단)
+     */
+    <T> HttpResponse.BodySubscriber<T> attach(HttpResponse.BodySubscriber<T> delegate, long maxBytes) {
+        return attach(delegate, maxBytes, () -> { });
+    }
+
+    /**
+     * 본문 구독자를 제한 시간에 연결하고, 교환이 끝나면(완료 / 실패 / 제한 시간 중단) onFinish 호출
+     * (본문을 아무도 읽지 않아도 제한 시간에는 반드시 호출됨)
+     */
+    <T> HttpResponse.BodySubscriber<T> attach(HttpResponse.BodySubscriber<T> delegate, long maxBytes, Runnable onFinish) {
+        LimitedBodySubscriber<T> limited = new LimitedBodySubscriber<>(delegate, maxBytes, onFinish);
+        subscriber.set(limited);
+        if (expired.get()) {
+            limited.abort(timeout());
+        }
+        return limited;
+    }
+
+    private void expire() {
+        expired.set(true);
+        LimitedBodySubscriber<?> current = subscriber.get();
+        if (current != null) {
+            current.abort(timeout());
+        }
+    }
+
+    private HttpTimeoutException timeout() {
+        return new HttpTimeoutException("다운로드 제한 시간 초과: " + url);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 원본 호스트별 서킷 브레이커
+ *
+ * - CLOSED    : 정상. 연속 실패가 임계치에 도달하면 OPEN
+ * - OPEN      : 원본 서버를 호출하지 않고 즉시 실패. 대기 시간이 지나면 HALF_OPEN
+ * - HALF_OPEN : 시험 요청 1건만 통과. 성공하면 CLOSED, 실패하면 다시 OPEN
+ *
+ * 장애가 난 이미지 서버 하나 때문에 요청이 타임아웃까지 쌓이는 것을 막는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HostCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final ImageProxyConfig imageProxyConfig;
+    private final ConcurrentHashMap<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * 요청 허용 여부 (false 면 원본 호출 없이 즉시 실패 처리)
+     */
+    public boolean allowRequest(String host) {
+        return state(host).allowRequest(imageProxyConfig.getCircuitOpenMs());
+    }
+
+    /**
+     * 서킷이 열려 있어 요청을 바로 거절해야 하는지 (상태를 바꾸지 않는 사전 확인용)
+     */
+    public boolean isRejecting(String host) {
+        HostState state = hosts.get(host);
+        return state != null && state.isRejecting(imageProxyConfig.getCircuitOpenMs());
+    }
+
+    /**
+     * 원본 서버 응답 성공 (4xx 포함, 서버가 살아있는 경우)
+     */
+    public void recordSuccess(String host) {
+        HostState state = state(host);
+        if (state.recordSuccess()) {
+            log.info("이미지 원본 서버 복구 (서킷 CLOSED): {}", host);
+        }
+    }
+
+    /**
+     * 원본 서버 장애 (연결 실패, 타임아웃, 5xx)
+     */
+    public void recordFailure(String host) {
+        HostState state = state(host);
+        if (state.recordFailure(imageProxyConfig.getCircuitFailureThreshold())) {
+            log.warn("이미지 원본 서버 차단 (서킷 OPEN, {}ms): {}", imageProxyConfig.getCircuitOpenMs(), host);
+        }
+    }
+
+    /**
+     * 원본 상태와 무관한 실패 (로컬 저장 실패 등). 시험 요청이었다면 다음 요청이 다시 시험하도록 풀어준다.
+     */
+    public void recordIgnored(String host) {
+        state(host).releaseProbe();
+    }
+
+    /**
+     * 호스트별 서킷 상태
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        hosts.forEach((host, state) -> result.put(host, state.snapshot()));
+        return result;
+    }
+
+    private HostState state(String host) {
+        return hosts.computeIfAbsent(host, h -> new HostState());
+    }
+
+    private static class HostState {
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures = 0;
+        private long openedAt = 0;
+        private boolean probeInFlight = false;
+        private long totalFailures = 0;
+        private long rejected = 0;
+
+        synchronized boolean allowRequest(long openMs) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - openedAt < openMs) {
+                        rejected++;
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                default:
+                    // HALF_OPEN: 시험 요청이 끝날 때까지 나머지는 차단
+                    if (probeInFlight) {
+                        rejected++;
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        }
+
+        synchronized boolean isRejecting(long openMs) {
+            return (state == State.OPEN && System.currentTimeMillis() - openedAt < openMs)
+                    || (state == State.HALF_OPEN && probeInFlight);
+        }
+
+        /** @return 상태가 CLOSED 로 바뀌었으면 true */
+        synchronized boolean recordSuccess() {
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            if (state != State.CLOSED) {
+                state = State.CLOSED;
+                return true;
+            }
+            return false;
+        }
+
+        /** @return 상태가 OPEN 으로 바뀌었으면 true */
+        synchronized boolean recordFailure(int threshold) {
+            consecutiveFailures++;
+            totalFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= threshold)) {
+                state = State.OPEN;
+                openedAt = System.currentTimeMillis();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void releaseProbe() {
+            probeInFlight = false;
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("state", state.name());
+            result.put("consecutiveFailures", consecutiveFailures);
+            result.put("totalFailures", totalFailures);
+            result.put("rejected", rejected);
+            if (state != State.CLOSED) {
+                result.put("openedAt", Instant.ofEpochMilli(openedAt).toString());
+            }
+            return result;
+        }
+    }
+}
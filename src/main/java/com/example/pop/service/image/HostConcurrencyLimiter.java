@@ -0,0 +1,130 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.exception.ImageProxyException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 원본 호스트별 동시 요청 수 제한
+ *
+ * 스레드를 막지 않는 비동기 세마포어로, 허용 수를 넘는 요청은 큐에서 대기하다가
+ * 앞선 요청이 끝나면 이어서 실행된다. 대기열이 가득 찼거나 대기 시간이 초과되면 503 으로 실패한다.
+ * (호스트마다 자원이 분리되어 한 호스트가 느려져도 다른 호스트 요청에는 영향이 없다)
+ */
+@Component
+@RequiredArgsConstructor
+public class HostConcurrencyLimiter {
+
+    private final ImageProxyConfig imageProxyConfig;
+    private final ConcurrentHashMap<String, HostPermits> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * 호스트 요청 허가 획득 (허가되면 완료되는 Future)
+     */
+    public CompletableFuture<Void> acquire(String host) {
+        HostPermits permits = hosts.computeIfAbsent(host,
+                h -> new HostPermits(imageProxyConfig.getMaxConnectionsPerHost(), imageProxyConfig.getMaxQueuedPerHost()));
+
+        CompletableFuture<Void> waiter = permits.acquire();
+        if (waiter == null) {
+            return CompletableFuture.failedFuture(
+                    new ImageProxyException(503, "원본 서버 요청 대기열이 가득 찼습니다: " + host));
+        }
+        if (waiter.isDone()) {
+            return waiter;
+        }
+
+        return waiter
+                .orTimeout(imageProxyConfig.getHostQueueTimeoutMs(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    throw new ImageProxyException(503, "원본 서버 요청 대기 시간 초과: " + host);
+                });
+    }
+
+    /**
+     * 호스트 요청 허가 반환
+     */
+    public void release(String host) {
+        HostPermits permits = hosts.get(host);
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * 호스트별 사용 중 / 대기 중 요청 수
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        hosts.forEach((host, permits) -> result.put(host, permits.snapshot()));
+        return result;
+    }
+
+    private static class HostPermits {
+
+        private final int limit;
+        private final int maxQueued;
+        private int inUse = 0;
+        private long rejected = 0;
+        private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+        HostPermits(int limit, int maxQueued) {
+            this.limit = limit;
+            this.maxQueued = maxQueued;
+        }
+
+        /** @return 허가 Future, 대기열이 가득 찼으면 null */
+        synchronized CompletableFuture<Void> acquire() {
+            if (inUse < limit) {
+                inUse++;
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiters.size() >= maxQueued) {
+                // 타임아웃으로 끝난 대기자는 정리 후 다시 확인
+                waiters.removeIf(CompletableFuture::isDone);
+            }
+            if (waiters.size() >= maxQueued) {
+                rejected++;
+                return null;
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                // 타임아웃으로 이미 끝난 대기자는 건너뛰고, 허가는 다음 대기자에게 그대로 넘김
+                while ((next = waiters.poll()) != null && next.isDone()) {
+                    // skip
+                }
+                if (next == null) {
+                    inUse--;
+                    return;
+                }
+            }
+            // 대기자의 후속 작업이 lock 밖에서 실행되도록 complete 는 synchronized 밖에서 호출
+            if (!next.complete(null)) {
+                release();
+            }
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("inUse", inUse);
+            result.put("queued", waiters.size());
+            result.put("limit", limit);
+            result.put("rejected", rejected);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.exception.ImageProxyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이미지 일괄 조회 Service
+ *
+ * 여러 이미지를 서버에서 동시에(요청당 동시 수 제한) 가져와 끝나는 순서대로 하나의 응답에 이어서 쓴다.
+ * 응답 형식 (길이 접두 프레임 반복)
+ *   [헤더 길이 4바이트 big-endian][헤더 JSON (UTF-8)][본문 (헤더의 length 바이트)]
+ *   헤더 JSON: {"index": 요청 순번, "id": 요청 식별자, "status": 200, "contentType": "image/jpeg", "length": 12345}
+ *   실패한 이미지는 status 가 200 이 아니고 length 는 0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageBatchService {
+
+    private final ImageProxyConfig imageProxyConfig;
+    private final ImageProxyService imageProxyService;
+    private final ImageResizeService imageResizeService;
+    private final ProductImageMirrorService productImageMirrorService;
+    private final ImageStreamCopier imageStreamCopier;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 일괄 조회 대상 1건
+     * @param id  응답 프레임에 그대로 돌려줄 식별자 (URL 또는 상품 시퀀스)
+     * @param url 이미지 URL (null 이면 404)
+     */
+    public record BatchItem(String id, String url) {
+    }
+
+    /**
+     * 완료된 이미지 (본문은 완료 시점에 열어 두어 LRU 삭제와 겹쳐도 끝까지 읽을 수 있게 함)
+     */
+    private record BatchResult(int index, int status, String contentType, long length, InputStream body) {
+    }
+
+    /**
+     * 이미지를 동시에 가져와 완료 순서대로 output 에 기록
+     */
+    public void writeBatch(List<BatchItem> items, ResizeSpec resizeSpec, OutputStream output) throws IOException {
+        int total = items.size();
+        BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        AtomicInteger next = new AtomicInteger(0);
+
+        // 동시 수만큼 시작하고, 하나가 끝날 때마다 다음 이미지를 시작
+        Runnable[] startNext = new Runnable[1];
+        startNext[0] = () -> {
+            int index = next.getAndIncrement();
+            if (index >= total || closed.get()) {
+                return;
+            }
+            fetch(items.get(index).url(), resizeSpec)
+                    .handle((image, error) -> toResult(index, image, error))
+                    .thenAccept(result -> {
+                        completed.add(result);
+                        if (closed.get()) {
+                            drainQuietly(completed);
+                        }
+                        startNext[0].run();
+                    });
+        };
+        for (int i = 0; i < Math.min(imageProxyConfig.getBatchConcurrency(), total); i++) {
+            startNext[0].run();
+        }
+
+        DataOutputStream out = new DataOutputStream(output);
+        boolean[] written = new boolean[total];
+        long deadline = System.currentTimeMillis() + imageProxyConfig.getBatchTimeoutMs();
+        try {
+            for (int count = 0; count < total; count++) {
+                BatchResult result = completed.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    break;
+                }
+                writeFrame(out, items.get(result.index()), result);
+                written[result.index()] = true;
+            }
+
+            // 시간 안에 끝나지 않은 이미지는 504 프레임으로 마무리
+            for (int i = 0; i < total; i++) {
+                if (!written[i]) {
+                    writeFrame(out, items.get(i), new BatchResult(i, 504, null, 0, null));
+                }
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed.set(true);
+            drainQuietly(completed);
+        }
+    }
+
+    private CompletableFuture<CachedImage> fetch(String url, ResizeSpec resizeSpec) {
+        CompletableFuture<CachedImage> image;
+        try {
+            if (url == null || url.isBlank()) {
+                return CompletableFuture.failedFuture(new ImageProxyException(404, "이미지 URL 이 없습니다."));
+            }
+            if (url.startsWith(ProductImageMirrorService.URL_PREFIX)) {
+                CachedImage mirrored = productImageMirrorService.getMirroredImage(
+                        url.substring(ProductImageMirrorService.URL_PREFIX.length()));
+                image = mirrored != null
+                        ? CompletableFuture.completedFuture(mirrored)
+                        : CompletableFuture.failedFuture(new ImageProxyException(404, "미러 이미지가 없습니다: " + url));
+            } else {
+                image = imageProxyService.getImage(url);
+            }
+        } catch (ImageProxyException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return resizeSpec == null ? image : image.thenCompose(original -> imageResizeService.getVariant(original, resizeSpec));
+    }
+
+    private BatchResult toResult(int index, CachedImage image, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            int status = cause instanceof ImageProxyException e ? e.getStatus() : 500;
+            log.debug("이미지 일괄 조회 실패 [{}]: {}", index, cause.getMessage());
+            return new BatchResult(index, status, null, 0, null);
+        }
+
+        try {
+            return new BatchResult(index, 200, image.getContentType(), image.getSize(), Files.newInputStream(image.getFile()));
+        } catch (IOException e) {
+            log.warn("이미지 일괄 조회 캐시 파일 열기 실패: {}", image.getFile());
+            return new BatchResult(index, 500, null, 0, null);
+        }
+    }
+
+    private void writeFrame(DataOutputStream out, BatchItem item, BatchResult result) throws IOException {
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("index", result.index());
+        header.put("id", item.id());
+        header.put("status", result.status());
+        header.put("contentType", result.contentType());
+        header.put("length", result.length());
+
+        byte[] headerBytes = objectMapper.writeValueAsBytes(header);
+        out.writeInt(headerBytes.length);
+        out.write(headerBytes);
+
+        if (result.body() != null) {
+            try (InputStream in = result.body()) {
+                imageStreamCopier.copy(in, out);
+            }
+        }
+        // 도착한 이미지부터 바로 화면에 그릴 수 있도록 프레임마다 flush
+        out.flush();
+    }
+
+    private void drainQuietly(BlockingQueue<BatchResult> completed) {
+        BatchResult result;
+        while ((result = completed.poll()) != null) {
+            if (result.body() != null) {
+                try {
+                    result.body().close();
+                } catch (IOException ignored) {
+                    // 이미 닫힌 경우
+                }
+            }
+        }
+    }
+}
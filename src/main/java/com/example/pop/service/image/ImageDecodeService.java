@@ -0,0 +1,162 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageDecodeConfig;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * 이미지 디코딩 공용 Service
+ *
+ * 서버에서 이미지 픽셀을 읽는 작업은 모두 여기를 거친다. (리사이즈, 파생 이미지 생성 등)
+ * - 헤더의 크기가 픽셀 수 제한(image.decode.max-pixels)을 넘으면 디코딩하지 않음
+ * - 서브샘플링 간격에 따른 디코딩 결과 크기를 미리 계산하여 전역 메모리 예산(image.decode.max-memory-mb)에서 예약
+ *   (예산이 모자라면 앞선 디코딩이 끝날 때까지 대기, 대기 시간 초과 시 실패)
+ * 동시 디코딩 수가 아니라 예상 메모리 합계로 제한하므로 큰 이미지가 몰려도 힙을 넘지 않는다.
+ */
+@Slf4j
+@Service
+public class ImageDecodeService {
+
+    /** 픽셀당 최소 바이트 (int ARGB) */
+    private static final int MIN_BYTES_PER_PIXEL = 4;
+
+    private final ImageDecodeConfig imageDecodeConfig;
+
+    /** 디코딩 메모리 예산 (KB 단위 허가) */
+    private final Semaphore memoryPermits;
+    private final int totalPermits;
+
+    public ImageDecodeService(ImageDecodeConfig imageDecodeConfig) {
+        this.imageDecodeConfig = imageDecodeConfig;
+        this.totalPermits = Math.max(1, imageDecodeConfig.getMaxMemoryMb()) * 1024;
+        // 큰 예약이 작은 예약들에 계속 밀리지 않도록 공정 모드
+        this.memoryPermits = new Semaphore(totalPermits, true);
+    }
+
+    /**
+     * 디코딩된 이미지 (close 하면 예약한 메모리 반환)
+     */
+    @Getter
+    public static final class DecodedImage implements AutoCloseable {
+
+        private final BufferedImage image;
+        private final int sourceWidth;
+        private final int sourceHeight;
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private DecodedImage(BufferedImage image, int sourceWidth, int sourceHeight, Runnable release) {
+            this.image = image;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.release = release;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * 이미지 디코딩
+     * 예약 메모리에는 디코딩 결과와 같은 크기의 작업 이미지(리사이즈 결과 등) 몫까지 포함된다.
+     *
+     * @param source       원본 파일
+     * @param subsampling  원본 크기(가로, 세로) → 서브샘플링 간격 (1 이면 전체 해상도)
+     * @return 디코딩 결과 (지원하지 않는 형식이거나 픽셀 수 / 메모리 제한을 넘는 이미지면 null)
+     * @throws IOException 읽기 실패, 메모리 대기 시간 초과
+     */
+    public DecodedImage decode(Path source, IntBinaryOperator subsampling) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > imageDecodeConfig.getMaxPixels()) {
+                    log.warn("픽셀 수 제한 초과, 디코딩 생략: {} ({}x{})", source, width, height);
+                    return null;
+                }
+
+                int step = Math.max(1, subsampling.applyAsInt(width, height));
+                long decodedPixels = (long) ceilDiv(width, step) * ceilDiv(height, step);
+                long bytes = decodedPixels * bytesPerPixel(reader) * 2;
+                int permits = (int) Math.min(Integer.MAX_VALUE, (bytes + 1023) / 1024);
+                if (permits > totalPermits) {
+                    log.warn("디코딩 메모리 예산 초과, 디코딩 생략: {} ({}x{}, 간격 {}, 약 {} MB)",
+                            source, width, height, step, bytes / (1024 * 1024));
+                    return null;
+                }
+
+                acquire(permits);
+                try {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    param.setSourceSubsampling(step, step, 0, 0);
+                    BufferedImage image = reader.read(0, param);
+                    return new DecodedImage(image, width, height, () -> memoryPermits.release(permits));
+                } catch (IOException | RuntimeException | Error e) {
+                    memoryPermits.release(permits);
+                    throw e;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void acquire(int permits) throws IOException {
+        try {
+            if (!memoryPermits.tryAcquire(permits, imageDecodeConfig.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("이미지 디코딩 메모리 대기 시간 초과 (" + permits / 1024 + " MB)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("이미지 디코딩 대기 중 중단되었습니다.", e);
+        }
+    }
+
+    /**
+     * 디코딩 결과의 픽셀당 바이트 (16비트 채널 PNG 등은 4바이트보다 큼)
+     */
+    private int bytesPerPixel(ImageReader reader) {
+        try {
+            ImageTypeSpecifier type = reader.getRawImageType(0);
+            if (type != null) {
+                return Math.max(MIN_BYTES_PER_PIXEL, (type.getColorModel().getPixelSize() + 7) / 8);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 알 수 없으면 최소값 사용
+        }
+        return MIN_BYTES_PER_PIXEL;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
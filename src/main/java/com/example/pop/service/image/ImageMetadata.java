@@ -0,0 +1,19 @@
+package com.example.pop.service.image;
+
+/**
+ * 이미지 헤더 정보 (픽셀 디코딩 없이 읽은 값)
+ *
+ * @param width       화면 표시 기준 가로 (EXIF 방향 적용 후)
+ * @param height      화면 표시 기준 세로 (EXIF 방향 적용 후)
+ * @param format      형식 (jpeg, png, gif, bmp ...)
+ * @param orientation EXIF 방향 (1~8, 정보가 없으면 1)
+ */
+public record ImageMetadata(int width, int height, String format, int orientation) {
+
+    /**
+     * EXIF 방향 5~8 은 90도 회전이므로 저장된 픽셀의 가로 / 세로가 화면과 반대
+     */
+    public static boolean isTransposed(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+}
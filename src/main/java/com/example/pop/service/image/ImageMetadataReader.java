@@ -0,0 +1,214 @@
+package com.example.pop.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * 이미지 헤더 정보 읽기 Service
+ *
+ * ImageIO reader 로 크기 / 형식만 읽고 픽셀은 디코딩하지 않는다. (파일 앞부분 헤더만 읽음)
+ * JPEG 는 EXIF(APP1) 의 방향 값을 직접 찾아 읽고, 90도 회전 방향이면 가로 / 세로를 바꿔 화면 기준 크기로 돌려준다.
+ * ImageIO 로 읽을 수 없는 WebP 는 RIFF 헤더에서 크기만 읽는다.
+ */
+@Slf4j
+@Service
+public class ImageMetadataReader {
+
+    private static final int SOI = 0xFFD8;
+    private static final int SOS = 0xFFDA;
+    private static final int EOI = 0xFFD9;
+    private static final int APP1 = 0xFFE1;
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TYPE_SHORT = 3;
+
+    /** EXIF 를 찾는 최대 범위 (APP 세그먼트는 파일 앞부분에 있음) */
+    private static final long MAX_SEGMENT_SCAN = 256 * 1024;
+
+    /**
+     * 이미지 헤더 정보
+     * @return 이미지 정보 (이미지가 아니거나 지원하지 않는 형식이면 null)
+     */
+    public ImageMetadata read(Path file) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return readWebp(input);
+            }
+
+            int width;
+            int height;
+            String format;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                width = reader.getWidth(0);
+                height = reader.getHeight(0);
+                format = reader.getFormatName().toLowerCase(Locale.ROOT);
+            } finally {
+                reader.dispose();
+            }
+
+            int orientation = "jpeg".equals(format) ? readJpegOrientation(input) : 1;
+            return ImageMetadata.isTransposed(orientation)
+                    ? new ImageMetadata(height, width, format, orientation)
+                    : new ImageMetadata(width, height, format, orientation);
+
+        } catch (IOException | RuntimeException e) {
+            log.debug("이미지 정보 읽기 실패: {} ({})", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * WebP 헤더 (RIFF....WEBP + 첫 청크) 에서 크기 읽기
+     * @return 이미지 정보 (WebP 가 아니면 null)
+     */
+    private ImageMetadata readWebp(ImageInputStream in) throws IOException {
+        byte[] header = new byte[30];
+        in.seek(0);
+        if (in.length() >= 0 && in.length() < header.length) {
+            return null;
+        }
+        in.readFully(header);
+        if (!ascii(header, 0, "RIFF") || !ascii(header, 8, "WEBP")) {
+            return null;
+        }
+
+        int width;
+        int height;
+        if (ascii(header, 12, "VP8X")) {
+            // 확장 형식: 캔버스 크기 - 1 (24비트 리틀 엔디언)
+            width = uint24(header, 24) + 1;
+            height = uint24(header, 27) + 1;
+        } else if (ascii(header, 12, "VP8 ")) {
+            // 손실 압축: 프레임 시작 코드(9d 01 2a) 뒤 14비트 크기
+            if ((header[23] & 0xff) != 0x9d || (header[24] & 0xff) != 0x01 || (header[25] & 0xff) != 0x2a) {
+                return null;
+            }
+            width = uint16(header, 26) & 0x3fff;
+            height = uint16(header, 28) & 0x3fff;
+        } else if (ascii(header, 12, "VP8L")) {
+            // 무손실 압축: 서명(0x2f) 뒤 14비트씩 (크기 - 1)
+            if ((header[20] & 0xff) != 0x2f) {
+                return null;
+            }
+            int bits = uint16(header, 21) | (uint16(header, 23) << 16);
+            width = (bits & 0x3fff) + 1;
+            height = ((bits >>> 14) & 0x3fff) + 1;
+        } else {
+            return null;
+        }
+        return new ImageMetadata(width, height, "webp", 1);
+    }
+
+    private static boolean ascii(byte[] bytes, int offset, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (bytes[offset + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int uint16(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    private static int uint24(byte[] bytes, int offset) {
+        return uint16(bytes, offset) | (bytes[offset + 2] & 0xff) << 16;
+    }
+
+    /**
+     * JPEG 세그먼트를 순서대로 건너뛰며 EXIF 방향 값 찾기 (SOS 이후 픽셀 데이터는 읽지 않음)
+     * @return EXIF 방향 (없거나 읽을 수 없으면 1)
+     */
+    private int readJpegOrientation(ImageInputStream in) throws IOException {
+        in.seek(0);
+        in.setByteOrder(ByteOrder.BIG_ENDIAN);
+        if (in.readUnsignedShort() != SOI) {
+            return 1;
+        }
+
+        while (in.getStreamPosition() < MAX_SEGMENT_SCAN) {
+            int marker = in.readUnsignedShort();
+            if ((marker & 0xFF00) != 0xFF00 || marker == SOS || marker == EOI) {
+                return 1;
+            }
+            int length = in.readUnsignedShort();
+            if (length < 2) {
+                return 1;
+            }
+            long segmentEnd = in.getStreamPosition() + length - 2;
+
+            if (marker == APP1 && length > 8 && isExifHeader(in)) {
+                int orientation = readTiffOrientation(in, in.getStreamPosition(), segmentEnd);
+                if (orientation > 0) {
+                    return orientation;
+                }
+            }
+            in.seek(segmentEnd);
+        }
+        return 1;
+    }
+
+    private boolean isExifHeader(ImageInputStream in) throws IOException {
+        byte[] header = new byte[6];
+        in.readFully(header);
+        return header[0] == 'E' && header[1] == 'x' && header[2] == 'i' && header[3] == 'f'
+                && header[4] == 0 && header[5] == 0;
+    }
+
+    /**
+     * TIFF 헤더 + IFD0 에서 방향 태그 찾기
+     * @return EXIF 방향 (1~8), 없으면 0
+     */
+    private int readTiffOrientation(ImageInputStream in, long tiffStart, long segmentEnd) throws IOException {
+        try {
+            int byteOrder = in.readUnsignedShort();
+            if (byteOrder == 0x4949) {
+                in.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+            } else if (byteOrder != 0x4D4D) {
+                return 0;
+            }
+            if (in.readUnsignedShort() != 42) {
+                return 0;
+            }
+
+            long ifdOffset = in.readUnsignedInt();
+            if (tiffStart + ifdOffset + 2 > segmentEnd) {
+                return 0;
+            }
+            in.seek(tiffStart + ifdOffset);
+
+            int entries = in.readUnsignedShort();
+            if (in.getStreamPosition() + entries * 12L > segmentEnd) {
+                return 0;
+            }
+            for (int i = 0; i < entries; i++) {
+                int tag = in.readUnsignedShort();
+                int type = in.readUnsignedShort();
+                in.readUnsignedInt(); // 값 개수
+                if (tag == TAG_ORIENTATION && type == TYPE_SHORT) {
+                    int orientation = in.readUnsignedShort();
+                    return orientation >= 1 && orientation <= 8 ? orientation : 0;
+                }
+                in.skipBytes(4);
+            }
+            return 0;
+        } finally {
+            in.setByteOrder(ByteOrder.BIG_ENDIAN);
+        }
+    }
+}
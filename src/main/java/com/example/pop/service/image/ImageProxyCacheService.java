@@ -0,0 +1,268 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 이미지 프록시 디스크 캐시
+ *
+ * - 이미지 바이트는 로컬 디스크({해시}.img)에, 응답 헤더 정보는 {해시}.meta 에 저장
+ * - 메모리에는 URL → 캐시 항목 인덱스만 유지 (LinkedHashMap access-order 기반 LRU)
+ * - 전체 용량이 설정값을 넘으면 가장 오래 사용되지 않은 항목부터 삭제
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageProxyCacheService {
+
+    private static final String DATA_SUFFIX = ".img";
+    private static final String META_SUFFIX = ".meta";
+    private static final String TEMP_PREFIX = "tmp_";
+
+    private final ImageProxyConfig imageProxyConfig;
+
+    // access-order = true → get() 할 때마다 가장 최근 항목으로 이동
+    private final LinkedHashMap<String, CachedImage> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes = 0;
+
+    private Path cacheDir;
+
+    /**
+     * 시작 시 디스크에 남아있는 캐시 파일로 인덱스 복원
+     */
+    @PostConstruct
+    public void loadIndex() {
+        cacheDir = Paths.get(imageProxyConfig.getCacheDir()).toAbsolutePath();
+
+        List<CachedImage> restored = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+
+                // 이전 실행에서 남은 임시 파일 정리
+                if (name.startsWith(TEMP_PREFIX)) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                if (!name.endsWith(META_SUFFIX)) {
+                    continue;
+                }
+
+                CachedImage entry = readMeta(path);
+                if (entry == null) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                restored.add(entry);
+            }
+        } catch (IOException e) {
+            log.error("이미지 프록시 캐시 인덱스 복원 실패: {}", cacheDir, e);
+        }
+
+        // 오래된 항목이 LRU 앞쪽에 오도록 정렬 후 적재
+        restored.sort(Comparator.comparingLong(CachedImage::getFetchedAt));
+        synchronized (this) {
+            for (CachedImage entry : restored) {
+                index.put(entry.getKey(), entry);
+                totalBytes += entry.getSize();
+            }
+            evictIfNeeded();
+        }
+
+        log.info("이미지 프록시 캐시 인덱스 복원 완료: {}건, {} bytes", restored.size(), totalBytes);
+    }
+
+    /**
+     * 캐시 조회 (없으면 null)
+     */
+    public synchronized CachedImage get(String key) {
+        return index.get(key);
+    }
+
+    /**
+     * 다운로드용 임시 파일 생성 (캐시 디렉토리 안에 만들어 rename 이 원자적으로 되도록)
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(cacheDir, TEMP_PREFIX, DATA_SUFFIX);
+    }
+
+    /**
+     * 다운로드가 끝난 임시 파일을 캐시에 등록
+     */
+    public CachedImage put(String key, Path tempFile, String contentType,
+                           String etag, String lastModified) throws IOException {
+        String hash = hash(key);
+        Path dataFile = cacheDir.resolve(hash + DATA_SUFFIX);
+        long size = Files.size(tempFile);
+        long now = System.currentTimeMillis();
+
+        CachedImage entry = new CachedImage(key, dataFile, size, contentType, etag, lastModified, now);
+
+        synchronized (this) {
+            moveAtomically(tempFile, dataFile);
+            writeMeta(entry);
+
+            CachedImage previous = index.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.getSize();
+            }
+            totalBytes += size;
+            evictIfNeeded();
+        }
+
+        return entry;
+    }
+
+    /**
+     * 원본 서버가 304 Not Modified 를 응답한 경우 유효 시간만 갱신
+     */
+    public void markRevalidated(CachedImage entry) {
+        entry.markRevalidated(System.currentTimeMillis());
+        try {
+            writeMeta(entry);
+        } catch (IOException e) {
+            log.warn("캐시 메타 갱신 실패 (계속 진행): {}", entry.getKey(), e);
+        }
+    }
+
+    /**
+     * 캐시 항목 제거
+     */
+    public synchronized void remove(String key) {
+        CachedImage entry = index.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.getSize();
+            deleteFiles(entry);
+        }
+    }
+
+    public synchronized int getEntryCount() {
+        return index.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 용량 초과 시 LRU 순서로 삭제 (lock 보유 상태에서 호출)
+     */
+    private void evictIfNeeded() {
+        long maxBytes = imageProxyConfig.getCacheMaxSizeBytes();
+        Iterator<Map.Entry<String, CachedImage>> it = index.entrySet().iterator();
+
+        while (totalBytes > maxBytes && it.hasNext()) {
+            CachedImage eldest = it.next().getValue();
+            it.remove();
+            totalBytes -= eldest.getSize();
+            deleteFiles(eldest);
+            log.debug("이미지 프록시 캐시 삭제 (LRU): {}", eldest.getKey());
+        }
+    }
+
+    private void deleteFiles(CachedImage entry) {
+        try {
+            Files.deleteIfExists(entry.getFile());
+            Files.deleteIfExists(metaPath(entry.getFile()));
+        } catch (IOException e) {
+            log.warn("캐시 파일 삭제 실패: {}", entry.getFile(), e);
+        }
+    }
+
+    private void writeMeta(CachedImage entry) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("key", entry.getKey());
+        props.setProperty("size", String.valueOf(entry.getSize()));
+        props.setProperty("contentType", entry.getContentType());
+        props.setProperty("fetchedAt", String.valueOf(entry.getFetchedAt()));
+        if (entry.getEtag() != null) {
+            props.setProperty("etag", entry.getEtag());
+        }
+        if (entry.getLastModified() != null) {
+            props.setProperty("lastModified", entry.getLastModified());
+        }
+
+        Path metaFile = metaPath(entry.getFile());
+        Path tempMeta = Files.createTempFile(cacheDir, TEMP_PREFIX, META_SUFFIX);
+        try (OutputStream out = Files.newOutputStream(tempMeta)) {
+            props.store(out, null);
+        }
+        moveAtomically(tempMeta, metaFile);
+    }
+
+    private CachedImage readMeta(Path metaFile) {
+        String name = metaFile.getFileName().toString();
+        Path dataFile = metaFile.resolveSibling(name.substring(0, name.length() - META_SUFFIX.length()) + DATA_SUFFIX);
+
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            Properties props = new Properties();
+            props.load(in);
+
+            if (!Files.exists(dataFile)) {
+                return null;
+            }
+
+            return new CachedImage(
+                    props.getProperty("key"),
+                    dataFile,
+                    Files.size(dataFile),
+                    props.getProperty("contentType", "image/jpeg"),
+                    props.getProperty("etag"),
+                    props.getProperty("lastModified"),
+                    Long.parseLong(props.getProperty("fetchedAt", "0"))
+            );
+        } catch (IOException | RuntimeException e) {
+            log.warn("캐시 메타 파일 읽기 실패: {}", metaFile, e);
+            return null;
+        }
+    }
+
+    private Path metaPath(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(name.substring(0, name.length() - DATA_SUFFIX.length()) + META_SUFFIX);
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 캐시 키 → 파일명 (SHA-256 hex)
+     */
+    static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
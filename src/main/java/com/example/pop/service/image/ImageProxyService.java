@@ -0,0 +1,29 @@
+package com.example.pop.service.image;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 이미지 프록시 Service 인터페이스
+ */
+public interface ImageProxyService {
+
+    /**
+     * 외부 이미지 조회 (디스크 캐시 우선, 만료 시 원본 서버 재검증)
+     * @param url 이미지 URL
+     * @return 캐시에 저장된 이미지
+     */
+    CompletableFuture<CachedImage> getImage(String url);
+
+    /**
+     * 원본 서버 응답 스트림 열기 (캐시 미사용 스트리밍 모드)
+     * @param url 이미지 URL
+     * @return 원본 응답 스트림 (호출자가 close 해야 함)
+     */
+    CompletableFuture<UpstreamImage> openUpstream(String url);
+
+    /**
+     * 호스트별 동시 요청 / 서킷 상태, 캐시 현황
+     */
+    Map<String, Object> getStats();
+}
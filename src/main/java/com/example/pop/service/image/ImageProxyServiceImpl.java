@@ -0,0 +1,452 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.exception.ImageProxyException;
+import com.example.pop.exception.UpstreamUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 이미지 프록시 Service 구현체
+ *
+ * 공유 HttpClient 의 sendAsync 로 원본 서버를 호출하므로 원본 응답을 기다리는 동안
+ * Tomcat 요청 스레드를 점유하지 않는다.
+ * 같은 URL 에 대한 동시 요청은 하나의 원본 다운로드로 합쳐진다 (single-flight).
+ *
+ * 원본 장애 대응
+ * - 호스트별 동시 요청 수 / 대기열 제한 (HostConcurrencyLimiter)
+ * - 호스트별 서킷 브레이커: 연속 장애 시 일정 시간 원본 호출 없이 503 (캐시가 있으면 만료된 캐시로 응답)
+ * - 부정 캐시: 404/410 과 타임아웃 결과를 짧게 기억하여 같은 URL 반복 호출 방지
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageProxyServiceImpl implements ImageProxyService {
+
+    private final ImageProxyConfig imageProxyConfig;
+    private final ImageProxyCacheService imageProxyCacheService;
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+    private final HostCircuitBreaker hostCircuitBreaker;
+    private final HttpClient imageProxyHttpClient;
+
+    // 진행 중인 원본 다운로드 (정규화된 URL → 결과), 동시 요청을 하나의 다운로드로 합침
+    private final ConcurrentHashMap<String, CompletableFuture<CachedImage>> inFlight = new ConcurrentHashMap<>();
+
+    // 부정 캐시 (정규화된 URL → 실패 상태 코드 / 만료 시각)
+    private final ConcurrentHashMap<String, NegativeEntry> negativeCache = new ConcurrentHashMap<>();
+
+    private record NegativeEntry(int status, long expiresAt) {
+    }
+
+    @Override
+    public CompletableFuture<CachedImage> getImage(String url) {
+        URI uri = toUri(url);
+        String key = uri.toString();
+
+        CachedImage cached = imageProxyCacheService.get(key);
+        long ttlMillis = imageProxyConfig.getCacheTtlSeconds() * 1000;
+
+        // 1) 유효한 캐시는 원본 서버 요청 없이 반환
+        if (cached != null && cached.isFresh(ttlMillis)) {
+            log.debug("이미지 프록시 캐시 적중: {}", key);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // 2) 최근 실패한 URL 이거나 서킷이 열린 호스트면 원본 호출 없이 바로 실패 (장애 중에는 만료된 캐시라도 응답)
+        String host = uri.getHost();
+        ImageProxyException rejected = checkRejected(key, host);
+        if (rejected != null) {
+            if (cached != null && rejected.getStatus() >= 500) {
+                log.warn("이미지 원본 서버 장애, 만료된 캐시로 응답: {}", key);
+                return CompletableFuture.completedFuture(cached);
+            }
+            return CompletableFuture.failedFuture(rejected);
+        }
+
+        // 3) 같은 URL 다운로드가 이미 진행 중이면 그 결과(성공/실패)를 같이 기다림
+        CompletableFuture<CachedImage> flight = new CompletableFuture<>();
+        CompletableFuture<CachedImage> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.debug("이미지 프록시 진행 중인 요청에 합류: {}", key);
+            return existing.copy()
+                    .orTimeout(imageProxyConfig.getCoalesceWaitTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .exceptionally(error -> {
+                        throw toProxyException(error, key);
+                    });
+        }
+
+        // 4) 첫 요청만 원본 서버 호출 (lock 없이 Future 로만 결과 공유)
+        hostConcurrencyLimiter.acquire(host)
+                .thenCompose(v -> {
+                    if (!hostCircuitBreaker.allowRequest(host)) {
+                        hostConcurrencyLimiter.release(host);
+                        return CompletableFuture.failedFuture(circuitOpen(host));
+                    }
+                    return fetchToCache(uri, key, cached)
+                            .whenComplete((image, error) -> {
+                                hostConcurrencyLimiter.release(host);
+                                recordOutcome(host, key, error);
+                            });
+                })
+                .whenComplete((image, error) -> {
+                    inFlight.remove(key, flight);
+                    if (error != null) {
+                        flight.completeExceptionally(toProxyException(error, key));
+                    } else {
+                        flight.complete(image);
+                    }
+                });
+
+        return flight.copy();
+    }
+
+    @Override
+    public CompletableFuture<UpstreamImage> openUpstream(String url) {
+        URI uri = toUri(url);
+        String key = uri.toString();
+        String host = uri.getHost();
+
+        ImageProxyException rejected = checkRejected(key, host);
+        if (rejected != null) {
+            return CompletableFuture.failedFuture(rejected);
+        }
+
+        return hostConcurrencyLimiter.acquire(host)
+                .thenCompose(v -> {
+                    if (!hostCircuitBreaker.allowRequest(host)) {
+                        hostConcurrencyLimiter.release(host);
+                        return CompletableFuture.failedFuture(circuitOpen(host));
+                    }
+
+                    // 호스트별 동시 요청 수는 교환이 끝날 때(본문 완료 / 실패 / 제한 시간 중단) 또는 스트림을 닫을 때 한 번만 반납
+                    // 스트리밍 응답이 실행되지 않거나(비동기 요청 시간 초과, 오류) 본문이 아주 느려도 제한 시간에는 반납된다.
+                    AtomicBoolean released = new AtomicBoolean(false);
+                    Runnable release = () -> {
+                        if (released.compareAndSet(false, true)) {
+                            hostConcurrencyLimiter.release(host);
+                        }
+                    };
+
+                    // 응답 헤더뿐 아니라 본문 전체를 제한 시간 안에 받도록 fetchToCache 와 같은 방식으로 교환 중단
+                    DownloadDeadline deadline = DownloadDeadline.start(key, imageProxyConfig.getDownloadTimeoutMs());
+                    HttpResponse.BodyHandler<InputStream> bodyHandler = info -> deadline.attach(
+                            HttpResponse.BodySubscribers.ofInputStream(),
+                            info.statusCode() == 200 ? imageProxyConfig.getMaxImageSizeBytes() : Long.MAX_VALUE,
+                            release);
+
+                    return imageProxyHttpClient
+                            .sendAsync(newRequest(uri).build(), bodyHandler)
+                            .handle((response, error) -> {
+                                if (error != null) {
+                                    release.run();
+                                    ImageProxyException failure = toProxyException(error, url);
+                                    recordOutcome(host, key, failure);
+                                    throw failure;
+                                }
+
+                                int status = response.statusCode();
+                                long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+
+                                if (status != 200 || exceedsLimit(contentLength)) {
+                                    closeQuietly(response.body());
+                                    release.run();
+                                    ImageProxyException failure = status != 200
+                                            ? statusException(status)
+                                            : new ImageProxyException(502, "이미지 크기가 너무 큽니다: " + contentLength + " bytes");
+                                    recordOutcome(host, key, failure);
+                                    throw failure;
+                                }
+
+                                recordOutcome(host, key, null);
+                                return new UpstreamImage(
+                                        resolveContentType(response.headers().firstValue("Content-Type").orElse(null)),
+                                        contentLength,
+                                        response.body(),
+                                        release
+                                );
+                            });
+                });
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cacheEntries", imageProxyCacheService.getEntryCount());
+        stats.put("cacheBytes", imageProxyCacheService.getTotalBytes());
+        stats.put("inFlight", inFlight.size());
+        stats.put("negativeCacheEntries", negativeCache.size());
+        stats.put("hostConcurrency", hostConcurrencyLimiter.snapshot());
+        stats.put("circuitBreakers", hostCircuitBreaker.snapshot());
+        return stats;
+    }
+
+    /**
+     * 원본 서버에서 받아 캐시에 저장 (만료된 캐시는 ETag / Last-Modified 로 조건부 요청)
+     */
+    private CompletableFuture<CachedImage> fetchToCache(URI uri, String url, CachedImage cached) {
+        Path tempFile;
+        try {
+            tempFile = imageProxyCacheService.createTempFile();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new ImageProxyException(500, "캐시 임시 파일 생성 실패", e));
+        }
+
+        HttpRequest.Builder request = newRequest(uri);
+        try {
+            if (cached != null && cached.isRevalidatable()) {
+                if (cached.getEtag() != null) {
+                    request.header("If-None-Match", cached.getEtag());
+                }
+                if (cached.getLastModified() != null) {
+                    request.header("If-Modified-Since", cached.getLastModified());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // 원본 서버가 준 ETag 형식이 잘못된 경우 조건부 요청 없이 다시 받음
+            log.warn("조건부 요청 헤더 설정 실패 (전체 다시 받기): {}", url);
+            request = newRequest(uri);
+        }
+
+        long maxBytes = imageProxyConfig.getMaxImageSizeBytes();
+
+        // 제한 시간이 지나면 교환 자체를 중단 (호스트별 동시 요청 수는 교환이 실제로 끝난 뒤 반납)
+        DownloadDeadline deadline = DownloadDeadline.start(url, imageProxyConfig.getDownloadTimeoutMs());
+
+        // 200 응답만 작은 버퍼로 임시 파일에 바로 기록, 나머지(304 등)는 본문 무시
+        HttpResponse.BodyHandler<Path> bodyHandler = info -> {
+            long contentLength = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+            if (info.statusCode() != 200 || exceedsLimit(contentLength)) {
+                return deadline.attach(HttpResponse.BodySubscribers.replacing(null), Long.MAX_VALUE);
+            }
+            return deadline.attach(HttpResponse.BodySubscribers.ofFile(tempFile), maxBytes);
+        };
+
+        return imageProxyHttpClient.sendAsync(request.build(), bodyHandler)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        deleteQuietly(tempFile);
+                        throw toProxyException(error, url);
+                    }
+
+                    int status = response.statusCode();
+
+                    if (status == 304 && cached != null) {
+                        deleteQuietly(tempFile);
+                        imageProxyCacheService.markRevalidated(cached);
+                        log.debug("이미지 프록시 캐시 재검증 (304): {}", url);
+                        return cached;
+                    }
+
+                    if (status != 200) {
+                        deleteQuietly(tempFile);
+                        throw statusException(status);
+                    }
+
+                    if (response.body() == null) {
+                        deleteQuietly(tempFile);
+                        throw new ImageProxyException(502, "이미지 크기가 너무 큽니다: " + url);
+                    }
+
+                    try {
+                        CachedImage stored = imageProxyCacheService.put(
+                                url,
+                                tempFile,
+                                resolveContentType(response.headers().firstValue("Content-Type").orElse(null)),
+                                response.headers().firstValue("ETag").orElse(null),
+                                response.headers().firstValue("Last-Modified").orElse(null)
+                        );
+                        log.info("이미지 프록시 원본 다운로드: {} bytes, {}", stored.getSize(), stored.getContentType());
+                        return stored;
+                    } catch (IOException e) {
+                        deleteQuietly(tempFile);
+                        throw new ImageProxyException(500, "이미지 캐시 저장 실패: " + url, e);
+                    }
+                });
+    }
+
+    private HttpRequest.Builder newRequest(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(Duration.ofMillis(imageProxyConfig.getResponseTimeoutMs()))
+                // User-Agent 설정 (서버가 봇 요청을 차단하지 않도록, 프록시 요청을 ‘일반 브라우저처럼 보이게 만드는 설정)
+                .header("User-Agent", "Mozilla/5.0");
+    }
+
+    /**
+     * URL 검증 및 정규화 (scheme/host 소문자, 기본 포트와 fragment 제거, 경로 정규화)
+     * 같은 이미지를 가리키는 URL 이 하나의 캐시 키 / 다운로드로 합쳐지도록 한다.
+     */
+    private URI toUri(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+            if (uri.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) {
+                throw new ImageProxyException(400, "지원하지 않는 이미지 URL 입니다: " + url);
+            }
+
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+            String path = (uri.getRawPath() == null || uri.getRawPath().isEmpty()) ? "/" : uri.getRawPath();
+
+            return URI.create(scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+                            + (port != -1 ? ":" + port : "")
+                            + path
+                            + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""))
+                    .normalize();
+        } catch (IllegalArgumentException e) {
+            throw new ImageProxyException(400, "잘못된 이미지 URL 입니다: " + url, e);
+        }
+    }
+
+    /**
+     * 비동기 처리 중 발생한 예외를 HTTP 상태 코드가 있는 예외로 변환
+     */
+    private ImageProxyException toProxyException(Throwable error, String url) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof ImageProxyException proxyException) {
+            return proxyException;
+        }
+        if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+            return new UpstreamUnavailableException(504, "원본 서버 응답 시간 초과: " + url, cause);
+        }
+        if (cause instanceof ConnectException) {
+            return new UpstreamUnavailableException(502, "원본 서버 연결 실패: " + url, cause);
+        }
+        if (cause instanceof IOException) {
+            return new UpstreamUnavailableException(502, "원본 서버 통신 실패: " + url, cause);
+        }
+        return new ImageProxyException(500, "이미지 프록시 실패: " + url, cause);
+    }
+
+    /**
+     * 원본 서버의 200 이외 응답을 예외로 변환 (5xx 는 원본 장애로 취급)
+     */
+    private ImageProxyException statusException(int status) {
+        if (status >= 500) {
+            return new UpstreamUnavailableException(status, "원본 서버 오류: HTTP " + status);
+        }
+        return new ImageProxyException(status, "이미지 로드 실패: HTTP " + status);
+    }
+
+    private ImageProxyException circuitOpen(String host) {
+        return new ImageProxyException(503, "원본 서버 장애로 요청을 차단 중입니다: " + host);
+    }
+
+    /**
+     * 원본 호출 전 사전 확인 (부정 캐시 → 서킷 브레이커)
+     * @return 바로 실패시켜야 하면 예외, 아니면 null
+     */
+    private ImageProxyException checkRejected(String key, String host) {
+        NegativeEntry negative = negativeCache.get(key);
+        if (negative != null) {
+            if (negative.expiresAt() > System.currentTimeMillis()) {
+                log.debug("이미지 프록시 부정 캐시 적중 ({}): {}", negative.status(), key);
+                return new ImageProxyException(negative.status(), "최근 실패한 이미지 URL 입니다: HTTP " + negative.status());
+            }
+            negativeCache.remove(key, negative);
+        }
+        if (hostCircuitBreaker.isRejecting(host)) {
+            return circuitOpen(host);
+        }
+        return null;
+    }
+
+    /**
+     * 원본 호출 결과를 서킷 브레이커와 부정 캐시에 반영
+     * - 성공 / 4xx / 크기 초과 : 원본 서버는 정상 (404, 410 은 부정 캐시)
+     * - 연결 실패 / 타임아웃 / 5xx : 원본 장애 (타임아웃은 부정 캐시)
+     * - 그 외 (로컬 캐시 저장 실패 등) : 원본 상태와 무관
+     */
+    private void recordOutcome(String host, String key, Throwable error) {
+        if (error == null) {
+            hostCircuitBreaker.recordSuccess(host);
+            return;
+        }
+
+        ImageProxyException failure = toProxyException(error, key);
+        if (failure instanceof UpstreamUnavailableException) {
+            hostCircuitBreaker.recordFailure(host);
+            if (failure.getStatus() == 504) {
+                putNegative(key, 504, imageProxyConfig.getNegativeCacheTimeoutTtlMs());
+            }
+        } else if (failure.getStatus() == 500) {
+            hostCircuitBreaker.recordIgnored(host);
+        } else {
+            hostCircuitBreaker.recordSuccess(host);
+            if (failure.getStatus() == 404 || failure.getStatus() == 410) {
+                putNegative(key, failure.getStatus(), imageProxyConfig.getNegativeCacheNotFoundTtlMs());
+            }
+        }
+    }
+
+    private void putNegative(String key, int status, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        if (negativeCache.size() >= imageProxyConfig.getNegativeCacheMaxEntries()) {
+            long now = System.currentTimeMillis();
+            negativeCache.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (negativeCache.size() >= imageProxyConfig.getNegativeCacheMaxEntries()) {
+                negativeCache.clear();
+            }
+        }
+        negativeCache.put(key, new NegativeEntry(status, System.currentTimeMillis() + ttlMillis));
+    }
+
+    private boolean exceedsLimit(long contentLength) {
+        return contentLength > imageProxyConfig.getMaxImageSizeBytes();
+    }
+
+    private String resolveContentType(String contentType) {
+        if (contentType == null || !contentType.startsWith("image/")) {
+            log.warn("이미지가 아닌 타입: {}", contentType);
+            return "image/jpeg"; // 기본값
+        }
+        return contentType;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", file, e);
+        }
+    }
+
+    private void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+            // 이미 닫힌 경우
+        }
+    }
+}
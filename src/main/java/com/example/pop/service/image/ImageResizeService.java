@@ -0,0 +1,213 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.exception.ImageProxyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미지 리사이즈 Service
+ *
+ * - 원본 해상도 전체를 메모리에 올리지 않도록 ImageIO 서브샘플링으로 필요한 만큼만 디코딩 (ImageDecodeService, 전역 메모리 예산 적용)
+ * - 리사이즈 결과는 프록시 디스크 캐시(LRU)에 변형 키로 저장하여 재사용
+ * - 같은 변형을 동시에 요청하면 한 번만 생성
+ */
+@Slf4j
+@Service
+public class ImageResizeService {
+
+    private final ImageProxyCacheService imageProxyCacheService;
+    private final ImageDecodeService imageDecodeService;
+    private final ThreadPoolExecutor resizeExecutor;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedImage>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageResizeService(ImageProxyConfig imageProxyConfig,
+                              ImageProxyCacheService imageProxyCacheService,
+                              ImageDecodeService imageDecodeService) {
+        this.imageProxyCacheService = imageProxyCacheService;
+        this.imageDecodeService = imageDecodeService;
+
+        int threads = imageProxyConfig.getResizeThreads() > 0
+                ? imageProxyConfig.getResizeThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.resizeExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(imageProxyConfig.getResizeQueueSize()),
+                r -> {
+                    Thread thread = new Thread(r, "image-resize");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resizeExecutor.shutdownNow();
+    }
+
+    /**
+     * 원본 이미지의 리사이즈 변형 조회 (없으면 생성 후 캐시에 저장)
+     */
+    public CompletableFuture<CachedImage> getVariant(CachedImage original, ResizeSpec spec) {
+        // 원본이 바뀌면(ETag/크기 변경) 다른 키가 되어 예전 변형은 LRU 로 자연스럽게 정리됨
+        String version = original.getEtag() != null ? original.getEtag()
+                : original.getLastModified() != null ? original.getLastModified()
+                : String.valueOf(original.getSize());
+        String key = original.getKey() + "#" + spec.toKeySuffix() + "@" + version;
+
+        CachedImage cached = imageProxyCacheService.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<CachedImage> flight = new CompletableFuture<>();
+        CompletableFuture<CachedImage> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            resizeExecutor.execute(() -> {
+                try {
+                    flight.complete(createVariant(original, spec, key));
+                } catch (Throwable e) {
+                    flight.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(new ImageProxyException(503, "이미지 리사이즈 작업이 밀려 있습니다."));
+        }
+
+        return flight.copy();
+    }
+
+    private CachedImage createVariant(CachedImage original, ResizeSpec spec, String key) throws IOException {
+        Path tempFile = imageProxyCacheService.createTempFile();
+        try {
+            String contentType = resize(original.getFile(), spec, tempFile);
+            if (contentType == null) {
+                // 디코딩할 수 없는 형식(SVG 등)은 원본 그대로 사용
+                Files.deleteIfExists(tempFile);
+                log.warn("리사이즈할 수 없는 이미지 형식, 원본 사용: {}", original.getKey());
+                return original;
+            }
+
+            CachedImage variant = imageProxyCacheService.put(key, tempFile, contentType, null, null);
+            log.info("이미지 리사이즈 완료: {} ({}) {} -> {} bytes",
+                    original.getKey(), spec.toKeySuffix(), original.getSize(), variant.getSize());
+            return variant;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 리사이즈 후 target 에 저장
+     * 디코딩은 ImageDecodeService 를 거치므로 픽셀 수 / 메모리 제한을 넘는 이미지는 처리하지 않는다.
+     * @return 저장된 이미지의 Content-Type (디코딩 불가 형식이거나 제한 초과면 null)
+     */
+    public String resize(Path source, ResizeSpec spec, Path target) throws IOException {
+        // 서브샘플링 디코딩: 결과 크기 이상을 유지하는 최대 간격으로 픽셀을 건너뛰며 읽음
+        try (ImageDecodeService.DecodedImage decodedImage = imageDecodeService.decode(source, (srcWidth, srcHeight) -> {
+            int[] scaled = scaledSize(spec, srcWidth, srcHeight);
+            return Math.min(srcWidth / scaled[0], srcHeight / scaled[1]);
+        })) {
+            if (decodedImage == null) {
+                return null;
+            }
+
+            BufferedImage decoded = decodedImage.getImage();
+            int[] scaled = scaledSize(spec, decodedImage.getSourceWidth(), decodedImage.getSourceHeight());
+            int scaledWidth = scaled[0];
+            int scaledHeight = scaled[1];
+
+            // 최종 크기로 축소 (+ cover 는 가운데 기준 자르기)
+            int outWidth = scaledWidth;
+            int outHeight = scaledHeight;
+            if (spec.getFit() == ResizeSpec.Fit.COVER) {
+                outWidth = Math.min(spec.getWidth(), scaledWidth);
+                outHeight = Math.min(spec.getHeight(), scaledHeight);
+            }
+
+            boolean hasAlpha = decoded.getColorModel().hasAlpha();
+            BufferedImage output = new BufferedImage(outWidth, outHeight,
+                    hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = output.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(decoded,
+                        (outWidth - scaledWidth) / 2, (outHeight - scaledHeight) / 2,
+                        scaledWidth, scaledHeight, null);
+            } finally {
+                g.dispose();
+            }
+
+            // 인코딩: 투명도가 있으면 PNG, 아니면 품질(q) 지정 JPEG
+            if (hasAlpha) {
+                ImageIO.write(output, "png", target.toFile());
+                return "image/png";
+            }
+            writeJpeg(output, spec.getQuality(), target);
+            return "image/jpeg";
+        }
+    }
+
+    /**
+     * 비율 유지 축소 크기 계산 (확대는 하지 않음, fill 은 지정 크기 그대로)
+     * @return {가로, 세로}
+     */
+    private int[] scaledSize(ResizeSpec spec, int srcWidth, int srcHeight) {
+        if (spec.getFit() == ResizeSpec.Fit.FILL) {
+            return new int[]{spec.getWidth(), spec.getHeight()};
+        }
+
+        double scaleX = spec.getWidth() != null ? (double) spec.getWidth() / srcWidth : Double.MAX_VALUE;
+        double scaleY = spec.getHeight() != null ? (double) spec.getHeight() / srcHeight : Double.MAX_VALUE;
+        double scale = switch (spec.getFit()) {
+            case COVER -> Math.max(scaleX, scaleY);
+            default -> Math.min(scaleX, scaleY);
+        };
+        scale = Math.min(scale, 1.0);
+
+        return new int[]{
+                Math.max(1, (int) Math.round(srcWidth * scale)),
+                Math.max(1, (int) Math.round(srcHeight * scale))
+        };
+    }
+
+    private void writeJpeg(BufferedImage image, int quality, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality / 100f);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
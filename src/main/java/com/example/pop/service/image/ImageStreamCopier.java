@@ -0,0 +1,50 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.exception.ImageProxyException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 이미지 스트림 복사기
+ *
+ * 이미지 전체를 힙에 올리지 않고 스레드별로 재사용되는 작은 버퍼로만 복사한다.
+ * 요청당 메모리 사용량은 이미지 크기와 상관없이 버퍼 크기로 고정된다.
+ */
+@Component
+public class ImageStreamCopier {
+
+    private final ImageProxyConfig imageProxyConfig;
+    private final ThreadLocal<byte[]> buffers;
+
+    public ImageStreamCopier(ImageProxyConfig imageProxyConfig) {
+        this.imageProxyConfig = imageProxyConfig;
+        this.buffers = ThreadLocal.withInitial(() -> new byte[imageProxyConfig.getBufferSize()]);
+    }
+
+    /**
+     * 최대 크기를 넘지 않는 범위에서 복사
+     * @return 복사한 바이트 수
+     * @throws ImageProxyException 최대 크기 초과 시 (502)
+     */
+    public long copy(InputStream in, OutputStream out) throws IOException {
+        long maxBytes = imageProxyConfig.getMaxImageSizeBytes();
+        byte[] buffer = buffers.get();
+        long total = 0;
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new ImageProxyException(502,
+                        "이미지 크기가 너무 큽니다. (최대: " + imageProxyConfig.getMaxImageSizeMb() + "MB)");
+            }
+            out.write(buffer, 0, read);
+        }
+        out.flush();
+        return total;
+    }
+}
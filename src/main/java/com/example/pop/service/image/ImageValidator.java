@@ -0,0 +1,106 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageDecodeConfig;
+import com.example.pop.exception.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 업로드 이미지 내용 검증 Service
+ *
+ * 클라이언트가 보낸 Content-Type / 확장자는 믿지 않고 파일 내용으로 확인한다.
+ * 1) 스트림 앞부분의 시그니처(magic bytes)로 형식 확인 → 이미지가 아니면 본문을 받기 전에 거절
+ * 2) 저장된 파일의 헤더에서 크기를 읽어 픽셀 수 제한(image.decode.max-pixels) 확인 → 압축 폭탄 거절 (픽셀 디코딩 없음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageValidator {
+
+    /** 시그니처 확인에 필요한 앞부분 길이 */
+    private static final int SIGNATURE_LENGTH = 12;
+
+    private static final String UNSUPPORTED_FORMAT = "지원하지 않는 이미지 형식입니다. (JPEG, PNG, GIF, BMP, WebP 만 가능)";
+
+    private final ImageDecodeConfig imageDecodeConfig;
+    private final ImageMetadataReader imageMetadataReader;
+
+    /**
+     * 시그니처 확인 후 같은 내용을 처음부터 읽을 수 있는 스트림 반환
+     * @throws InvalidRequestException 허용하지 않는 형식
+     */
+    public InputStream requireImageSignature(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(SIGNATURE_LENGTH);
+        byte[] head = buffered.readNBytes(SIGNATURE_LENGTH);
+        buffered.reset();
+
+        if (detectFormat(head, head.length) == null) {
+            throw new InvalidRequestException(UNSUPPORTED_FORMAT);
+        }
+        return buffered;
+    }
+
+    /**
+     * 저장된 파일의 헤더 확인 (시그니처 / 크기 / 픽셀 수)
+     * @return 이미지 정보
+     * @throws InvalidRequestException 허용하지 않는 형식, 읽을 수 없는 이미지, 픽셀 수 제한 초과
+     */
+    public ImageMetadata validate(Path file) {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(SIGNATURE_LENGTH);
+        } catch (IOException e) {
+            throw new InvalidRequestException("이미지 파일을 읽을 수 없습니다.", e);
+        }
+        if (detectFormat(head, head.length) == null) {
+            throw new InvalidRequestException(UNSUPPORTED_FORMAT);
+        }
+
+        ImageMetadata metadata = imageMetadataReader.read(file);
+        if (metadata == null || metadata.width() <= 0 || metadata.height() <= 0) {
+            throw new InvalidRequestException("이미지 파일이 손상되었거나 읽을 수 없습니다.");
+        }
+
+        long pixels = (long) metadata.width() * metadata.height();
+        if (pixels > imageDecodeConfig.getMaxPixels()) {
+            log.warn("픽셀 수 제한 초과 이미지 거절: {}x{} ({})", metadata.width(), metadata.height(), file.getFileName());
+            throw new InvalidRequestException("이미지 해상도가 너무 큽니다. (" + metadata.width() + "x" + metadata.height()
+                    + ", 최대 " + imageDecodeConfig.getMaxPixels() + " 픽셀)");
+        }
+        return metadata;
+    }
+
+    /**
+     * 시그니처로 형식 판별
+     * @return 형식 (jpeg, png, gif, bmp, webp), 해당 없으면 null
+     */
+    public static String detectFormat(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xff) == 0xFF && (head[1] & 0xff) == 0xD8 && (head[2] & 0xff) == 0xFF) {
+            return "jpeg";
+        }
+        if (length >= 8 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == 0x0D && head[5] == 0x0A && head[6] == 0x1A && head[7] == 0x0A) {
+            return "png";
+        }
+        if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8'
+                && (head[4] == '7' || head[4] == '9') && head[5] == 'a') {
+            return "gif";
+        }
+        if (length >= 2 && head[0] == 'B' && head[1] == 'M') {
+            return "bmp";
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.pop.service.image;
+
+import com.example.pop.exception.ImageProxyException;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * 최대 크기를 넘으면 수신을 중단하는 BodySubscriber 래퍼
+ * (Content-Length 가 없는 chunked 응답도 받는 도중에 차단)
+ *
+ * 다운로드 제한 시간(DownloadDeadline)이 지나면 다른 스레드에서 abort 로 중단한다.
+ * 구독을 취소해야 HttpClient 교환(연결)이 실제로 끝나므로, 수신 콜백과 abort 는 같은 잠금으로 직렬화한다.
+ * 교환이 끝나면(완료 / 실패 / 중단) onFinish 를 한 번 호출한다. (잠금 밖에서 호출, 호스트 요청 허가 반납 등)
+ */
+class LimitedBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> delegate;
+    private final long maxBytes;
+    private final Runnable onFinish;
+    private Flow.Subscription subscription;
+    private long received = 0;
+    private boolean aborted = false;
+    private boolean done = false;
+
+    LimitedBodySubscriber(HttpResponse.BodySubscriber<T> delegate, long maxBytes) {
+        this(delegate, maxBytes, () -> { });
+    }
+
+    LimitedBodySubscriber(HttpResponse.BodySubscriber<T> delegate, long maxBytes, Runnable onFinish) {
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        this.onFinish = onFinish;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return delegate.getBody();
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (aborted) {
+            // 구독 전에 중단됨 (응답 헤더를 받는 사이 제한 시간 초과)
+            subscription.cancel();
+            return;
+        }
+        delegate.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        boolean tooLarge;
+        synchronized (this) {
+            if (aborted) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                received += item.remaining();
+            }
+            tooLarge = received > maxBytes;
+            if (!tooLarge) {
+                delegate.onNext(items);
+                return;
+            }
+        }
+        abort(new ImageProxyException(502, "이미지 크기가 너무 큽니다. (" + received + " bytes 이상)"));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            if (aborted || done) {
+                return;
+            }
+            done = true;
+            delegate.onError(throwable);
+        }
+        onFinish.run();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (aborted || done) {
+                return;
+            }
+            done = true;
+            delegate.onComplete();
+        }
+        onFinish.run();
+    }
+
+    /**
+     * 수신 중단 (구독 취소 후 cause 로 실패 처리, 이미 끝났으면 무시)
+     */
+    void abort(Throwable cause) {
+        synchronized (this) {
+            if (aborted || done) {
+                return;
+            }
+            aborted = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            delegate.onError(cause);
+        }
+        onFinish.run();
+    }
+}
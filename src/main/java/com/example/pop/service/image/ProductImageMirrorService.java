@@ -0,0 +1,487 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.config.ProductImageMirrorConfig;
+import com.example.pop.exception.ImageProxyException;
+import com.example.pop.mapper.ProductImageMapper;
+import com.example.pop.vo.ProductImageVO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 상품 이미지 미러링 Service
+ *
+ * images_store_master 의 외부 이미지(m/p/w url)를 로컬 디스크로 복사해 두고,
+ * 복사본이 있으면 상품 검색 결과가 외부 URL 대신 로컬 URL 을 가리키도록 한다.
+ *
+ * - 등록일시(mstr_prdt_rgst_dt) + 시퀀스를 워터마크로 새로 등록/변경된 상품만 처리
+ * - 배치 단위로 워터마크를 파일에 저장하므로 중간에 중단되어도 이어서 진행
+ * - 동시 다운로드 수 제한, 이미 받은 이미지는 If-Modified-Since 로 변경 여부만 확인
+ * - 일시적으로 실패한 URL 은 재시도 목록에 남겨 다음 실행 때 다시 시도
+ *
+ * 저장 구조: {미러 디렉토리}/{URL 해시 앞 2자리}/{URL 해시}.{확장자}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImageMirrorService {
+
+    /** 로컬 복사본 URL 접두어 (ImageProxyController 에서 제공) */
+    public static final String URL_PREFIX = "/api/image-proxy/mirror/";
+
+    private static final String TEMP_PREFIX = "tmp_";
+    private static final String STATE_FILE = "mirror-state.properties";
+    private static final String RETRY_FILE = "mirror-retry.txt";
+    private static final Pattern FILE_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp|bmp)");
+
+    private final ProductImageMirrorConfig productImageMirrorConfig;
+    private final ImageProxyConfig imageProxyConfig;
+    private final ProductImageMapper productImageMapper;
+    private final HttpClient imageProxyHttpClient;
+
+    // URL 해시 → 저장된 파일명
+    private final ConcurrentHashMap<String, String> index = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private Path mirrorDir;
+
+    /**
+     * 시작 시 디스크에 있는 미러 파일로 인덱스 복원
+     */
+    @PostConstruct
+    public void loadIndex() {
+        mirrorDir = Paths.get(productImageMirrorConfig.getDir()).toAbsolutePath();
+
+        try {
+            // 처음 실행이면 디렉토리가 없으므로 생성 (하위 분산 디렉토리는 저장 시 생성)
+            Files.createDirectories(mirrorDir);
+        } catch (IOException e) {
+            log.error("상품 이미지 미러 디렉토리 생성 실패: {}", mirrorDir, e);
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(mirrorDir, 2)) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(TEMP_PREFIX)) {
+                    // 이전 실행에서 남은 임시 파일 정리
+                    deleteQuietly(path);
+                } else if (FILE_NAME.matcher(name).matches()) {
+                    index.put(name.substring(0, 64), name);
+                }
+            });
+        } catch (IOException e) {
+            log.error("상품 이미지 미러 인덱스 복원 실패: {}", mirrorDir, e);
+        }
+
+        log.info("상품 이미지 미러 인덱스 복원: {}건", index.size());
+    }
+
+    /**
+     * 원본 URL 의 로컬 복사본 URL (복사본이 없으면 null)
+     */
+    public String getLocalUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        String fileName = index.get(ImageProxyCacheService.hash(url.trim()));
+        return fileName == null ? null : URL_PREFIX + fileName;
+    }
+
+    /**
+     * 로컬 복사본 조회 (리사이즈 / 스트리밍에서 캐시 항목처럼 사용)
+     * @param fileName 로컬 URL 의 파일명 부분
+     * @return 미러 이미지, 없으면 null
+     */
+    public CachedImage getMirroredImage(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            return null;
+        }
+        String hash = fileName.substring(0, 64);
+        if (!fileName.equals(index.get(hash))) {
+            return null;
+        }
+
+        Path file = shardDir(hash).resolve(fileName);
+        try {
+            long size = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            // lastModified 를 버전으로 사용 → 다시 받으면 리사이즈 변형도 새로 생성
+            return new CachedImage("mirror:" + fileName, file, size, toContentType(fileName),
+                    null, String.valueOf(modified), modified);
+        } catch (IOException e) {
+            log.warn("상품 이미지 미러 파일 없음: {}", file);
+            index.remove(hash, fileName);
+            return null;
+        }
+    }
+
+    /**
+     * 정해진 시간에 미러링 실행 (사용량이 적은 시간대)
+     */
+    @Scheduled(cron = "${product-image-mirror.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (productImageMirrorConfig.isEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * 미러링 실행 (재시도 목록 → 워터마크 이후 상품 순서)
+     */
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("상품 이미지 미러링이 이미 실행 중입니다.");
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        RunStats stats = new RunStats();
+        try {
+            // 1) 지난 실행에서 일시적으로 실패한 URL 재시도
+            Set<String> retry = loadRetry();
+            if (!retry.isEmpty()) {
+                log.info("상품 이미지 미러 재시도: {}건", retry.size());
+                retry = mirrorAll(retry, stats);
+                saveRetry(retry);
+            }
+
+            // 2) 워터마크 이후 상품을 배치 단위로 처리
+            Properties state = loadState();
+            String afterRgstDt = state.getProperty("rgstDt");
+            Integer afterSeq = state.getProperty("seq") == null ? null : Integer.valueOf(state.getProperty("seq"));
+            int batchSize = productImageMirrorConfig.getBatchSize();
+
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ProductImageVO> batch = productImageMapper.selectMirrorTargets(afterRgstDt, afterSeq, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                Set<String> urls = new LinkedHashSet<>();
+                for (ProductImageVO product : batch) {
+                    addUrl(urls, product.getMstrPrdtMUrl());
+                    addUrl(urls, product.getMstrPrdtPUrl());
+                    addUrl(urls, product.getMstrPrdtWUrl());
+                }
+                stats.products += batch.size();
+
+                Set<String> failed = mirrorAll(urls, stats);
+                if (!failed.isEmpty()) {
+                    retry.addAll(failed);
+                    saveRetry(retry);
+                }
+
+                // 배치가 끝난 뒤에만 워터마크 저장 (중단되면 이 배치부터 다시)
+                ProductImageVO last = batch.get(batch.size() - 1);
+                afterRgstDt = last.getMstrPrdtRgstDt();
+                afterSeq = last.getSeqMstrPrdt();
+                saveState(afterRgstDt, afterSeq);
+
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+
+            log.info("상품 이미지 미러링 완료 - 상품 {}건, 다운로드 {}건, 변경 없음 {}건, 실패 {}건 ({}ms)",
+                    stats.products, stats.downloaded.get(), stats.notModified.get(), stats.failed.get(),
+                    System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("상품 이미지 미러링 중단 (다음 실행 때 마지막 워터마크부터 재개)", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * URL 목록을 동시 다운로드 수 제한 안에서 미러링
+     * @return 일시적으로 실패하여 다시 시도할 URL
+     */
+    private Set<String> mirrorAll(Collection<String> urls, RunStats stats) {
+        Semaphore permits = new Semaphore(productImageMirrorConfig.getParallelism());
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(urls.size());
+
+        for (String url : urls) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            futures.add(download(url).handle((downloaded, error) -> {
+                permits.release();
+                if (error == null) {
+                    (downloaded ? stats.downloaded : stats.notModified).incrementAndGet();
+                    return null;
+                }
+
+                stats.failed.incrementAndGet();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (isPermanentFailure(cause)) {
+                    log.warn("상품 이미지 미러 실패 (재시도 안 함): {} - {}", url, cause.getMessage());
+                } else {
+                    log.warn("상품 이미지 미러 실패 (다음 실행 때 재시도): {} - {}", url, cause.toString());
+                    failed.add(url);
+                }
+                return null;
+            }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        return failed;
+    }
+
+    /**
+     * 이미지 1건 다운로드
+     * @return 새로 받았으면 true, 변경 없음(304)이면 false
+     */
+    private CompletableFuture<Boolean> download(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+            if (uri.getHost() == null || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+                throw new IllegalArgumentException("지원하지 않는 URL");
+            }
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new ImageProxyException(400, "잘못된 이미지 URL 입니다: " + url));
+        }
+
+        String hash = ImageProxyCacheService.hash(url);
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile(mirrorDir, TEMP_PREFIX, null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(Duration.ofMillis(imageProxyConfig.getResponseTimeoutMs()))
+                .header("User-Agent", "Mozilla/5.0");
+
+        // 이미 받은 이미지는 변경 여부만 확인
+        String existing = index.get(hash);
+        if (existing != null) {
+            try {
+                long modified = Files.getLastModifiedTime(shardDir(hash).resolve(existing)).toMillis();
+                request.header("If-Modified-Since", DateTimeFormatter.RFC_1123_DATE_TIME
+                        .format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(modified), ZoneOffset.UTC)));
+            } catch (IOException e) {
+                index.remove(hash, existing);
+            }
+        }
+
+        long maxBytes = imageProxyConfig.getMaxImageSizeBytes();
+        // 제한 시간이 지나면 교환 자체를 중단 (동시 다운로드 수는 교환이 실제로 끝난 뒤 반납)
+        DownloadDeadline deadline = DownloadDeadline.start(url, productImageMirrorConfig.getDownloadTimeoutMs());
+        HttpResponse.BodyHandler<Path> bodyHandler = info -> {
+            long contentLength = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+            if (info.statusCode() != 200 || contentLength > maxBytes) {
+                return deadline.attach(HttpResponse.BodySubscribers.replacing(null), Long.MAX_VALUE);
+            }
+            return deadline.attach(HttpResponse.BodySubscribers.ofFile(tempFile), maxBytes);
+        };
+
+        return imageProxyHttpClient.sendAsync(request.build(), bodyHandler)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        deleteQuietly(tempFile);
+                        throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                    }
+
+                    int status = response.statusCode();
+                    if (status == 304 && existing != null) {
+                        deleteQuietly(tempFile);
+                        return false;
+                    }
+                    if (status != 200) {
+                        deleteQuietly(tempFile);
+                        throw new ImageProxyException(status, "이미지 로드 실패: HTTP " + status);
+                    }
+                    if (response.body() == null) {
+                        deleteQuietly(tempFile);
+                        throw new ImageProxyException(413, "이미지 크기가 너무 큽니다");
+                    }
+
+                    String extension = toExtension(response.headers().firstValue("Content-Type").orElse(null));
+                    if (extension == null) {
+                        deleteQuietly(tempFile);
+                        throw new ImageProxyException(415, "이미지가 아닌 응답: "
+                                + response.headers().firstValue("Content-Type").orElse(null));
+                    }
+
+                    try {
+                        store(hash, extension, tempFile);
+                        return true;
+                    } catch (IOException e) {
+                        deleteQuietly(tempFile);
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * 임시 파일을 최종 위치로 이동 후 인덱스 등록 (확장자가 바뀌었으면 이전 파일 삭제)
+     */
+    private void store(String hash, String extension, Path tempFile) throws IOException {
+        String fileName = hash + "." + extension;
+        Path dir = Files.createDirectories(shardDir(hash));
+
+        try {
+            Files.move(tempFile, dir.resolve(fileName), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, dir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        String previous = index.put(hash, fileName);
+        if (previous != null && !previous.equals(fileName)) {
+            deleteQuietly(dir.resolve(previous));
+        }
+    }
+
+    /**
+     * 다시 시도해도 소용없는 실패인지 (4xx 응답, 이미지가 아닌 응답 등)
+     */
+    private boolean isPermanentFailure(Throwable cause) {
+        if (cause instanceof ImageProxyException e) {
+            int status = e.getStatus();
+            return status >= 400 && status < 500 && status != 408 && status != 429;
+        }
+        return false;
+    }
+
+    private Properties loadState() throws IOException {
+        Properties state = new Properties();
+        Path file = mirrorDir.resolve(STATE_FILE);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                state.load(in);
+            }
+        }
+        return state;
+    }
+
+    private void saveState(String rgstDt, Integer seq) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("rgstDt", rgstDt);
+        state.setProperty("seq", String.valueOf(seq));
+
+        Path tempFile = Files.createTempFile(mirrorDir, TEMP_PREFIX, null);
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            state.store(out, "product image mirror watermark");
+        }
+        Files.move(tempFile, mirrorDir.resolve(STATE_FILE), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Set<String> loadRetry() throws IOException {
+        Set<String> retry = new LinkedHashSet<>();
+        Path file = mirrorDir.resolve(RETRY_FILE);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                addUrl(retry, line);
+            }
+        }
+        return retry;
+    }
+
+    private void saveRetry(Set<String> retry) throws IOException {
+        // 목록이 너무 커지면 오래된 것부터 버림
+        List<String> lines = new ArrayList<>(retry);
+        int max = productImageMirrorConfig.getMaxRetryEntries();
+        if (lines.size() > max) {
+            lines = lines.subList(lines.size() - max, lines.size());
+        }
+        Files.write(mirrorDir.resolve(RETRY_FILE), lines, StandardCharsets.UTF_8);
+    }
+
+    private void addUrl(Set<String> urls, String url) {
+        if (url != null && !url.isBlank()) {
+            urls.add(url.trim());
+        }
+    }
+
+    private Path shardDir(String hash) {
+        return mirrorDir.resolve(hash.substring(0, 2));
+    }
+
+    private String toExtension(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        return switch (contentType.split(";")[0].trim().toLowerCase(Locale.ROOT)) {
+            case "image/jpeg", "image/jpg", "image/pjpeg" -> "jpg";
+            case "image/png" -> "png";
+            case "image/gif" -> "gif";
+            case "image/webp" -> "webp";
+            case "image/bmp" -> "bmp";
+            default -> null;
+        };
+    }
+
+    private String toContentType(String fileName) {
+        return switch (fileName.substring(fileName.lastIndexOf('.') + 1)) {
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            case "bmp" -> "image/bmp";
+            default -> "image/jpeg";
+        };
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("미러 파일 삭제 실패: {}", file, e);
+        }
+    }
+
+    /**
+     * 1회 실행 집계
+     */
+    private static class RunStats {
+        private int products = 0;
+        private final AtomicInteger downloaded = new AtomicInteger();
+        private final AtomicInteger notModified = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.pop.service.image;
+
+import com.example.pop.exception.ImageProxyException;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * 이미지 리사이즈 요청 파라미터 (w, h, fit, q)
+ *
+ * fit
+ * - contain : w x h 영역 안에 비율 유지하여 맞춤 (기본값)
+ * - cover   : w x h 영역을 비율 유지하여 꽉 채우고 넘치는 부분은 가운데 기준으로 자름
+ * - fill    : 비율 무시하고 w x h 로 늘림
+ */
+@Getter
+public class ResizeSpec {
+
+    public enum Fit { CONTAIN, COVER, FILL }
+
+    private static final int DEFAULT_QUALITY = 80;
+
+    private final Integer width;
+    private final Integer height;
+    private final Fit fit;
+    private final int quality;
+
+    private ResizeSpec(Integer width, Integer height, Fit fit, int quality) {
+        this.width = width;
+        this.height = height;
+        this.fit = fit;
+        this.quality = quality;
+    }
+
+    /**
+     * 요청 파라미터 검증 후 생성 (w, h 가 모두 없으면 null = 리사이즈 안 함)
+     */
+    public static ResizeSpec of(Integer w, Integer h, String fit, Integer q, int maxDimension) {
+        if (w == null && h == null) {
+            return null;
+        }
+        if ((w != null && (w <= 0 || w > maxDimension)) || (h != null && (h <= 0 || h > maxDimension))) {
+            throw new ImageProxyException(400, "w, h 는 1 ~ " + maxDimension + " 사이여야 합니다.");
+        }
+        if (q != null && (q < 1 || q > 100)) {
+            throw new ImageProxyException(400, "q 는 1 ~ 100 사이여야 합니다.");
+        }
+
+        Fit fitMode;
+        try {
+            fitMode = (fit == null || fit.isBlank()) ? Fit.CONTAIN : Fit.valueOf(fit.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ImageProxyException(400, "fit 은 contain, cover, fill 중 하나여야 합니다.");
+        }
+
+        // 한쪽만 지정하면 비율 유지 축소만 의미가 있음
+        if (w == null || h == null) {
+            fitMode = Fit.CONTAIN;
+        }
+
+        return new ResizeSpec(w, h, fitMode, q == null ? DEFAULT_QUALITY : q);
+    }
+
+    /**
+     * 캐시 키에 붙일 변형 식별자
+     */
+    public String toKeySuffix() {
+        return "w=" + (width == null ? "" : width)
+                + "&h=" + (height == null ? "" : height)
+                + "&fit=" + fit.name().toLowerCase(Locale.ROOT)
+                + "&q=" + quality;
+    }
+}
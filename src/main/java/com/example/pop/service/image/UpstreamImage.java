@@ -0,0 +1,45 @@
+package com.example.pop.service.image;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 원본 서버 응답 스트림 (캐시를 거치지 않는 스트리밍 모드용)
+ * 사용 후 반드시 close() 로 연결과 호스트 요청 허가를 정리해야 한다.
+ * (닫지 못해도 다운로드 제한 시간이 지나면 원본 교환이 중단되고 허가가 반납된다)
+ */
+@Getter
+public class UpstreamImage implements Closeable {
+
+    private final String contentType;
+    private final long contentLength;
+    private final InputStream inputStream;
+    private final Runnable onClose;
+    private boolean closed = false;
+
+    public UpstreamImage(String contentType, long contentLength,
+                         InputStream inputStream, Runnable onClose) {
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        this.inputStream = inputStream;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+            // 클라이언트 중단 등으로 이미 닫힌 경우
+        } finally {
+            onClose.run();
+        }
+    }
+}
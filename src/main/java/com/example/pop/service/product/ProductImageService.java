@@ -24,4 +24,11 @@ public interface ProductImageService {
      * @return 총 개수
      */
     int countProductImages(String searchType, String keyword);
+
+    /**
+     * 시퀀스 목록으로 상품 이미지 조회 (로컬 미러가 있으면 로컬 URL)
+     * @param seqs 상품 시퀀스 목록
+     * @return 상품 이미지 목록
+     */
+    List<ProductImageVO> getProductImagesBySeqs(List<Integer> seqs);
 }
@@ -1,6 +1,7 @@
 package com.example.pop.service.product;
 
 import com.example.pop.mapper.ProductImageMapper;
+import com.example.pop.service.image.ProductImageMirrorService;
 import com.example.pop.vo.ProductImageVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,7 @@ import java.util.List;
 
 /**
  * 상품 이미지 Service 구현체
+ * 로컬 미러 복사본이 있는 이미지는 외부 URL 대신 로컬 URL 로 바꿔서 반환
  */
 @Slf4j
 @Service
@@ -17,11 +19,14 @@ import java.util.List;
 public class ProductImageServiceImpl implements ProductImageService {
 
     private final ProductImageMapper productImageMapper;
+    private final ProductImageMirrorService productImageMirrorService;
 
     @Override
     public List<ProductImageVO> searchProductImages(String searchType, String keyword) {
         log.info("상품 이미지 검색 - searchType: {}, keyword: {}", searchType, keyword);
-        return productImageMapper.searchProductImages(searchType, keyword);
+        List<ProductImageVO> productImages = productImageMapper.searchProductImages(searchType, keyword);
+        productImages.forEach(this::applyLocalUrls);
+        return productImages;
     }
 
     @Override
@@ -29,4 +34,32 @@ public class ProductImageServiceImpl implements ProductImageService {
         log.info("상품 이미지 개수 조회 - searchType: {}, keyword: {}", searchType, keyword);
         return productImageMapper.countProductImages(searchType, keyword);
     }
+
+    @Override
+    public List<ProductImageVO> getProductImagesBySeqs(List<Integer> seqs) {
+        if (seqs == null || seqs.isEmpty()) {
+            return List.of();
+        }
+        List<ProductImageVO> productImages = productImageMapper.selectProductImagesBySeqs(seqs);
+        productImages.forEach(this::applyLocalUrls);
+        return productImages;
+    }
+
+    /**
+     * 미러링된 이미지는 로컬 URL 로 교체 (없으면 외부 URL 그대로)
+     */
+    private void applyLocalUrls(ProductImageVO productImage) {
+        String mUrl = productImageMirrorService.getLocalUrl(productImage.getMstrPrdtMUrl());
+        if (mUrl != null) {
+            productImage.setMstrPrdtMUrl(mUrl);
+        }
+        String pUrl = productImageMirrorService.getLocalUrl(productImage.getMstrPrdtPUrl());
+        if (pUrl != null) {
+            productImage.setMstrPrdtPUrl(pUrl);
+        }
+        String wUrl = productImageMirrorService.getLocalUrl(productImage.getMstrPrdtWUrl());
+        if (wUrl != null) {
+            productImage.setMstrPrdtWUrl(wUrl);
+        }
+    }
 }
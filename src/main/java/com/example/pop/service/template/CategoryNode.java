@@ -0,0 +1,13 @@
+package com.example.pop.service.template;
+
+import java.util.List;
+
+/**
+ * 카테고리 트리 노드 (대 → 중 → 소 → 세)
+ *
+ * @param name     카테고리 이름 (최상위 노드는 null)
+ * @param count    이 카테고리에 속한 템플릿 수 (하위 카테고리가 없는 템플릿 포함)
+ * @param children 하위 카테고리 (이름순)
+ */
+public record CategoryNode(String name, int count, List<CategoryNode> children) {
+}
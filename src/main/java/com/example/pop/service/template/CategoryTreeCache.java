@@ -0,0 +1,73 @@
+package com.example.pop.service.template;
+
+import com.example.pop.config.TemplateCacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * 카테고리 트리 메모리 캐시
+ *
+ * 범위(공통 / 마트) + 레이아웃별 트리를 해당 범위에 템플릿 등록 / 삭제가 있을 때까지 재사용한다.
+ * - 공통 템플릿이 바뀌면 공통 트리만, 마트 템플릿이 바뀌면 그 마트의 트리만 제거
+ * - 조회 시작 후 제거가 있었으면 조회 결과는 저장하지 않음 (CommonTemplateCache 와 동일)
+ */
+@Slf4j
+@Service
+public class CategoryTreeCache {
+
+    /**
+     * @param martCd 마트 코드 (공통 템플릿 트리는 null)
+     */
+    private record Key(String martCd, String layoutType) {
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, CategoryNode> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long generation;
+
+    public CategoryTreeCache(TemplateCacheConfig templateCacheConfig) {
+        this.maxEntries = Math.max(0, templateCacheConfig.getCategoryTreeMaxEntries());
+    }
+
+    /**
+     * DB 조회 전에 가져와서 put 에 넘김
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized CategoryNode get(String martCd, String layoutType) {
+        return entries.get(new Key(martCd, normalize(layoutType)));
+    }
+
+    public synchronized void put(String martCd, String layoutType, CategoryNode tree, long readGeneration) {
+        if (maxEntries == 0 || readGeneration != generation) {
+            return;
+        }
+        entries.put(new Key(martCd, normalize(layoutType)), tree);
+
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 템플릿 등록 / 삭제 후 (커밋 후) 호출
+     * @param martCd 마트 코드 (공통 템플릿이면 null)
+     */
+    public synchronized void evict(String martCd) {
+        generation++;
+        entries.keySet().removeIf(key -> Objects.equals(key.martCd(), martCd));
+        log.debug("카테고리 트리 캐시 제거: {}", martCd == null ? "공통" : martCd);
+    }
+
+    private static String normalize(String layoutType) {
+        return (layoutType == null || layoutType.isEmpty()) ? null : layoutType;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.pop.service.template;
+
+import com.example.pop.config.TemplateCacheConfig;
+import com.example.pop.vo.PopTemplateVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * 공통 템플릿 조회 메모리 캐시 (목록 / 개수 / 카테고리)
+ *
+ * 공통 템플릿은 모든 마트에 같고, 관리자의 등록 / 삭제 때만 바뀐다.
+ * - 키: 조회 종류 + 필터(레이아웃, 카테고리 대/중/소/세) + 페이지 위치
+ * - 등록 / 삭제 시 해당 템플릿이 포함될 수 있는 필터의 항목만 제거
+ *   (page 기준 목록은 뒤 페이지가 밀리므로 같은 필터 전체, cursor 목록은 영향 받는 페이지만)
+ * - 조회 시작 후 제거가 있었으면 조회 결과는 저장하지 않음 (커밋 전 예전 데이터가 다시 캐시되는 것 방지)
+ * 목록은 DB 조회 결과만 저장하고, 파생 이미지 URL 처럼 나중에 바뀌는 값은 조회마다 채운다.
+ */
+@Slf4j
+@Service
+public class CommonTemplateCache {
+
+    private enum Kind { PAGE, CURSOR, COUNT, CATEGORIES }
+
+    /**
+     * 목록 필터 (빈 값은 null 로 통일)
+     */
+    public record Filter(String layoutType, String ctgyBig, String ctgyMid, String ctgySml, String ctgySub) {
+
+        public static Filter of(String layoutType, String ctgyBig, String ctgyMid, String ctgySml, String ctgySub) {
+            return new Filter(normalize(layoutType), normalize(ctgyBig), normalize(ctgyMid),
+                    normalize(ctgySml), normalize(ctgySub));
+        }
+
+        /**
+         * 템플릿이 이 필터의 조회 결과에 포함되는지
+         */
+        boolean matches(PopTemplateVO template) {
+            return matches(layoutType, template.getLayoutType())
+                    && matches(ctgyBig, template.getTplCtgyBig())
+                    && matches(ctgyMid, template.getTplCtgyMid())
+                    && matches(ctgySml, template.getTplCtgySml())
+                    && matches(ctgySub, template.getTplCtgySub());
+        }
+
+        private static boolean matches(String condition, String value) {
+            return condition == null || condition.equals(value);
+        }
+
+        private static String normalize(String value) {
+            return (value == null || value.isEmpty()) ? null : value;
+        }
+    }
+
+    /**
+     * @param position page 목록은 offset, cursor 목록은 기준 tpl_seq (첫 페이지는 null)
+     */
+    private record Key(Kind kind, Filter filter, Long position, int size) {
+    }
+
+    private static final Key CATEGORIES_KEY = new Key(Kind.CATEGORIES, null, null, 0);
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    /** 제거할 때마다 증가 (조회 시작 시점 값과 다르면 저장하지 않음) */
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public CommonTemplateCache(TemplateCacheConfig templateCacheConfig) {
+        this.maxEntries = Math.max(0, templateCacheConfig.getCommonMaxEntries());
+    }
+
+    /**
+     * DB 조회 전에 가져와서 put 에 넘김
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public List<PopTemplateVO> getPage(Filter filter, int offset, int size) {
+        return get(new Key(Kind.PAGE, filter, (long) offset, size));
+    }
+
+    public void putPage(Filter filter, int offset, int size, List<PopTemplateVO> templates, long generation) {
+        put(new Key(Kind.PAGE, filter, (long) offset, size), List.copyOf(templates), generation);
+    }
+
+    public List<PopTemplateVO> getCursorPage(Filter filter, Long cursor, int size) {
+        return get(new Key(Kind.CURSOR, filter, cursor, size));
+    }
+
+    public void putCursorPage(Filter filter, Long cursor, int size, List<PopTemplateVO> templates, long generation) {
+        put(new Key(Kind.CURSOR, filter, cursor, size), List.copyOf(templates), generation);
+    }
+
+    public Integer getCount(Filter filter) {
+        return get(new Key(Kind.COUNT, filter, null, 0));
+    }
+
+    public void putCount(Filter filter, int count, long generation) {
+        put(new Key(Kind.COUNT, filter, null, 0), count, generation);
+    }
+
+    public List<String> getCategories() {
+        return get(CATEGORIES_KEY);
+    }
+
+    public void putCategories(List<String> categories, long generation) {
+        put(CATEGORIES_KEY, List.copyOf(categories), generation);
+    }
+
+    /**
+     * 공통 템플릿 등록 후 (커밋 후) 호출
+     * 새 템플릿은 tpl_seq 가 가장 크므로 cursor 목록은 첫 페이지에만 들어간다.
+     */
+    public synchronized void onInserted(PopTemplateVO template) {
+        generation++;
+        // 카테고리 목록은 새 대분류가 생길 때만 제거
+        boolean newCategory = !containsCategory(template.getTplCtgyBig());
+        int removed = removeIf(key -> switch (key.kind()) {
+            case PAGE, COUNT -> key.filter().matches(template);
+            case CURSOR -> key.position() == null && key.filter().matches(template);
+            case CATEGORIES -> newCategory;
+        });
+        log.debug("공통 템플릿 캐시 제거 (등록): tplSeq={}, {}건", template.getTplSeq(), removed);
+    }
+
+    /**
+     * 공통 템플릿 삭제 후 (커밋 후) 호출
+     * cursor 목록은 기준 tpl_seq 가 삭제된 템플릿보다 큰 페이지(삭제된 행을 포함할 수 있는 페이지)만 제거
+     */
+    public synchronized void onDeleted(PopTemplateVO template) {
+        generation++;
+        Long tplSeq = template.getTplSeq();
+        int removed = removeIf(key -> switch (key.kind()) {
+            case PAGE, COUNT -> key.filter().matches(template);
+            case CURSOR -> (key.position() == null || key.position() > tplSeq) && key.filter().matches(template);
+            case CATEGORIES -> template.getTplCtgyBig() != null && !template.getTplCtgyBig().isEmpty();
+        });
+        log.debug("공통 템플릿 캐시 제거 (삭제): tplSeq={}, {}건", tplSeq, removed);
+    }
+
+    /**
+     * 전체 제거 (배경 이미지 정보 보충 등 여러 템플릿이 한꺼번에 바뀐 후 호출)
+     */
+    public synchronized void clear() {
+        generation++;
+        int removed = removeIf(key -> true);
+        log.debug("공통 템플릿 캐시 전체 제거: {}건", removed);
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        long requests = hits + misses;
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hits / requests);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T get(Key key) {
+        Object value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return (T) value;
+    }
+
+    private synchronized void put(Key key, Object value, long readGeneration) {
+        if (maxEntries == 0 || readGeneration != generation) {
+            return;
+        }
+        entries.put(key, value);
+
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private int removeIf(Predicate<Key> predicate) {
+        int removed = 0;
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    private boolean containsCategory(String ctgyBig) {
+        if (ctgyBig == null || ctgyBig.isEmpty()) {
+            return true;
+        }
+        List<?> categories = (List<?>) entries.get(CATEGORIES_KEY);
+        return categories != null && categories.stream().anyMatch(c -> Objects.equals(c, ctgyBig));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.pop.service.template;
+
+import com.example.pop.config.TemplateCacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 마트 템플릿 개수 메모리 캐시
+ *
+ * 페이지를 넘길 때마다 같은 필터로 COUNT(*) 를 다시 실행하지 않도록 마트 + 필터별 개수를 유효 시간(template.cache.count-ttl-seconds) 동안 재사용한다.
+ * - 그 마트의 템플릿이 등록 / 삭제되면 해당 마트 항목만 제거
+ * - 조회 시작 후 제거가 있었으면 조회 결과는 저장하지 않음 (CommonTemplateCache 와 동일)
+ * (공통 템플릿 개수는 CommonTemplateCache 에서 캐시)
+ */
+@Slf4j
+@Service
+public class TemplateCountCache {
+
+    private record Key(String martCd, CommonTemplateCache.Filter filter) {
+    }
+
+    private record Entry(int count, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long generation;
+
+    public TemplateCountCache(TemplateCacheConfig templateCacheConfig) {
+        this.maxEntries = Math.max(0, templateCacheConfig.getCountMaxEntries());
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(templateCacheConfig.getCountTtlSeconds());
+    }
+
+    /**
+     * DB 조회 전에 가져와서 put 에 넘김
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @return 개수 (없거나 유효 시간이 지났으면 null)
+     */
+    public synchronized Integer get(String martCd, CommonTemplateCache.Filter filter) {
+        Key key = new Key(martCd, filter);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.count();
+    }
+
+    public synchronized void put(String martCd, CommonTemplateCache.Filter filter, int count, long readGeneration) {
+        if (maxEntries == 0 || ttlMillis <= 0 || readGeneration != generation) {
+            return;
+        }
+        entries.put(new Key(martCd, filter), new Entry(count, System.currentTimeMillis() + ttlMillis));
+
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 마트 템플릿 등록 / 삭제 후 (커밋 후) 호출
+     */
+    public synchronized void evict(String martCd) {
+        generation++;
+        entries.keySet().removeIf(key -> key.martCd().equals(martCd));
+        log.debug("마트 템플릿 개수 캐시 제거: {}", martCd);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.pop.service.template;
+
+import com.example.pop.config.TemplateCacheConfig;
+import com.example.pop.vo.PopTemplateVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 템플릿 상세 메모리 캐시
+ *
+ * 템플릿 내용(tpl_json)은 등록 후 바뀌지 않고 삭제만 되므로, 삭제 시 제거하는 것만으로 항상 최신 상태를 유지한다.
+ * (복제본은 원본 삭제 시 같은 내용으로 채워지므로 조회 결과가 달라지지 않음)
+ * - tplSeq → 상세 VO (LinkedHashMap access-order 기반 LRU)
+ * - 용량은 항목 수가 아니라 tpl_json 크기 합계로 제한 (template.cache.detail-max-kb)
+ * - 조회 시작 후 제거가 있었으면 조회 결과는 저장하지 않음 (CommonTemplateCache 와 동일, 삭제 직전에 읽은 행이 다시 캐시되지 않도록)
+ * - 저장된 VO 는 여러 요청이 공유하므로 호출하는 쪽에서 복사본을 내려줌
+ */
+@Slf4j
+@Service
+public class TemplateDetailCache {
+
+    /** 항목당 기본 크기 (tpl_json 외 컬럼 + 맵 항목) */
+    private static final long ENTRY_OVERHEAD_BYTES = 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Long, PopTemplateVO> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private long generation;
+
+    public TemplateDetailCache(TemplateCacheConfig templateCacheConfig) {
+        this.maxBytes = Math.max(0, templateCacheConfig.getDetailMaxKb()) * 1024;
+    }
+
+    /**
+     * DB 조회 전에 가져와서 put 에 넘김
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized PopTemplateVO get(Long tplSeq) {
+        return entries.get(tplSeq);
+    }
+
+    public synchronized void put(PopTemplateVO template, long readGeneration) {
+        if (readGeneration != generation) {
+            return;
+        }
+        long size = sizeOf(template);
+        if (size > maxBytes) {
+            // 캐시 전체보다 큰 템플릿은 저장하지 않음
+            return;
+        }
+        PopTemplateVO previous = entries.put(template.getTplSeq(), template);
+        if (previous != null) {
+            totalBytes -= sizeOf(previous);
+        }
+        totalBytes += size;
+        evictIfNeeded();
+    }
+
+    public synchronized void evict(Long tplSeq) {
+        generation++;
+        PopTemplateVO removed = entries.remove(tplSeq);
+        if (removed != null) {
+            totalBytes -= sizeOf(removed);
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, PopTemplateVO>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Long, PopTemplateVO> eldest = iterator.next();
+            totalBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+            log.debug("템플릿 상세 캐시 제거 (LRU): tplSeq={}", eldest.getKey());
+        }
+    }
+
+    private static long sizeOf(PopTemplateVO template) {
+        String tplJson = template.getTplJson();
+        // 문자열은 최대 2바이트/문자
+        return ENTRY_OVERHEAD_BYTES + (tplJson == null ? 0 : tplJson.length() * 2L);
+    }
+}
@@ -4,6 +4,8 @@ import com.example.pop.vo.MartIpVO;
 import com.example.pop.vo.PopTemplateVO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +24,41 @@ public interface TemplateService {
             int size
     );
 
+    /**
+     * 공통 템플릿 조회 + 전체 개수 (개수는 필터별 캐시)
+     * @return templates, totalCount
+     */
+    Map<String, Object> getCommonTemplatePage(
+            String layoutType,
+            String ctgyBig,
+            String ctgyMid,
+            String ctgySml,
+            String ctgySub,
+            int page,
+            int size
+    );
+
+    /**
+     * 공통 템플릿 조회 - 키셋 페이징
+     * @param cursor 이전 응답의 nextCursor (첫 페이지는 null 또는 빈 값)
+     * @return templates, nextCursor (마지막 페이지면 null)
+     */
+    Map<String, Object> getCommonTemplatesByCursor(
+            String layoutType,
+            String ctgyBig,
+            String ctgyMid,
+            String ctgySml,
+            String ctgySub,
+            String cursor,
+            int size
+    );
+
+
+    /**
+     * 템플릿 상세 조회 (편집 데이터 tpl_json 포함)
+     * 공통 템플릿 또는 자기 마트 템플릿만 조회 가능
+     */
+    PopTemplateVO getTemplateDetail(Long tplSeq, MartIpVO user);
 
     /**
      * 공통 템플릿 전체 개수
@@ -48,6 +85,37 @@ public interface TemplateService {
             int size
     );
 
+    /**
+     * 우리 마트 템플릿 조회 + 전체 개수 (개수는 필터별 캐시)
+     * @return templates, totalCount
+     */
+    Map<String, Object> getMyTemplatePage(
+            String martCd,
+            String layoutType,
+            String ctgyBig,
+            String ctgyMid,
+            String ctgySml,
+            String ctgySub,
+            int page,
+            int size
+    );
+
+    /**
+     * 우리 마트 템플릿 조회 - 키셋 페이징
+     * @param cursor 이전 응답의 nextCursor (첫 페이지는 null 또는 빈 값)
+     * @return templates, nextCursor (마지막 페이지면 null)
+     */
+    Map<String, Object> getMyTemplatesByCursor(
+            String martCd,
+            String layoutType,
+            String ctgyBig,
+            String ctgyMid,
+            String ctgySml,
+            String ctgySub,
+            String cursor,
+            int size
+    );
+
     /**
      * 우리 마트 템플릿 전체 개수
      */
@@ -64,6 +132,8 @@ public interface TemplateService {
 
     /**
      * 공통 템플릿 등록 (관리자 전용)
+     * 파일마다 따로 처리하여 저장에 성공한 파일만 등록
+     * @return success, message, totalFiles, successCount, failedCount, failures (index, fileName, message)
      */
     Map<String, Object> createCommonTemplates(
             String templateName,
@@ -75,6 +145,15 @@ public interface TemplateService {
             MartIpVO user
     );
 
+    /**
+     * 공통 템플릿 등록 - multipart 요청 본문을 스트리밍으로 읽어 처리 (관리자 전용)
+     */
+    Map<String, Object> createCommonTemplatesStreaming(
+            String contentType,
+            InputStream body,
+            MartIpVO user
+    ) throws IOException;
+
     /**
      * 우리 매장 템플릿 저장
      */
@@ -91,6 +170,16 @@ public interface TemplateService {
         MartIpVO user
     );
 
+    /**
+     * 템플릿을 우리 매장 템플릿으로 복제 (파일 / 편집 데이터는 복사하지 않고 원본 참조)
+     */
+    Map<String, Object> cloneTemplate(
+        Long tplSeq,
+        String tplNm,
+        String tplCtgyBig,
+        MartIpVO user
+    );
+
     /**
      * 세션에서 사용자 정보 확인 및 검증
      */
@@ -111,6 +200,19 @@ public interface TemplateService {
      */
     List<String> getDistinctCategoriesByMartCd(String martCd);
 
+    /**
+     * 카테고리 트리 (대 → 중 → 소 → 세, 노드별 템플릿 수)
+     * @param martCd     마트 코드 (null 이면 공통 템플릿)
+     * @param layoutType 레이아웃 필터 (없으면 전체)
+     * @return 최상위 노드 (count 는 전체 템플릿 수, children 이 대분류 목록)
+     */
+    CategoryNode getCategoryTree(String martCd, String layoutType);
+
+    /**
+     * 공통 템플릿 조회 캐시 현황 (항목 수, 적중 / 실패 / 제거 횟수)
+     */
+    Map<String, Object> getCacheStats();
+
     /**
      * 템플릿 삭제 (a4 관리자만 가능)
      */
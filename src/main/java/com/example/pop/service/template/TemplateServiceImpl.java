@@ -1,20 +1,44 @@
 package com.example.pop.service.template;
 
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.exception.FileUploadException;
 import com.example.pop.exception.ForbiddenException;
 import com.example.pop.exception.InvalidRequestException;
 import com.example.pop.exception.UnauthorizedException;
 import com.example.pop.mapper.PopTemplateMapper;
+import com.example.pop.service.file.ChunkedUploadService;
+import com.example.pop.service.file.ImageDerivativeService;
+import com.example.pop.service.file.MultipartStreamReader;
+import com.example.pop.service.file.StoredFile;
+import com.example.pop.service.image.ImageMetadata;
+import com.example.pop.service.image.ImageMetadataReader;
 import com.example.pop.vo.MartIpVO;
 import com.example.pop.vo.PopTemplateVO;
+import com.example.pop.vo.TemplateCategoryCountVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
@@ -23,6 +47,21 @@ public class TemplateServiceImpl implements TemplateService {
 
     private final PopTemplateMapper popTemplateMapper;
     private final com.example.pop.service.file.FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final FileUploadConfig fileUploadConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ChunkedUploadService chunkedUploadService;
+    private final ImageMetadataReader imageMetadataReader;
+    private final TemplateDetailCache templateDetailCache;
+    private final CommonTemplateCache commonTemplateCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final TemplateCountCache templateCountCache;
+
+    /** 키셋 페이징 cursor 형식 버전 */
+    private static final String CURSOR_PREFIX = "s1:";
+
+    /** 다중 행 INSERT 한 문장에 넣는 최대 건수 (tpl_json 이 크면 패킷 크기 제한에 걸리지 않도록) */
+    private static final int INSERT_BATCH_SIZE = 100;
 
     private int calcOffset(int page, int size) {
         int safePage = (page <= 0) ? 1 : page;
@@ -46,15 +85,42 @@ public class TemplateServiceImpl implements TemplateService {
         int offset = calcOffset(page, size);
         int pageSize = calcPageSize(size);
 
-        return popTemplateMapper.selectCommonTemplates(
-                layoutType,
-                ctgyBig,
-                ctgyMid,
-                ctgySml,
-                ctgySub,
-                offset,
-                pageSize
-        );
+        CommonTemplateCache.Filter filter = CommonTemplateCache.Filter.of(layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub);
+        long generation = commonTemplateCache.generation();
+        List<PopTemplateVO> templates = commonTemplateCache.getPage(filter, offset, pageSize);
+        if (templates == null) {
+            templates = popTemplateMapper.selectCommonTemplates(
+                    layoutType,
+                    ctgyBig,
+                    ctgyMid,
+                    ctgySml,
+                    ctgySub,
+                    null,
+                    offset,
+                    pageSize
+            );
+            applyDerivatives(templates); // 파생본 목록도 함께 캐시
+            commonTemplateCache.putPage(filter, offset, pageSize, templates, generation);
+        }
+
+        templates = copyTemplates(templates);
+        applyDerivatives(templates); // 캐시한 뒤 생성된 파생본만 보충
+        return templates;
+    }
+
+    @Override
+    public Map<String, Object> getCommonTemplatePage(String layoutType,
+                                                     String ctgyBig,
+                                                     String ctgyMid,
+                                                     String ctgySml,
+                                                     String ctgySub,
+                                                     int page,
+                                                     int size) {
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("templates", getCommonTemplates(layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size));
+        result.put("totalCount", getCommonTemplateCount(layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub));
+        return result;
     }
 
     @Override
@@ -64,13 +130,20 @@ public class TemplateServiceImpl implements TemplateService {
                                       String ctgySml,
                                       String ctgySub) {
 
-        return popTemplateMapper.countCommonTemplates(
-                layoutType,
-                ctgyBig,
-                ctgyMid,
-                ctgySml,
-                ctgySub
-        );
+        CommonTemplateCache.Filter filter = CommonTemplateCache.Filter.of(layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub);
+        long generation = commonTemplateCache.generation();
+        Integer count = commonTemplateCache.getCount(filter);
+        if (count == null) {
+            count = popTemplateMapper.countCommonTemplates(
+                    layoutType,
+                    ctgyBig,
+                    ctgyMid,
+                    ctgySml,
+                    ctgySub
+            );
+            commonTemplateCache.putCount(filter, count, generation);
+        }
+        return count;
     }
 
     @Override
@@ -86,40 +159,280 @@ public class TemplateServiceImpl implements TemplateService {
         int offset = calcOffset(page, size);
         int pageSize = calcPageSize(size);
 
-        return popTemplateMapper.selectMyTemplates(
+        List<PopTemplateVO> templates = popTemplateMapper.selectMyTemplates(
                 martCd,
                 layoutType,
                 ctgyBig,
                 ctgyMid,
                 ctgySml,
                 ctgySub,
+                null,
                 offset,
                 pageSize
         );
+        applyDerivatives(templates);
+        return templates;
     }
 
     @Override
-    public int getMyTemplateCount(String martCd,
-                                  String layoutType,
-                                  String ctgyBig,
-                                  String ctgyMid,
-                                  String ctgySml,
-                                  String ctgySub) {
+    public Map<String, Object> getMyTemplatePage(String martCd,
+                                                 String layoutType,
+                                                 String ctgyBig,
+                                                 String ctgyMid,
+                                                 String ctgySml,
+                                                 String ctgySub,
+                                                 int page,
+                                                 int size) {
 
-        return popTemplateMapper.countMyTemplates(
+        Map<String, Object> result = new HashMap<>();
+        result.put("templates", getMyTemplates(martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub, page, size));
+        result.put("totalCount", getMyTemplateCount(martCd, layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub));
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getCommonTemplatesByCursor(String layoutType,
+                                                          String ctgyBig,
+                                                          String ctgyMid,
+                                                          String ctgySml,
+                                                          String ctgySub,
+                                                          String cursor,
+                                                          int size) {
+
+        int pageSize = calcPageSize(size);
+        Long cursorSeq = decodeCursor(cursor);
+
+        CommonTemplateCache.Filter filter = CommonTemplateCache.Filter.of(layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub);
+        long generation = commonTemplateCache.generation();
+        List<PopTemplateVO> templates = commonTemplateCache.getCursorPage(filter, cursorSeq, pageSize);
+        if (templates == null) {
+            // 다음 페이지 존재 여부 확인용으로 1건 더 조회
+            templates = popTemplateMapper.selectCommonTemplates(
+                    layoutType,
+                    ctgyBig,
+                    ctgyMid,
+                    ctgySml,
+                    ctgySub,
+                    cursorSeq,
+                    0,
+                    pageSize + 1
+            );
+            applyDerivatives(templates); // 파생본 목록도 함께 캐시
+            commonTemplateCache.putCursorPage(filter, cursorSeq, pageSize, templates, generation);
+        }
+        return toCursorPage(copyTemplates(templates), pageSize);
+    }
+
+    @Override
+    public Map<String, Object> getMyTemplatesByCursor(String martCd,
+                                                      String layoutType,
+                                                      String ctgyBig,
+                                                      String ctgyMid,
+                                                      String ctgySml,
+                                                      String ctgySub,
+                                                      String cursor,
+                                                      int size) {
+
+        int pageSize = calcPageSize(size);
+
+        Long cursorSeq = decodeCursor(cursor);
+
+        List<PopTemplateVO> templates = popTemplateMapper.selectMyTemplates(
                 martCd,
                 layoutType,
                 ctgyBig,
                 ctgyMid,
                 ctgySml,
-                ctgySub
+                ctgySub,
+                cursorSeq,
+                0,
+                pageSize + 1
         );
+        return toCursorPage(templates, pageSize);
+    }
+
+    private Map<String, Object> toCursorPage(List<PopTemplateVO> templates, int pageSize) {
+        String nextCursor = null;
+        if (templates.size() > pageSize) {
+            templates = new ArrayList<>(templates.subList(0, pageSize));
+            nextCursor = encodeCursor(templates.get(pageSize - 1).getTplSeq());
+        }
+        applyDerivatives(templates);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("templates", templates);
+        result.put("nextCursor", nextCursor);
+        return result;
+    }
+
+    /**
+     * 페이지 위치 → 불투명 cursor 문자열 (클라이언트는 값을 해석하지 않고 그대로 돌려줌)
+     */
+    static String encodeCursor(Long tplSeq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + tplSeq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * cursor 문자열 → 기준 tpl_seq (첫 페이지면 null)
+     */
+    static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // 아래에서 처리
+        }
+        throw new InvalidRequestException("잘못된 cursor 입니다.");
+    }
+
+    @Override
+    public PopTemplateVO getTemplateDetail(Long tplSeq, MartIpVO user) {
+        validateUser(user);
+
+        long generation = templateDetailCache.generation();
+        PopTemplateVO template = templateDetailCache.get(tplSeq);
+        if (template == null) {
+            template = popTemplateMapper.selectTemplateDetail(tplSeq);
+            if (template == null) {
+                throw new com.example.pop.exception.ResourceNotFoundException(
+                    "템플릿을 찾을 수 없습니다. (tplSeq: " + tplSeq + ")"
+                );
+            }
+            templateDetailCache.put(template, generation);
+        }
+
+        // 권한 검증은 캐시 여부와 관계없이 매번 (공통 템플릿 또는 자기 마트 템플릿만)
+        if (!"Y".equalsIgnoreCase(template.getIsCommon()) && !user.getId().equals(template.getMartCd())) {
+            throw new ForbiddenException("다른 마트의 템플릿은 조회할 수 없습니다.");
+        }
+        // 캐시된 VO 는 여러 요청이 공유하므로 복사본 반환
+        return copyTemplate(template);
+    }
+
+    /**
+     * 업로드 파일의 이미지 헤더 정보 (파일이 없거나 이미지가 아니면 null)
+     */
+    private ImageMetadata readImageMetadata(String fileUrl) {
+        Path file = fileStorageService.resolvePath(fileUrl);
+        return file != null && Files.isRegularFile(file) ? imageMetadataReader.read(file) : null;
+    }
+
+    private void setImageMetadata(PopTemplateVO vo, ImageMetadata metadata) {
+        if (metadata == null) {
+            return;
+        }
+        vo.setBgImgWidth(metadata.width());
+        vo.setBgImgHeight(metadata.height());
+        vo.setBgImgFormat(metadata.format());
+        vo.setBgImgOrientation(metadata.orientation());
+    }
+
+    /**
+     * 캐시에 저장된 목록은 여러 요청이 공유하므로 복사본에 요청별 값(캐시한 뒤 생성된 파생본 URL 등)을 채움
+     */
+    private List<PopTemplateVO> copyTemplates(List<PopTemplateVO> templates) {
+        List<PopTemplateVO> copies = new ArrayList<>(templates.size());
+        for (PopTemplateVO template : templates) {
+            copies.add(copyTemplate(template));
+        }
+        return copies;
+    }
+
+    private PopTemplateVO copyTemplate(PopTemplateVO template) {
+        PopTemplateVO copy = new PopTemplateVO();
+        BeanUtils.copyProperties(template, copy);
+        return copy;
+    }
+
+    /**
+     * 목록 표시 이미지(썸네일, 없으면 배경)의 파생본 URL 설정
+     * 생성 시 기록된 색인만 조회한다. (파일 확인 / 생성 요청 없음, 이미 채워진 행은 건너뜀)
+     */
+    private void applyDerivatives(List<PopTemplateVO> templates) {
+        for (PopTemplateVO template : templates) {
+            if (template.getDerivatives() != null) {
+                continue;
+            }
+            String displayUrl = (template.getThumbnailUrl() != null && !template.getThumbnailUrl().isBlank())
+                    ? template.getThumbnailUrl()
+                    : template.getBgImgUrl();
+            Map<String, String> derivatives = imageDerivativeService.getDerivatives(displayUrl);
+            if (!derivatives.isEmpty()) {
+                template.setDerivatives(derivatives);
+                template.setSrcset(imageDerivativeService.toSrcset(derivatives));
+            }
+        }
+    }
+
+    @Override
+    public int getMyTemplateCount(String martCd,
+                                  String layoutType,
+                                  String ctgyBig,
+                                  String ctgyMid,
+                                  String ctgySml,
+                                  String ctgySub) {
+
+        CommonTemplateCache.Filter filter = CommonTemplateCache.Filter.of(layoutType, ctgyBig, ctgyMid, ctgySml, ctgySub);
+        long generation = templateCountCache.generation();
+        Integer count = templateCountCache.get(martCd, filter);
+        if (count == null) {
+            count = popTemplateMapper.countMyTemplates(
+                    martCd,
+                    layoutType,
+                    ctgyBig,
+                    ctgyMid,
+                    ctgySml,
+                    ctgySub
+            );
+            templateCountCache.put(martCd, filter, count, generation);
+        }
+        return count;
     }
 
 
     @Override
     @Transactional
     public int createTemplate(PopTemplateVO vo) {
+        return insertTemplate(vo);
+    }
+
+    /**
+     * 템플릿 1건 등록 (호출하는 쪽 트랜잭션 안에서, 트랜잭션이 없으면 INSERT 한 문장으로 바로 커밋)
+     */
+    private int insertTemplate(PopTemplateVO vo) {
+        prepareTemplate(vo);
+
+        int inserted = popTemplateMapper.insertTemplate(vo);
+        if (inserted > 0) {
+            onTemplateInserted(vo);
+        }
+        return inserted;
+    }
+
+    /**
+     * 템플릿 여러 건 등록 (INSERT_BATCH_SIZE 건씩 다중 행 INSERT, 호출하는 쪽 트랜잭션 안에서 실행)
+     * 건마다 INSERT 를 보내지 않으므로 대량 등록 시 왕복 횟수와 잠금 유지 시간이 줄어든다.
+     * @return 등록 건수
+     */
+    private int createTemplates(List<PopTemplateVO> templates) {
+        templates.forEach(this::prepareTemplate);
+
+        int inserted = 0;
+        for (int from = 0; from < templates.size(); from += INSERT_BATCH_SIZE) {
+            List<PopTemplateVO> batch = templates.subList(from, Math.min(from + INSERT_BATCH_SIZE, templates.size()));
+            inserted += popTemplateMapper.insertTemplates(batch);
+        }
+        templates.forEach(this::onTemplateInserted);
+        return inserted;
+    }
+
+    private void prepareTemplate(PopTemplateVO vo) {
         //  커스텀 예외로 변경
         if (vo.getTplNm() == null || vo.getTplNm().isBlank()) {
             throw new InvalidRequestException("템플릿 이름은 필수입니다.");
@@ -133,8 +446,34 @@ public class TemplateServiceImpl implements TemplateService {
         if (vo.getTplCommon() == null || vo.getTplCommon().isBlank()) {
             vo.setTplCommon("001");
         }
+    }
 
-        return popTemplateMapper.insertTemplate(vo);
+    /**
+     * 등록된 템플릿이 포함될 수 있는 캐시 제거 (커밋 후)
+     */
+    private void onTemplateInserted(PopTemplateVO vo) {
+        boolean common = "Y".equalsIgnoreCase(vo.getIsCommon());
+        runAfterCommit(() -> categoryTreeCache.evict(common ? null : vo.getMartCd()));
+        if (common) {
+            runAfterCommit(() -> commonTemplateCache.onInserted(vo));
+        } else {
+            runAfterCommit(() -> templateCountCache.evict(vo.getMartCd()));
+        }
+    }
+
+    /**
+     * 삭제된 템플릿이 포함될 수 있는 캐시 제거 (커밋 후)
+     */
+    private void onTemplateDeleted(PopTemplateVO template) {
+        boolean common = "Y".equalsIgnoreCase(template.getIsCommon());
+        Long tplSeq = template.getTplSeq();
+        runAfterCommit(() -> templateDetailCache.evict(tplSeq));
+        runAfterCommit(() -> categoryTreeCache.evict(common ? null : template.getMartCd()));
+        if (common) {
+            runAfterCommit(() -> commonTemplateCache.onDeleted(template));
+        } else {
+            runAfterCommit(() -> templateCountCache.evict(template.getMartCd()));
+        }
     }
 
     @Override
@@ -153,8 +492,12 @@ public class TemplateServiceImpl implements TemplateService {
         }
     }
 
+    /**
+     * 파일은 스레드 풀에서 병렬로 검증 / 저장하고, 저장에 성공한 파일만 마지막에 짧은 트랜잭션 하나로 등록한다.
+     * (파일 처리 동안 DB 커넥션을 잡고 있지 않음, 실패한 파일은 failures 에 사유와 함께 보고)
+     * 등록이 실패하면 이번 요청이 저장한 파일 중 참조가 없는 파일은 바로 지운다.
+     */
     @Override
-    @Transactional
     public Map<String, Object> createCommonTemplates(
             String templateName,
             String layoutType,
@@ -171,50 +514,207 @@ public class TemplateServiceImpl implements TemplateService {
         if (templateImages == null || templateImages.isEmpty()) {
             throw new InvalidRequestException("템플릿 이미지 파일이 필요합니다.");
         }
+        // 파일을 저장한 뒤 등록 단계에서 거절되지 않도록 먼저 확인
+        if (layoutType == null || layoutType.isBlank()) {
+            throw new InvalidRequestException("레이아웃 타입은 필수입니다.");
+        }
 
-        int successCount = 0;
         int totalFiles = templateImages.size();
 
         // 다중 파일인 경우에만 인덱스 추가
         boolean isMultipleFiles = totalFiles > 1;
 
-        for (int i = 0; i < totalFiles; i++) {
-            MultipartFile file = templateImages.get(i);
-            
-            // 고유한 템플릿 이름 생성
-            String uniqueTemplateName = generateUniqueTemplateName(
-                    templateName, 
-                    file, 
-                    i + 1,  // 1부터 시작
-                    isMultipleFiles
-            );
+        // 파일 병렬 저장 (검증 / 해시 / 디스크 기록 / 이미지 정보)
+        List<CompletableFuture<StoredFile>> storing = fileStorageService.storeFiles(templateImages, 10); // 10MB 제한
 
-            PopTemplateVO vo = buildCommonTemplateVO(
-                    uniqueTemplateName, 
-                    layoutType, 
-                    useYn,
-                    ctgyBig,
-                    tplJson, 
-                    file
-            );
+        List<PopTemplateVO> templates = new ArrayList<>(totalFiles);
+        List<Map<String, Object>> failures = new ArrayList<>();
+        Integer inserted;
+
+        try {
+            for (int i = 0; i < totalFiles; i++) {
+                MultipartFile file = templateImages.get(i);
+
+                StoredFile stored;
+                try {
+                    stored = storing.get(i).join();
+                } catch (CompletionException e) {
+                    failures.add(toFileFailure(i, file.getOriginalFilename(), e.getCause()));
+                    continue;
+                }
+                log.info("파일 저장 완료 - 원본: {}, URL: {}", file.getOriginalFilename(), stored.getUrl());
+
+                // 고유한 템플릿 이름 생성
+                String uniqueTemplateName = generateUniqueTemplateName(
+                        templateName, 
+                        file.getOriginalFilename(), 
+                        i + 1,  // 1부터 시작
+                        isMultipleFiles
+                );
 
-            int inserted = createTemplate(vo);
-            if (inserted == 1) {
-                successCount++;
-                log.info("공통 템플릿 등록 성공: {}", uniqueTemplateName);
+                templates.add(buildCommonTemplateVO(
+                        uniqueTemplateName, 
+                        layoutType, 
+                        useYn,
+                        ctgyBig,
+                        tplJson, 
+                        stored.getUrl(),
+                        stored.getMetadata()
+                ));
             }
+
+            // 저장된 파일만 한 번에 등록
+            inserted = templates.isEmpty() ? 0 : transactionTemplate.execute(status -> createTemplates(templates));
+        } catch (RuntimeException e) {
+            // 등록하지 못했으므로 이번 요청이 저장한 파일 정리 (같은 내용을 다른 템플릿이 쓰고 있으면 유지)
+            discardStoredFiles(storing);
+            throw e;
         }
 
+        int successCount = inserted == null ? 0 : inserted;
+        templates.forEach(vo -> log.info("공통 템플릿 등록 성공: {} (tplSeq={})", vo.getTplNm(), vo.getTplSeq()));
+
+        String message = successCount + "개의 공통 템플릿이 등록되었습니다.";
+        if (!failures.isEmpty()) {
+            message += " (실패 " + failures.size() + "개: " + failures.get(0).get("fileName") + " - " + failures.get(0).get("message")
+                    + (failures.size() > 1 ? " 외" : "") + ")";
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", successCount > 0);
+        result.put("message", message);
+        result.put("totalFiles", totalFiles);
+        result.put("successCount", successCount);
+        result.put("failedCount", failures.size());
+        result.put("failures", failures);
+        return result;
+    }
+
+    /**
+     * 파일별 실패 정보 (요청 오류는 사유 그대로, 그 외는 일반 메시지)
+     */
+    private Map<String, Object> toFileFailure(int index, String fileName, Throwable cause) {
+        String message;
+        if (cause instanceof InvalidRequestException || cause instanceof FileUploadException) {
+            message = cause.getMessage();
+            log.warn("공통 템플릿 파일 처리 실패: {} - {}", fileName, message);
+        } else {
+            message = "파일 저장 중 오류가 발생했습니다.";
+            log.error("공통 템플릿 파일 처리 실패: {}", fileName, cause);
+        }
+
+        Map<String, Object> failure = new LinkedHashMap<>();
+        failure.put("index", index);
+        failure.put("fileName", fileName);
+        failure.put("message", message);
+        return failure;
+    }
+
+    /**
+     * 스트리밍 업로드로 저장된 이미지
+     */
+    private record UploadedImage(String originalFilename, String fileUrl, ImageMetadata metadata) {
+    }
+
+    /**
+     * 요청 본문을 파트 순서대로 읽으면서 이미지 파일은 바로 디스크에 기록 (파일 전체를 메모리 / 임시 저장소에 모으지 않음)
+     * 이어 올리기로 이미 올린 파일은 uploadIds 필드로 함께 등록할 수 있다.
+     * 파일 저장이 모두 끝난 뒤 INSERT 만 짧은 트랜잭션으로 처리한다.
+     * 중간에 실패하면 이 요청이 저장한 파일 중 참조가 없는 파일은 바로 지운다. (uploadIds 로 받은 파일은 이어 올리기 쪽에서 관리)
+     */
+    @Override
+    public Map<String, Object> createCommonTemplatesStreaming(
+            String contentType,
+            InputStream body,
+            MartIpVO user
+    ) throws IOException {
+        // 권한 검증 (본문을 읽기 전에 거절)
+        validateAdminUser(user);
+
+        MultipartStreamReader reader = new MultipartStreamReader(body, MultipartStreamReader.extractBoundary(contentType));
+        Map<String, String> fields = new HashMap<>();
+        List<UploadedImage> storedFiles = new ArrayList<>();
+        List<String> storedUrls = new ArrayList<>(); // 이 요청이 직접 저장한 파일
+        List<PopTemplateVO> templates;
+        int totalFiles;
+        Integer successCount;
+
+        try {
+            MultipartStreamReader.Part part;
+            while ((part = reader.nextPart()) != null) {
+                if (!part.isFile()) {
+                    String value = MultipartStreamReader.readField(part, fileUploadConfig.getStreamMaxFieldSize());
+                    if ("uploadIds".equals(part.name())) {
+                        // 이어 올리기로 미리 올려 둔 파일
+                        ChunkedUploadService.CompletedUpload upload = chunkedUploadService.getCompleted(user.getId(), value.trim());
+                        storedFiles.add(new UploadedImage(upload.originalFilename(), upload.fileUrl(), upload.metadata()));
+                    } else {
+                        fields.put(part.name(), value);
+                    }
+                    continue;
+                }
+                if (!"templateImages".equals(part.name()) || part.filename().isEmpty()) {
+                    continue; // 알 수 없는 파트, 선택하지 않은 파일 입력
+                }
+
+                // 파일 검증 (본문을 받기 전에 파트 헤더로 거절, 크기는 받는 도중 확인)
+                if (storedFiles.size() >= fileUploadConfig.getStreamMaxFiles()) {
+                    throw new InvalidRequestException("한 번에 등록할 수 있는 파일은 최대 " + fileUploadConfig.getStreamMaxFiles() + "개입니다.");
+                }
+                if (!fileStorageService.isImageContentType(part.contentType())) {
+                    throw new InvalidRequestException("이미지 파일만 업로드 가능합니다.");
+                }
+
+                StoredFile stored = fileStorageService.storeStream(part.body(), part.filename(), fileUploadConfig.getStreamMaxFileSize());
+                storedUrls.add(stored.getUrl());
+                storedFiles.add(new UploadedImage(part.filename(), stored.getUrl(), stored.getMetadata()));
+                log.info("파일 저장 완료 - 원본: {}, URL: {}", part.filename(), stored.getUrl());
+            }
+
+            String templateName = fields.get("templateName");
+            String layoutType = fields.get("layoutType");
+            if (templateName == null || templateName.isBlank()) {
+                throw new InvalidRequestException("템플릿 이름(templateName)은 필수입니다.");
+            }
+            if (layoutType == null || layoutType.isBlank()) {
+                throw new InvalidRequestException("레이아웃(layoutType)은 필수입니다.");
+            }
+            if (storedFiles.isEmpty()) {
+                throw new InvalidRequestException("템플릿 이미지 파일이 필요합니다.");
+            }
+
+            totalFiles = storedFiles.size();
+            boolean isMultipleFiles = totalFiles > 1;
+            templates = new ArrayList<>(totalFiles);
+            for (int i = 0; i < totalFiles; i++) {
+                UploadedImage image = storedFiles.get(i);
+                String uniqueTemplateName = generateUniqueTemplateName(templateName, image.originalFilename(), i + 1, isMultipleFiles);
+                templates.add(buildCommonTemplateVO(uniqueTemplateName, layoutType, fields.get("useYn"),
+                        fields.get("ctgyBig"), fields.get("tplJson"), image.fileUrl(), image.metadata()));
+            }
+
+            successCount = transactionTemplate.execute(status -> createTemplates(templates));
+        } catch (IOException | RuntimeException e) {
+            // 등록하지 못했으므로 이 요청이 저장한 파일 정리 (같은 내용을 다른 템플릿이 쓰고 있으면 유지)
+            storedUrls.forEach(this::discardStoredFile);
+            throw e;
+        }
+
+        templates.forEach(vo -> log.info("공통 템플릿 등록 성공: {} (tplSeq={})", vo.getTplNm(), vo.getTplSeq()));
+
         return Map.of(
-                "success", successCount > 0,
+                "success", successCount != null && successCount > 0,
                 "message", successCount + "개의 공통 템플릿이 등록되었습니다.",
                 "totalFiles", totalFiles,
-                "successCount", successCount
+                "successCount", successCount == null ? 0 : successCount
         );
     }
 
+    /**
+     * 단일 INSERT 이므로 트랜잭션 없이 처리 (업로드 파일 복사 동안 DB 커넥션을 잡고 있지 않도록)
+     * 썸네일 기록이 실패하면 등록한 행을 지우고, 등록 때 제거한 캐시도 다시 제거한다.
+     */
     @Override
-    @Transactional
     public Map<String, Object> saveMyTemplate(
             String tplNm,
             String layoutType,
@@ -244,8 +744,19 @@ public class TemplateServiceImpl implements TemplateService {
             throw new InvalidRequestException("카테고리(대)는 필수입니다.");
         }
 
+        // 배경은 이미 올라가 있는 업로드 파일만 허용하고 저장 형식 URL 로 정리
+        // (같은 파일을 다른 문자열로 가리키면 참조 카운트에서 빠져 다른 템플릿이 쓰는 파일이 삭제될 수 있음)
+        String canonicalBgImgUrl = null;
+        if (bgImgUrl != null && !bgImgUrl.isBlank()) {
+            canonicalBgImgUrl = fileStorageService.toCanonicalUrl(bgImgUrl.trim());
+            if (canonicalBgImgUrl == null || !Files.isRegularFile(fileStorageService.resolvePath(canonicalBgImgUrl))) {
+                throw new InvalidRequestException("배경 이미지는 업로드된 파일만 사용할 수 있습니다.");
+            }
+        }
+
         // 썸네일 이미지 저장
         String thumbnailUrl = null;
+        StoredFile storedThumbnail = null;
         if (thumbnailImage != null && !thumbnailImage.isEmpty()) {
             // 이미지 파일 검증
             if (!fileStorageService.isImageFile(thumbnailImage)) {
@@ -253,9 +764,9 @@ public class TemplateServiceImpl implements TemplateService {
             }
             fileStorageService.validateFileSize(thumbnailImage, 10); // 10MB 제한
             
-            // 파일 저장
-            thumbnailUrl = fileStorageService.storeFile(thumbnailImage);
-            log.info("썸네일 이미지 저장 완료: {}", thumbnailUrl);
+            // 파일 저장 (디스크 기록은 INSERT 와 동시에 진행)
+            storedThumbnail = fileStorageService.storeFileAsync(thumbnailImage);
+            thumbnailUrl = storedThumbnail.getUrl();
         }
 
         // VO 생성
@@ -266,7 +777,8 @@ public class TemplateServiceImpl implements TemplateService {
         vo.setTplCtgyMid(tplCtgyMid);
         vo.setTplCtgySml(tplCtgySml);
         vo.setTplCtgySub(tplCtgySub);
-        vo.setBgImgUrl(bgImgUrl);
+        vo.setBgImgUrl(canonicalBgImgUrl);
+        setImageMetadata(vo, readImageMetadata(canonicalBgImgUrl)); // 배경은 이미 올라가 있는 공통 템플릿 이미지 (헤더만 읽음)
         vo.setThumbnailUrl(thumbnailUrl); // 썸네일 URL 설정
         vo.setTplJson(tplJson);
         vo.setIsCommon("N");
@@ -276,7 +788,23 @@ public class TemplateServiceImpl implements TemplateService {
         vo.setRegId(martCd);
         vo.setModId(martCd);
 
-        int inserted = createTemplate(vo);
+        int inserted = insertTemplate(vo);
+
+        // 썸네일 디스크 기록 완료 확인 (실패하면 방금 등록한 템플릿 삭제)
+        if (storedThumbnail != null) {
+            try {
+                storedThumbnail.getCompletion().join();
+                log.info("썸네일 이미지 저장 완료: {}", thumbnailUrl);
+            } catch (CompletionException e) {
+                if (inserted == 1 && popTemplateMapper.deleteTemplate(vo.getTplSeq()) > 0) {
+                    // 등록과 삭제 사이에 다른 요청이 캐시한 개수 / 카테고리 트리에서 지운 행이 빠지도록
+                    onTemplateDeleted(vo);
+                }
+                throw e.getCause() instanceof FileUploadException fileUploadException
+                        ? fileUploadException
+                        : new FileUploadException("썸네일 저장 중 오류가 발생했습니다.");
+            }
+        }
 
         Map<String, Object> result = new HashMap<>();
         result.put("success", inserted == 1);
@@ -286,6 +814,57 @@ public class TemplateServiceImpl implements TemplateService {
         return result;
     }
 
+    /**
+     * 복사 없는 복제 (copy-on-write)
+     * 메타데이터만 INSERT 하고 배경 / 썸네일 파일과 tpl_json 은 원본을 그대로 참조한다. (업로드 / 파일 복사 없음)
+     * 매장이 내용을 수정해서 저장할 때만 saveMyTemplate 으로 새 썸네일 / tpl_json 이 기록된다.
+     * 원본이 삭제되면 그 전에 복제본에 원본 값을 채워 넣으므로(materializeClones) 공유 파일은 참조 카운트로 보호된다.
+     */
+    @Override
+    public Map<String, Object> cloneTemplate(Long tplSeq, String tplNm, String tplCtgyBig, MartIpVO user) {
+        validateUser(user);
+        String martCd = user.getId();
+
+        if (tplNm == null || tplNm.isBlank()) {
+            throw new InvalidRequestException("템플릿 이름(tplNm)은 필수입니다.");
+        }
+
+        PopTemplateVO source = popTemplateMapper.selectByTplSeq(tplSeq);
+        if (source == null || !"Y".equalsIgnoreCase(source.getUseYn())) {
+            throw new com.example.pop.exception.ResourceNotFoundException(
+                "템플릿을 찾을 수 없습니다. (tplSeq: " + tplSeq + ")"
+            );
+        }
+        // 공통 템플릿 또는 자기 매장 템플릿만 복제 가능
+        if (!"Y".equalsIgnoreCase(source.getIsCommon()) && !martCd.equals(source.getMartCd())) {
+            throw new ForbiddenException("다른 마트의 템플릿은 복제할 수 없습니다.");
+        }
+
+        PopTemplateVO vo = new PopTemplateVO();
+        vo.setSrcTplSeq(tplSeq);
+        vo.setTplNm(tplNm);
+        vo.setTplCtgyBig((tplCtgyBig == null || tplCtgyBig.isBlank()) ? null : tplCtgyBig);
+        vo.setMartCd(martCd);
+        vo.setRegId(martCd);
+        vo.setModId(martCd);
+
+        int inserted = popTemplateMapper.insertClone(vo);
+        if (inserted > 0) {
+            runAfterCommit(() -> categoryTreeCache.evict(martCd));
+            runAfterCommit(() -> templateCountCache.evict(martCd));
+        }
+        if (inserted == 1) {
+            log.info("템플릿 복제 성공: martCd={}, srcTplSeq={}, tplSeq={}", martCd, tplSeq, vo.getTplSeq());
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", inserted == 1);
+        result.put("martCd", martCd);
+        result.put("tplSeq", vo.getTplSeq());
+        result.put("srcTplSeq", tplSeq);
+        return result;
+    }
+
     /**
      * 고유한 템플릿 이름 생성
      * 전략:
@@ -294,7 +873,7 @@ public class TemplateServiceImpl implements TemplateService {
      */
     private String generateUniqueTemplateName(
             String baseName, 
-            MultipartFile file, 
+            String originalFilename, 
             int index,
             boolean isMultiple
     ) {
@@ -304,8 +883,6 @@ public class TemplateServiceImpl implements TemplateService {
         }
 
         // 다중 파일의 경우
-        String originalFilename = file.getOriginalFilename();
-        
         if (originalFilename != null && !originalFilename.isEmpty()) {
             // 확장자 제거한 파일명 추출
             String fileNameWithoutExt = getFileNameWithoutExtension(originalFilename);
@@ -339,10 +916,7 @@ public class TemplateServiceImpl implements TemplateService {
     }
 
     /**
-     * 공통 템플릿 VO 생성 헬퍼 메서드
-     * 
-     * 카테고리 대분류만 입력받고, 중/소/세분류는 null로 설정
-     * 파일을 실제로 저장하고 URL을 설정
+     * 공통 템플릿 VO 생성 (이미 저장된 파일 URL 사용)
      */
     private PopTemplateVO buildCommonTemplateVO(
             String templateName,
@@ -350,18 +924,9 @@ public class TemplateServiceImpl implements TemplateService {
             String useYn,
             String ctgyBig,
             String tplJson,
-            MultipartFile file
+            String fileUrl,
+            ImageMetadata metadata
     ) {
-        // 파일 검증
-        if (!fileStorageService.isImageFile(file)) {
-            throw new InvalidRequestException("이미지 파일만 업로드 가능합니다.");
-        }
-        
-        fileStorageService.validateFileSize(file, 10); // 10MB 제한
-
-        // 파일 저장 및 URL 반환
-        String fileUrl = fileStorageService.storeFile(file);
-        
         PopTemplateVO vo = new PopTemplateVO();
         vo.setTplNm(templateName);
         vo.setLayoutType(layoutType);
@@ -383,17 +948,22 @@ public class TemplateServiceImpl implements TemplateService {
         vo.setRegId("a4");
         vo.setModId("a4");
 
-        // 저장된 파일의 URL 경로 설정
+        // 저장된 파일의 URL 경로 및 이미지 정보 설정
         vo.setBgImgUrl(fileUrl);
-
-        log.info("파일 저장 완료 - 원본: {}, URL: {}", file.getOriginalFilename(), fileUrl);
+        setImageMetadata(vo, metadata);
 
         return vo;
     }
 
     @Override
     public List<String> getDistinctCategories() {
-        return popTemplateMapper.selectDistinctCtgyBig();
+        long generation = commonTemplateCache.generation();
+        List<String> categories = commonTemplateCache.getCategories();
+        if (categories == null) {
+            categories = popTemplateMapper.selectDistinctCtgyBig();
+            commonTemplateCache.putCategories(categories, generation);
+        }
+        return categories;
     }
 
     @Override
@@ -401,6 +971,53 @@ public class TemplateServiceImpl implements TemplateService {
         return popTemplateMapper.selectDistinctCtgyBigByMartCd(martCd);
     }
 
+    @Override
+    public CategoryNode getCategoryTree(String martCd, String layoutType) {
+        long generation = categoryTreeCache.generation();
+        CategoryNode tree = categoryTreeCache.get(martCd, layoutType);
+        if (tree == null) {
+            tree = buildCategoryTree(popTemplateMapper.selectCategoryCounts(martCd, layoutType));
+            categoryTreeCache.put(martCd, layoutType, tree, generation);
+        }
+        return tree;
+    }
+
+    /**
+     * 카테고리 조합별 개수 → 트리
+     * 하위 카테고리가 비어 있는 템플릿은 상위 노드의 개수에만 포함된다.
+     */
+    private CategoryNode buildCategoryTree(List<TemplateCategoryCountVO> counts) {
+        CategoryTreeBuilder root = new CategoryTreeBuilder();
+        for (TemplateCategoryCountVO row : counts) {
+            CategoryTreeBuilder node = root;
+            node.count += row.getTplCnt();
+            for (String name : new String[]{row.getCtgyBig(), row.getCtgyMid(), row.getCtgySml(), row.getCtgySub()}) {
+                if (name == null || name.isEmpty()) {
+                    break;
+                }
+                node = node.children.computeIfAbsent(name, key -> new CategoryTreeBuilder());
+                node.count += row.getTplCnt();
+            }
+        }
+        return root.build(null);
+    }
+
+    private static final class CategoryTreeBuilder {
+        private int count;
+        private final Map<String, CategoryTreeBuilder> children = new TreeMap<>();
+
+        private CategoryNode build(String name) {
+            List<CategoryNode> nodes = new ArrayList<>(children.size());
+            children.forEach((childName, child) -> nodes.add(child.build(childName)));
+            return new CategoryNode(name, count, List.copyOf(nodes));
+        }
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        return commonTemplateCache.getStats();
+    }
+
     @Override
     @Transactional
     public Map<String, Object> deleteTemplate(Long tplSeq, MartIpVO user) {
@@ -432,25 +1049,25 @@ public class TemplateServiceImpl implements TemplateService {
         }
         // 관리자는 모든 템플릿 삭제 가능
 
-        // 파일 삭제 (배경 이미지)
-        if (template.getBgImgUrl() != null && !template.getBgImgUrl().isEmpty()) {
-            boolean fileDeleted = fileStorageService.deleteFile(template.getBgImgUrl());
-            if (!fileDeleted) {
-                log.warn("배경 이미지 삭제 실패 (계속 진행): {}", template.getBgImgUrl());
-            }
-        }
-        
-        // 파일 삭제 (썸네일 이미지)
-        if (template.getThumbnailUrl() != null && !template.getThumbnailUrl().isEmpty()) {
-            boolean thumbnailDeleted = fileStorageService.deleteFile(template.getThumbnailUrl());
-            if (!thumbnailDeleted) {
-                log.warn("썸네일 이미지 삭제 실패 (계속 진행): {}", template.getThumbnailUrl());
-            }
+        // 이 템플릿을 참조하는 복제본에 썸네일 / tpl_json 을 채워 넣은 뒤 삭제 (복제본이 남은 파일을 참조 카운트에 포함)
+        int materialized = popTemplateMapper.materializeClones(tplSeq);
+        if (materialized > 0) {
+            log.info("원본 삭제 전 복제본 분리: tplSeq={}, 복제본 {}건", tplSeq, materialized);
         }
 
         // DB에서 삭제
         int deleted = popTemplateMapper.deleteTemplate(tplSeq);
 
+        // 파일 삭제 (배경 / 썸네일 이미지)
+        // 같은 파일을 다른 템플릿도 참조할 수 있으므로 남은 참조가 없을 때만, 커밋이 끝난 뒤에 삭제
+        if (deleted > 0) {
+            onTemplateDeleted(template);
+            releaseFile(template.getBgImgUrl());
+            if (!java.util.Objects.equals(template.getThumbnailUrl(), template.getBgImgUrl())) {
+                releaseFile(template.getThumbnailUrl());
+            }
+        }
+
         Map<String, Object> result = new HashMap<>();
         result.put("success", deleted > 0);
         result.put("tplSeq", tplSeq);
@@ -463,4 +1080,79 @@ public class TemplateServiceImpl implements TemplateService {
         
         return result;
     }
+
+    /**
+     * 트랜잭션 커밋 후 실행 (트랜잭션 밖이면 바로 실행)
+     * 캐시 제거는 커밋 후에 해야 커밋 전에 다른 요청이 예전 행을 다시 캐시하지 않음
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 롤백되면 실행하지 않음
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 템플릿이 더 이상 참조하지 않는 파일 삭제 (트랜잭션 커밋 후)
+     * 참조 확인은 파일 저장과 같은 잠금 안에서 다시 하므로, 그 사이 같은 내용을 올린 요청의 파일은 지우지 않음
+     */
+    private void releaseFile(String fileUrl) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return;
+        }
+
+        Runnable delete = () -> {
+            if (fileStorageService.deleteIfUnreferenced(fileUrl, this::isFileReferenced)) {
+                imageDerivativeService.deleteDerivatives(fileUrl);
+            }
+        };
+
+        // 롤백되면 파일은 그대로 남음
+        runAfterCommit(delete);
+    }
+
+    /**
+     * 등록에 실패한 요청이 저장한 파일 정리 (아직 저장 중인 파일은 끝난 뒤 정리)
+     * 미사용 파일 정리(OrphanUploadCollector)는 기본으로 꺼져 있으므로 기다리지 않고 바로 지운다.
+     */
+    private void discardStoredFiles(List<CompletableFuture<StoredFile>> storing) {
+        for (CompletableFuture<StoredFile> future : storing) {
+            future.thenAccept(stored -> discardStoredFile(stored.getUrl()));
+        }
+    }
+
+    private void discardStoredFile(String fileUrl) {
+        try {
+            if (fileStorageService.discardStored(fileUrl, this::isFileReferenced)) {
+                imageDerivativeService.deleteDerivatives(fileUrl);
+                log.info("등록 실패로 저장 파일 삭제: {}", fileUrl);
+            }
+        } catch (RuntimeException e) {
+            log.warn("등록 실패 파일 정리 실패 (미사용 파일 정리 대상): {}", fileUrl, e);
+        }
+    }
+
+    /**
+     * 파일 참조 여부 (템플릿 행의 배경 / 썸네일 / tpl_json + 완료되었지만 아직 템플릿에 연결되지 않은 이어 올리기)
+     */
+    private boolean isFileReferenced(String fileUrl) {
+        // 예전에 저장된 다른 형식의 URL("./" 포함 등)도 같은 파일로 세도록 상대 경로로도 비교
+        int references = popTemplateMapper.countFileReferences(fileUrl, fileStorageService.relativePathOf(fileUrl));
+        if (references > 0) {
+            log.info("다른 템플릿이 참조 중인 파일 유지: {} (참조 {}건)", fileUrl, references);
+            return true;
+        }
+        if (chunkedUploadService.holdsFile(fileStorageService.toCanonicalUrl(fileUrl))) {
+            log.info("이어 올리기 완료 파일 유지: {}", fileUrl);
+            return true;
+        }
+        return false;
+    }
 }
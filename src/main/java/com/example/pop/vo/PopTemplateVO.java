@@ -3,6 +3,7 @@ package com.example.pop.vo;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 public class PopTemplateVO {
@@ -17,12 +18,21 @@ public class PopTemplateVO {
     private String tplCtgySub;
     private String layoutType;
     private String bgImgUrl;
+    private Integer bgImgWidth;        // 배경 이미지 가로 (화면 표시 기준, EXIF 방향 적용 후)
+    private Integer bgImgHeight;       // 배경 이미지 세로
+    private String bgImgFormat;        // 배경 이미지 형식 (jpeg, png ...)
+    private Integer bgImgOrientation;  // 배경 이미지 EXIF 방향 (1~8)
     private String thumbnailUrl;  // 편집된 썸네일 이미지 URL
     private String tplJson;
+    private Long srcTplSeq;           // 복제 원본 (수정 전까지 원본의 썸네일 / tpl_json 사용)
     private String isCommon;
     private String useYn;
     private String regId;
     private LocalDateTime regDt;
     private String modId;
     private LocalDateTime modDt;
+
+    // 목록 표시 이미지 파생본 (이름 → URL) 및 img srcset 값 (DB 컬럼 아님)
+    private Map<String, String> derivatives;
+    private String srcset;
 }
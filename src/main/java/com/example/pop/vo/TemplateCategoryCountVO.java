@@ -0,0 +1,15 @@
+package com.example.pop.vo;
+
+import lombok.Data;
+
+/**
+ * 카테고리 조합별 템플릿 개수 VO (카테고리 트리 집계용)
+ */
+@Data
+public class TemplateCategoryCountVO {
+    private String ctgyBig;         // 대분류
+    private String ctgyMid;         // 중분류
+    private String ctgySml;         // 소분류
+    private String ctgySub;         // 세분류
+    private int tplCnt;             // 템플릿 개수
+}
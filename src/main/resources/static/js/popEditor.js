@@ -11,11 +11,16 @@ const PopEditor = (() => {
     // ===== 템플릿 조회 상태 =====
     let templateSource = 'COMMON';      // COMMON(공통), MY(우리 마트)
     let templatePage = 1;              // 현재 페이지 (1부터 시작)
+    let templatePageCursors = { 1: '' }; // 페이지 번호 → 키셋 페이징 cursor (서버 응답 nextCursor)
     const TEMPLATE_PAGE_SIZE = 12;     // 한 페이지당 템플릿 개수
     let lastLayoutFilter = '';
     let lastCategoryFilter = '';
     let selectedCommonTemplate = null;
 
+    // 불러온 템플릿을 수정했는지 (수정하지 않았으면 저장 시 업로드 없이 서버에서 복제)
+    let canvasModified = false;
+    let isLoadingTemplate = false;
+
     // 레이아웃별 고정 캔버스 사이즈
     const LAYOUT_SIZE_MAP = {
         VERTICAL:   { width: 800,  height: 1200 },
@@ -23,9 +28,15 @@ const PopEditor = (() => {
         SHOWCARD:   { width: 600,  height: 600  }
     };
 
-    function getCanvasSizeForLayout(layoutType) {
+    // 정해진 레이아웃이 아니면 배경 이미지 크기(서버가 업로드 시 읽어 둔 값) 비율로 맞춤 → 이미지를 받기 전에 크기 결정
+    function getCanvasSizeForLayout(layoutType, bgWidth, bgHeight) {
         const lt = layoutType || 'VERTICAL';
-        return LAYOUT_SIZE_MAP[lt] || { width: 800, height: 600 };
+        if (LAYOUT_SIZE_MAP[lt]) return LAYOUT_SIZE_MAP[lt];
+        if (bgWidth > 0 && bgHeight > 0) {
+            const scale = 800 / Math.max(bgWidth, bgHeight);
+            return { width: Math.round(bgWidth * scale), height: Math.round(bgHeight * scale) };
+        }
+        return { width: 800, height: 600 };
     }
 
     // ===== 캔버스 wrapper 크기 조정 =====
@@ -75,6 +86,7 @@ const PopEditor = (() => {
         ];
         syncEvents.forEach(ev => {
             editCanvas.on(ev, () => {
+                if (!isLoadingTemplate) canvasModified = true;
                 updateEmptyMessage();
                 syncPreview();
 
@@ -392,6 +404,7 @@ const PopEditor = (() => {
         editCanvas.setDimensions({ width: 800, height: 600 });
         editCanvas.backgroundColor = '#ffffff';
         editCanvas.renderAll();
+        canvasModified = true;
 
         editCanvas.setViewportTransform([1, 0, 0, 1, 0, 0]);
 
@@ -642,22 +655,53 @@ const PopEditor = (() => {
     async function loadTemplate(el) {
         if (!editCanvas || !el) return;
 
+        // 불러오는 동안의 캔버스 이벤트는 수정으로 보지 않음
+        isLoadingTemplate = true;
+        try {
+            await loadTemplateContent(el);
+            canvasModified = false;
+        } finally {
+            isLoadingTemplate = false;
+        }
+    }
+
+    async function fetchTemplateJson(tplSeq) {
+        if (!tplSeq) return '';
+        try {
+            const res = await fetch(`/api/templates/${encodeURIComponent(tplSeq)}`);
+            const data = await res.json();
+            if (!res.ok || !data.success) {
+                console.warn('템플릿 상세 조회 실패, 배경 이미지만 로드:', data.message || res.status);
+                return '';
+            }
+            return (data.template && data.template.tplJson) || '';
+        } catch (error) {
+            console.warn('템플릿 상세 조회 실패, 배경 이미지만 로드:', error);
+            return '';
+        }
+    }
+
+    async function loadTemplateContent(el) {
+
         selectedCommonTemplate = {
             tplId: el.getAttribute('data-template-id'),
             tplSeq: el.getAttribute('data-tpl-seq'),
             bgImgUrl: el.getAttribute('data-bg'),
+            bgImgWidth: parseInt(el.getAttribute('data-bg-width'), 10) || 0,
+            bgImgHeight: parseInt(el.getAttribute('data-bg-height'), 10) || 0,
             layoutType: el.getAttribute('data-layout') || 'VERTICAL',
             ctgyBig: el.getAttribute('data-ctgy-big') || '',
             ctgyMid: el.getAttribute('data-ctgy-mid') || '',
             ctgySml: el.getAttribute('data-ctgy-sml') || '',
-            ctgySub: el.getAttribute('data-ctgy-sub') || '',
-            tplJson: el.getAttribute('data-tpl-json') || ''
+            ctgySub: el.getAttribute('data-ctgy-sub') || ''
         };
 
         const bgUrl = selectedCommonTemplate.bgImgUrl;
         const layoutType = selectedCommonTemplate.layoutType;
-        const tplJson = selectedCommonTemplate.tplJson;
-        const { width: w, height: h } = getCanvasSizeForLayout(layoutType);
+        // 목록에는 편집 데이터가 없으므로 열 때 상세 조회 (브라우저가 ETag 로 재검증)
+        const tplJson = await fetchTemplateJson(selectedCommonTemplate.tplSeq);
+        const { width: w, height: h } = getCanvasSizeForLayout(
+            layoutType, selectedCommonTemplate.bgImgWidth, selectedCommonTemplate.bgImgHeight);
 
         editCanvas.clear();
         editCanvas.setDimensions({ width: w, height: h });
@@ -760,8 +804,17 @@ const PopEditor = (() => {
         if (layoutType) params.push('layoutType=' + encodeURIComponent(layoutType));
         if (category)  params.push('ctgyBig=' + encodeURIComponent(category));
 
-        // 페이징 파라미터
-        params.push('page=' + encodeURIComponent(templatePage));
+        // 페이징 파라미터 (cursor 를 아는 페이지는 키셋 페이징, 모르면 page 기준)
+        if (templatePage === 1) {
+            templatePageCursors = { 1: '' };
+        }
+        const requestPage = templatePage;
+        const pageCursor = templatePageCursors[requestPage];
+        if (typeof pageCursor === 'string') {
+            params.push('cursor=' + encodeURIComponent(pageCursor));
+        } else {
+            params.push('page=' + encodeURIComponent(requestPage));
+        }
         params.push('size=' + encodeURIComponent(TEMPLATE_PAGE_SIZE));
 
         if (params.length > 0) url += '?' + params.join('&');
@@ -775,6 +828,9 @@ const PopEditor = (() => {
                 grid.innerHTML = '';
 
                 const templates = data.templates || [];
+                if (data.nextCursor) {
+                    templatePageCursors[requestPage + 1] = data.nextCursor;
+                }
                 const totalCount = (typeof data.totalCount === 'number')
                     ? data.totalCount
                     : templates.length;
@@ -805,8 +861,11 @@ const PopEditor = (() => {
                     item.setAttribute('data-template-id', tpl.tplId);
                     item.setAttribute('data-tpl-seq', tpl.tplSeq);
                     item.setAttribute('data-bg', tpl.bgImgUrl);
+                    if (tpl.bgImgWidth && tpl.bgImgHeight) {
+                        item.setAttribute('data-bg-width', tpl.bgImgWidth);
+                        item.setAttribute('data-bg-height', tpl.bgImgHeight);
+                    }
                     item.setAttribute('data-layout', tpl.layoutType);
-                    item.setAttribute('data-tpl-json', tpl.tplJson || '');
 
                     item.setAttribute('data-ctgy-big', tpl.tplCtgyBig || '');
                     item.setAttribute('data-ctgy-mid', tpl.tplCtgyMid || '');
@@ -817,7 +876,19 @@ const PopEditor = (() => {
                     thumb.className = 'template-thumb';
                     const img = document.createElement('img');
                     // 썸네일이 있으면 썸네일 사용, 없으면 배경 이미지 사용
-                    img.src = (tpl.thumbnailUrl && tpl.thumbnailUrl.trim() !== '') ? tpl.thumbnailUrl : tpl.bgImgUrl;
+                    const displayUrl = (tpl.thumbnailUrl && tpl.thumbnailUrl.trim() !== '') ? tpl.thumbnailUrl : tpl.bgImgUrl;
+                    // 목록용 파생본이 있으면 작은 이미지부터 사용 (캔버스 배경은 data-bg 원본 그대로)
+                    img.src = (tpl.derivatives && tpl.derivatives.gallery) || displayUrl;
+                    if (tpl.srcset) {
+                        img.srcset = tpl.srcset;
+                        img.sizes = '200px';
+                    }
+                    // 배경 이미지 크기를 알면 미리 비율 지정 (이미지를 받기 전에 자리 확보)
+                    if (displayUrl === tpl.bgImgUrl && tpl.bgImgWidth && tpl.bgImgHeight) {
+                        img.width = tpl.bgImgWidth;
+                        img.height = tpl.bgImgHeight;
+                    }
+                    img.decoding = 'async';
                     img.alt = '템플릿';
                     thumb.appendChild(img);
 
@@ -850,7 +921,7 @@ const PopEditor = (() => {
 
                     const size = document.createElement('div');
                     size.className = 'template-size';
-                    size.textContent = '';
+                    size.textContent = (tpl.bgImgWidth && tpl.bgImgHeight) ? `${tpl.bgImgWidth} × ${tpl.bgImgHeight}` : '';
 
                     item.appendChild(thumb);
                     item.appendChild(name);
@@ -920,10 +991,10 @@ const PopEditor = (() => {
         const categorySel = document.getElementById('templateCategory');
         if (!categorySel) return;
 
-        // 엔드포인트 결정
+        // 엔드포인트 결정 (대 → 중 → 소 → 세 트리 + 템플릿 수, 선택박스는 대분류만 사용)
         const url = (source === 'MY')
-            ? '/api/templates/my/categories'
-            : '/api/templates/categories';
+            ? '/api/templates/my/categories/tree'
+            : '/api/templates/categories/tree';
 
         try {
             const res = await fetch(url);
@@ -934,16 +1005,20 @@ const PopEditor = (() => {
                 return;
             }
 
-            const categories = data.categories || [];
+            const categories = (data.categories || []).map(node => node.name);
 
             // 선택박스 초기화
-            categorySel.innerHTML = '<option value="">전체 카테고리</option>';
+            categorySel.innerHTML = '';
+            const allOption = document.createElement('option');
+            allOption.value = '';
+            allOption.textContent = `전체 카테고리 (${data.totalCount || 0})`;
+            categorySel.appendChild(allOption);
 
             // 카테고리 옵션 추가
-            categories.forEach(category => {
+            (data.categories || []).forEach(node => {
                 const option = document.createElement('option');
-                option.value = category;
-                option.textContent = category;
+                option.value = node.name;
+                option.textContent = `${node.name} (${node.count})`;
                 categorySel.appendChild(option);
             });
 
@@ -1018,6 +1093,26 @@ const PopEditor = (() => {
         }
 
         try {
+            // 불러온 템플릿을 수정하지 않았으면 썸네일 / 편집 데이터 업로드 없이 서버에서 복제
+            if (selectedCommonTemplate?.tplSeq && !canvasModified
+                    && layoutType === selectedCommonTemplate.layoutType) {
+                const cloneData = new FormData();
+                cloneData.append('tplNm', tplNm);
+                cloneData.append('tplCtgyBig', ctgyBig);
+
+                const cloneRes = await fetch(`/api/templates/${encodeURIComponent(selectedCommonTemplate.tplSeq)}/clone`, {
+                    method: 'POST',
+                    body: cloneData
+                });
+                const cloneResult = await cloneRes.json().catch(() => ({}));
+                if (!cloneRes.ok || !cloneResult.success) {
+                    alert('저장 실패: ' + (cloneResult.message || '서버 오류'));
+                    return;
+                }
+                onMyTemplateSaved();
+                return;
+            }
+
             // 캔버스를 이미지로 변환 (썸네일 생성)
             const thumbnailBlob = await canvasToBlob();
 
@@ -1049,21 +1144,25 @@ const PopEditor = (() => {
                 return;
             }
 
-            alert('우리 매장 템플릿 저장 완료!');
-            closeSaveModal();
-
-            // 우리 마트 템플릿으로 필터 전환
-            const sourceSel = document.getElementById('templateSource');
-            if (sourceSel) {
-                sourceSel.value = 'MY';
-                filterTemplateByLayout();
-            }
+            onMyTemplateSaved();
         } catch (e) {
             console.error(e);
             alert('저장 중 오류가 발생했습니다.');
         }
     }
 
+    function onMyTemplateSaved() {
+        alert('우리 매장 템플릿 저장 완료!');
+        closeSaveModal();
+
+        // 우리 마트 템플릿으로 필터 전환
+        const sourceSel = document.getElementById('templateSource');
+        if (sourceSel) {
+            sourceSel.value = 'MY';
+            filterTemplateByLayout();
+        }
+    }
+
     // 캔버스를 Blob으로 변환
     async function canvasToBlob() {
         if (!editCanvas) return null;
@@ -1179,8 +1278,10 @@ const PopEditor = (() => {
         if (!editCanvas) return;
 
         try {
-            // CORS 우회를 위해 프록시 사용
-            const proxyUrl = `/api/image-proxy?url=${encodeURIComponent(imageUrl)}`;
+            // CORS 우회를 위해 프록시 사용 (로컬 미러 이미지는 그대로)
+            const proxyUrl = imageUrl.startsWith('/')
+                ? imageUrl
+                : `/api/image-proxy?url=${encodeURIComponent(imageUrl)}`;
 
             // v6 API 적용
             const img = await fabric.FabricImage.fromURL(proxyUrl, {
@@ -108,7 +108,7 @@ const ProductImageSearch = {
                 <div class="product-image-item" onclick="ProductImageSearch.selectProduct(${product.seqMstrPrdt})">
                     <div class="product-image-thumb ${imageUrl ? '' : 'no-image'}">
                         ${imageUrl 
-                            ? `<img src="${imageUrl}" alt="${productName}" onerror="this.parentElement.classList.add('no-image'); this.style.display='none'; this.parentElement.textContent='이미지 없음';">` 
+                            ? `<img data-seq="${product.seqMstrPrdt}" data-src="${this.getThumbnailUrl(imageUrl)}" alt="${productName}" onerror="this.parentElement.classList.add('no-image'); this.style.display='none'; this.parentElement.textContent='이미지 없음';">` 
                             : '이미지 없음'
                         }
                     </div>
@@ -120,6 +120,128 @@ const ProductImageSearch = {
         });
 
         container.innerHTML = html;
+
+        // 썸네일은 한 번의 요청으로 모아서 받음
+        this.loadThumbnails(products);
+    },
+
+    // 일괄 조회 중인 요청 / 생성한 Blob URL (새 검색 시 정리)
+    thumbnailRequest: null,
+    thumbnailObjectUrls: [],
+
+    /**
+     * 그리드 썸네일 일괄 조회
+     * 상품별로 /api/image-proxy 를 따로 호출하지 않고 한 번의 요청으로 받아서, 도착하는 순서대로 표시
+     * (실패하면 상품별 개별 요청으로 전환)
+     */
+    async loadThumbnails(products) {
+        if (this.thumbnailRequest) {
+            this.thumbnailRequest.abort();
+        }
+        this.thumbnailObjectUrls.forEach(url => URL.revokeObjectURL(url));
+        this.thumbnailObjectUrls = [];
+
+        const seqs = products.filter(product => product.mstrPrdtMUrl).map(product => product.seqMstrPrdt);
+        if (seqs.length === 0) return;
+
+        const controller = new AbortController();
+        this.thumbnailRequest = controller;
+
+        try {
+            const response = await fetch('/api/image-proxy/batch', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ seqs, w: 240, h: 240, fit: 'contain', q: 75 }),
+                signal: controller.signal
+            });
+            if (!response.ok || !response.body) {
+                throw new Error('HTTP ' + response.status);
+            }
+
+            await this.readImageFrames(response.body, (header, blob) => this.applyThumbnail(header, blob));
+
+        } catch (error) {
+            if (error.name === 'AbortError') return;
+            console.warn('썸네일 일괄 조회 실패, 개별 요청으로 전환:', error);
+        } finally {
+            if (this.thumbnailRequest === controller) {
+                this.thumbnailRequest = null;
+            }
+        }
+
+        // 받지 못한 썸네일은 개별 요청
+        if (!controller.signal.aborted) {
+            document.querySelectorAll('#productImageGrid img[data-src]').forEach(img => {
+                img.src = img.dataset.src;
+                img.removeAttribute('data-src');
+            });
+        }
+    },
+
+    /**
+     * 일괄 조회 응답 파싱
+     * 프레임 형식: [헤더 길이 4바이트][헤더 JSON][본문 (header.length 바이트)]
+     */
+    async readImageFrames(stream, onFrame) {
+        const reader = stream.getReader();
+        const decoder = new TextDecoder();
+        let buffer = new Uint8Array(0);
+
+        while (true) {
+            const { done, value } = await reader.read();
+            if (done) break;
+
+            const merged = new Uint8Array(buffer.length + value.length);
+            merged.set(buffer);
+            merged.set(value, buffer.length);
+            buffer = merged;
+
+            // 완성된 프레임은 모두 처리
+            while (buffer.length >= 4) {
+                const headerLength = new DataView(buffer.buffer, buffer.byteOffset, 4).getUint32(0);
+                if (buffer.length < 4 + headerLength) break;
+
+                const header = JSON.parse(decoder.decode(buffer.subarray(4, 4 + headerLength)));
+                const end = 4 + headerLength + header.length;
+                if (buffer.length < end) break;
+
+                const blob = header.status === 200
+                    ? new Blob([buffer.slice(4 + headerLength, end)], { type: header.contentType })
+                    : null;
+                onFrame(header, blob);
+                buffer = buffer.slice(end);
+            }
+        }
+    },
+
+    /**
+     * 받은 썸네일을 그리드 이미지에 반영
+     */
+    applyThumbnail(header, blob) {
+        const img = document.querySelector(`#productImageGrid img[data-seq="${header.id}"][data-src]`);
+        if (!img) return;
+
+        img.removeAttribute('data-src');
+        if (!blob) {
+            // 서버에서 이미 실패한 이미지는 다시 요청하지 않고 '이미지 없음' 표시
+            img.dispatchEvent(new Event('error'));
+            return;
+        }
+
+        const objectUrl = URL.createObjectURL(blob);
+        this.thumbnailObjectUrls.push(objectUrl);
+        img.src = objectUrl;
+    },
+
+    /**
+     * 그리드 타일용 축소 이미지 URL (서버에서 리사이즈하여 원본 대신 작은 이미지 전송)
+     */
+    getThumbnailUrl(imageUrl) {
+        // 로컬 미러 이미지는 같은 파라미터로 바로 리사이즈
+        if (imageUrl.startsWith('/')) {
+            return `${imageUrl}?w=240&h=240&fit=contain&q=75`;
+        }
+        return `/api/image-proxy?url=${encodeURIComponent(imageUrl)}&w=240&h=240&fit=contain&q=75`;
     },
 
     /**
@@ -191,8 +313,10 @@ const ProductImageSearch = {
         }
 
         try {
-            // CORS 우회를 위해 프록시 사용
-            const proxyUrl = `/api/image-proxy?url=${encodeURIComponent(imageUrl)}`;
+            // CORS 우회를 위해 프록시 사용 (로컬 미러 이미지는 그대로)
+            const proxyUrl = imageUrl.startsWith('/')
+                ? imageUrl
+                : `/api/image-proxy?url=${encodeURIComponent(imageUrl)}`;
             
             // Fabric.js v6 방식: fabric.FabricImage.fromURL 사용
             const img = await fabric.FabricImage.fromURL(proxyUrl, {
@@ -0,0 +1,142 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.config.ImageDecodeConfig;
+import com.example.pop.service.image.ImageMetadataReader;
+import com.example.pop.service.image.ImageValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 내용 기반 저장 파일의 저장 / 삭제 경합 테스트
+ */
+class FileStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileUploadConfig config;
+    private FileStorageService service;
+    private byte[] image;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new FileUploadConfig();
+        ReflectionTestUtils.setField(config, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(config, "urlPath", "/uploads/templates");
+        ReflectionTestUtils.setField(config, "contentAddressed", true);
+        ReflectionTestUtils.setField(config, "sharded", true);
+        ReflectionTestUtils.setField(config, "storeThreads", 2);
+        ReflectionTestUtils.setField(config, "storeQueueSize", 10);
+        ReflectionTestUtils.setField(config, "releaseGraceSeconds", 600L);
+
+        ImageDecodeConfig decodeConfig = new ImageDecodeConfig();
+        ReflectionTestUtils.setField(decodeConfig, "maxPixels", 40_000_000L);
+        ImageValidator validator = new ImageValidator(decodeConfig, new ImageMetadataReader());
+        service = new FileStorageService(config, event -> { }, validator);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", out);
+        image = out.toByteArray();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.shutdown();
+    }
+
+    @Test
+    void concurrentStoreOfSameContentIsNotDeletedByRelease() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 200; i++) {
+                // 예전에 저장되어 유예 시간이 지난 파일 (최근 저장 기록 없음)
+                String url = service.storeStream(new ByteArrayInputStream(image), "a.png", image.length).getUrl();
+                Path file = service.resolvePath(url);
+                ((Map<?, ?>) ReflectionTestUtils.getField(service, "recentStores")).clear();
+
+                // 같은 내용을 다시 올리는 요청과 마지막 참조 해제가 동시에 실행
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                CompletableFuture<Void> store = CompletableFuture.runAsync(() -> {
+                    await(barrier);
+                    service.storeStream(new ByteArrayInputStream(image), "a.png", image.length);
+                }, executor);
+                CompletableFuture<Boolean> release = CompletableFuture.supplyAsync(() -> {
+                    await(barrier);
+                    return service.deleteIfUnreferenced(url, u -> false);
+                }, executor);
+                CompletableFuture.allOf(store, release).get(10, TimeUnit.SECONDS);
+
+                assertTrue(Files.exists(file), "저장에 성공한 파일이 삭제됨 (반복 " + i + ")");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void releaseKeepsRecentlyStoredOrReferencedFile() throws Exception {
+        String url = service.storeStream(new ByteArrayInputStream(image), "a.png", image.length).getUrl();
+        Path file = service.resolvePath(url);
+
+        // 유예 시간 안: 참조가 없어도 유지
+        assertFalse(service.deleteIfUnreferenced(url, u -> false));
+        assertTrue(Files.exists(file));
+
+        ReflectionTestUtils.setField(config, "releaseGraceSeconds", 0L);
+        // 참조 중: 유지
+        assertFalse(service.deleteIfUnreferenced(url, u -> true));
+        assertTrue(Files.exists(file));
+
+        // 참조 없음: 삭제
+        assertTrue(service.deleteIfUnreferenced(url, u -> false));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void discardKeepsFileStoredByAnotherRequestOrReferenced() throws Exception {
+        String url = service.storeStream(new ByteArrayInputStream(image), "a.png", image.length).getUrl();
+        service.storeStream(new ByteArrayInputStream(image), "b.png", image.length);
+        Path file = service.resolvePath(url);
+
+        // 다른 요청도 유예 시간 안에 같은 내용을 저장: 유지
+        assertFalse(service.discardStored(url, u -> false));
+        assertTrue(Files.exists(file));
+
+        // 참조 중: 유지
+        assertFalse(service.discardStored(url, u -> true));
+        assertTrue(Files.exists(file));
+
+        // 이번 요청만 저장했고 참조 없음: 유예 시간 안이어도 삭제
+        service.storeStream(new ByteArrayInputStream(image), "a.png", image.length);
+        assertTrue(service.discardStored(url, u -> false));
+        assertFalse(Files.exists(file));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
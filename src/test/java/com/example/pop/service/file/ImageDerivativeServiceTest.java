@@ -0,0 +1,133 @@
+package com.example.pop.service.file;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.config.ImageDecodeConfig;
+import com.example.pop.service.image.ImageMetadataReader;
+import com.example.pop.service.image.ImageResizeService;
+import com.example.pop.service.image.ImageValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 파생 이미지 색인 / 보충 작업 테스트 (리사이즈는 mock)
+ */
+class ImageDerivativeServiceTest {
+
+    private static final String URL = "/uploads/templates/ab/cd/abcdef.png";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileUploadConfig config;
+    private FileStorageService fileStorageService;
+    private ImageResizeService resizeService;
+    private ImageDerivativeService service;
+    private Path original;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new FileUploadConfig();
+        ReflectionTestUtils.setField(config, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(config, "urlPath", "/uploads/templates");
+        ReflectionTestUtils.setField(config, "storeThreads", 1);
+        ReflectionTestUtils.setField(config, "storeQueueSize", 1);
+        ReflectionTestUtils.setField(config, "derivativesEnabled", true);
+        ReflectionTestUtils.setField(config, "derivativeSizes", "gallery:320:75,preview:1200:80");
+        ReflectionTestUtils.setField(config, "derivativeThreads", 1);
+        ReflectionTestUtils.setField(config, "derivativeQueueSize", 10);
+
+        ImageDecodeConfig decodeConfig = new ImageDecodeConfig();
+        ReflectionTestUtils.setField(decodeConfig, "maxPixels", 40_000_000L);
+        fileStorageService = new FileStorageService(config, event -> { },
+                new ImageValidator(decodeConfig, new ImageMetadataReader()));
+
+        resizeService = mock(ImageResizeService.class);
+        when(resizeService.resize(any(), any(), any())).thenAnswer(invocation -> {
+            Files.write(invocation.getArgument(2, Path.class), new byte[]{1});
+            return "image/jpeg";
+        });
+
+        original = uploadDir.resolve("ab/cd/abcdef.png");
+        Files.createDirectories(original.getParent());
+        Files.write(original, new byte[]{1, 2, 3});
+
+        service = newService();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.shutdown();
+        fileStorageService.shutdown();
+    }
+
+    @Test
+    void listLookupDoesNotScheduleGeneration() throws Exception {
+        assertEquals(Map.of(), service.getDerivatives(URL));
+        verify(resizeService, after(200).never()).resize(any(), any(), any());
+    }
+
+    @Test
+    void generatedDerivativesAreRecordedAndRemovedWithOriginal() throws Exception {
+        assertTrue(service.generateNow(original));
+
+        Map<String, String> derivatives = service.getDerivatives(URL);
+        assertEquals(List.of("gallery", "preview"), List.copyOf(derivatives.keySet()));
+        assertEquals("/uploads/templates/ab/cd/abcdef_gallery.jpg", derivatives.get("gallery"));
+
+        service.deleteDerivatives(URL);
+        assertEquals(Map.of(), service.getDerivatives(URL));
+        assertTrue(Files.notExists(uploadDir.resolve("ab/cd/abcdef_gallery.jpg")));
+    }
+
+    @Test
+    void indexIsRestoredFromDiskOnStartup() throws Exception {
+        Files.write(uploadDir.resolve("ab/cd/abcdef_gallery.jpg"), new byte[]{1});
+        Files.write(uploadDir.resolve("ab/cd/abcdef_preview.png"), new byte[]{1});
+
+        service.shutdown();
+        service = newService();
+
+        assertEquals("/uploads/templates/ab/cd/abcdef_preview.png", service.getDerivatives(URL).get("preview"));
+        assertEquals(2, service.getDerivatives(URL).size());
+    }
+
+    @Test
+    void backfillRunnerGeneratesOnlyMissingDerivatives() throws Exception {
+        Files.write(uploadDir.resolve("ab/cd/abcdef_gallery.jpg"), new byte[]{1});
+        Files.write(uploadDir.resolve("ab/cd/.tmp_123"), new byte[]{1});
+        service.shutdown();
+        service = newService();
+
+        ReflectionTestUtils.setField(config, "derivativeBackfillRun", true);
+        new ImageDerivativeBackfillRunner(config, service).run(new DefaultApplicationArguments());
+
+        // 원본 1건의 빠진 파생본(preview)만 생성, 파생본 / 임시 파일은 원본으로 보지 않음
+        verify(resizeService, times(1)).resize(any(), any(), any());
+        assertEquals(2, service.getDerivatives(URL).size());
+    }
+
+    private ImageDerivativeService newService() {
+        ImageDerivativeService created = new ImageDerivativeService(config, fileStorageService, resizeService);
+        created.loadIndex();
+        return created;
+    }
+}
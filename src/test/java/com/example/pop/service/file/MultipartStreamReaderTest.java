@@ -0,0 +1,214 @@
+package com.example.pop.service.file;
+
+import com.example.pop.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * multipart 스트리밍 파서 경계 처리 테스트
+ */
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----pop7MA4YWxkTrZu0gW";
+
+    @Test
+    void readsFieldAndFileParts() throws IOException {
+        byte[] body = new Body()
+                .field("tplJson", "{\"a\":1}")
+                .file("file", "bg.png", "image/png", bytes("PNGDATA"))
+                .close()
+                .toBytes();
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), BOUNDARY);
+
+        MultipartStreamReader.Part field = reader.nextPart();
+        assertEquals("tplJson", field.name());
+        assertEquals("{\"a\":1}", MultipartStreamReader.readField(field, 1024));
+
+        MultipartStreamReader.Part file = reader.nextPart();
+        assertTrue(file.isFile());
+        assertEquals("file", file.name());
+        assertEquals("bg.png", file.filename());
+        assertEquals("image/png", file.contentType());
+        assertArrayEquals(bytes("PNGDATA"), file.body().readAllBytes());
+
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void findsDelimiterSplitAcrossBufferEdge() throws IOException {
+        // 경계가 64KB 버퍼 끝에 걸치도록 본문 길이를 바꿔가며 확인 (입력은 작은 조각으로 나눠 전달)
+        int delimiterLength = ("\r\n--" + BOUNDARY).length();
+        Random random = new Random(42);
+        for (int size = 64 * 1024 - 300; size <= 64 * 1024 + delimiterLength; size++) {
+            byte[] content = new byte[size];
+            random.nextBytes(content);
+            byte[] body = new Body().file("file", "a.bin", null, content).field("after", "ok").close().toBytes();
+
+            MultipartStreamReader reader = new MultipartStreamReader(new TrickleInputStream(body, 7919), BOUNDARY);
+            assertArrayEquals(content, reader.nextPart().body().readAllBytes(), "본문 크기 " + size);
+            assertEquals("ok", MultipartStreamReader.readField(reader.nextPart(), 16));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void keepsDelimiterLikeBytesInsideContent() throws IOException {
+        // CRLF + "--" + 경계 앞부분은 경계가 아님 (본문의 일부)
+        byte[] content = bytes("line1\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "X\r\n--\r\n" + "end\r\n");
+        byte[] body = new Body().file("file", "a.bin", null, content).close().toBytes();
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), BOUNDARY);
+        assertArrayEquals(content, reader.nextPart().body().readAllBytes());
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void ignoresPreambleAndEpilogue() throws IOException {
+        Body body = new Body();
+        body.raw("This is the preamble.\r\nIt should be ignored.\r\n");
+        body.field("name", "value").close();
+        body.raw("\r\nThis is the epilogue.");
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body.toBytes()), BOUNDARY);
+        assertEquals("value", MultipartStreamReader.readField(reader.nextPart(), 16));
+        assertNull(reader.nextPart());
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void skipsUnreadPartBody() throws IOException {
+        byte[] body = new Body()
+                .file("file", "a.bin", null, new byte[200 * 1024])
+                .field("after", "ok")
+                .close()
+                .toBytes();
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), BOUNDARY);
+        reader.nextPart();
+        assertEquals("ok", MultipartStreamReader.readField(reader.nextPart(), 16));
+    }
+
+    @Test
+    void rejectsTruncatedBody() throws IOException {
+        byte[] body = new Body().file("file", "a.bin", null, new byte[1000]).close().toBytes();
+        byte[] truncated = Arrays.copyOf(body, 600);
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(truncated), BOUNDARY);
+        InputStream part = reader.nextPart().body();
+        assertThrows(InvalidRequestException.class, part::readAllBytes);
+    }
+
+    @Test
+    void rejectsMissingClosingDelimiter() throws IOException {
+        // 마지막 경계 뒤에 "--" 없이 끝남
+        Body body = new Body().field("name", "value");
+        body.raw("--" + BOUNDARY + "\r\n");
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body.toBytes()), BOUNDARY);
+        assertEquals("value", MultipartStreamReader.readField(reader.nextPart(), 16));
+        assertThrows(InvalidRequestException.class, reader::nextPart);
+    }
+
+    @Test
+    void readsQuotedFilenameContainingSemicolon() throws IOException {
+        Body body = new Body();
+        body.raw("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"a;b=c.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n"
+                + "DATA");
+        body.close();
+
+        MultipartStreamReader.Part part = new MultipartStreamReader(new ByteArrayInputStream(body.toBytes()), BOUNDARY).nextPart();
+        assertEquals("file", part.name());
+        assertEquals("a;b=c.png", part.filename());
+    }
+
+    @Test
+    void parsesDispositionParameters() {
+        assertEquals("file", MultipartStreamReader.dispositionParameter("form-data; name=\"file\"; filename=\"x.png\"", "name"));
+        assertEquals("x.png", MultipartStreamReader.dispositionParameter("form-data; name=\"file\"; filename=\"x.png\"", "filename"));
+        assertEquals("x.png", MultipartStreamReader.dispositionParameter("form-data; name=file; filename=x.png", "filename"));
+        assertEquals("say \"hi\".png", MultipartStreamReader.dispositionParameter("form-data; filename=\"say \\\"hi\\\".png\"", "filename"));
+        assertEquals("C:\\dir\\a.png", MultipartStreamReader.dispositionParameter("form-data; filename=\"C:\\dir\\a.png\"", "filename"));
+        assertNull(MultipartStreamReader.dispositionParameter("form-data; name=\"tplJson\"", "filename"));
+    }
+
+    @Test
+    void extractsBoundaryFromContentType() {
+        assertEquals(BOUNDARY, MultipartStreamReader.extractBoundary("multipart/form-data; boundary=" + BOUNDARY));
+        assertEquals("abc", MultipartStreamReader.extractBoundary("multipart/form-data; charset=UTF-8; boundary=\"abc\""));
+        assertThrows(InvalidRequestException.class, () -> MultipartStreamReader.extractBoundary("application/json"));
+        assertThrows(InvalidRequestException.class, () -> MultipartStreamReader.extractBoundary("multipart/form-data"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 테스트용 multipart 본문 작성
+     */
+    private static class Body {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Body field(String name, String value) {
+            raw("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n");
+            return this;
+        }
+
+        Body file(String name, String filename, String contentType, byte[] content) {
+            raw("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                    + (contentType != null ? "Content-Type: " + contentType + "\r\n" : "") + "\r\n");
+            out.writeBytes(content);
+            raw("\r\n");
+            return this;
+        }
+
+        Body close() {
+            raw("--" + BOUNDARY + "--");
+            return this;
+        }
+
+        Body raw(String value) {
+            out.writeBytes(bytes(value));
+            return this;
+        }
+
+        byte[] toBytes() {
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 한 번에 최대 chunk 바이트씩만 돌려주는 입력 (네트워크 수신 흉내)
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+
+        private final int chunk;
+
+        TrickleInputStream(byte[] data, int chunk) {
+            super(data);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 호스트별 서킷 브레이커 상태 전이 테스트
+ */
+class HostCircuitBreakerTest {
+
+    private static final String HOST = "img.example.com";
+    private static final long OPEN_MS = 100;
+
+    private HostCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        ImageProxyConfig config = new ImageProxyConfig();
+        ReflectionTestUtils.setField(config, "circuitFailureThreshold", 3);
+        ReflectionTestUtils.setField(config, "circuitOpenMs", OPEN_MS);
+        breaker = new HostCircuitBreaker(config);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.recordFailure(HOST);
+        breaker.recordFailure(HOST);
+        assertEquals("CLOSED", state());
+        assertTrue(breaker.allowRequest(HOST));
+
+        breaker.recordFailure(HOST);
+        assertEquals("OPEN", state());
+        assertTrue(breaker.isRejecting(HOST));
+        assertFalse(breaker.allowRequest(HOST));
+        assertEquals(1L, breaker.snapshot().get(HOST).get("rejected"));
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        breaker.recordFailure(HOST);
+        breaker.recordFailure(HOST);
+        breaker.recordSuccess(HOST);
+        breaker.recordFailure(HOST);
+        breaker.recordFailure(HOST);
+
+        assertEquals("CLOSED", state());
+        assertEquals(4L, breaker.snapshot().get(HOST).get("totalFailures"));
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbeThenClosesOnSuccess() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertFalse(breaker.isRejecting(HOST));
+        assertTrue(breaker.allowRequest(HOST));
+        assertEquals("HALF_OPEN", state());
+        // 시험 요청이 끝날 때까지 나머지는 차단
+        assertTrue(breaker.isRejecting(HOST));
+        assertFalse(breaker.allowRequest(HOST));
+
+        breaker.recordSuccess(HOST);
+        assertEquals("CLOSED", state());
+        assertTrue(breaker.allowRequest(HOST));
+    }
+
+    @Test
+    void failedProbeReopens() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertTrue(breaker.allowRequest(HOST));
+        breaker.recordFailure(HOST);
+
+        assertEquals("OPEN", state());
+        assertFalse(breaker.allowRequest(HOST));
+    }
+
+    @Test
+    void ignoredOutcomeReleasesProbe() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertTrue(breaker.allowRequest(HOST));
+        breaker.recordIgnored(HOST);
+
+        // 원본 상태와 무관한 실패: 상태는 그대로, 다음 요청이 다시 시험
+        assertEquals("HALF_OPEN", state());
+        assertTrue(breaker.allowRequest(HOST));
+    }
+
+    @Test
+    void hostsAreIndependent() {
+        open();
+        assertTrue(breaker.allowRequest("other.example.com"));
+        assertFalse(breaker.isRejecting("other.example.com"));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(HOST);
+        }
+    }
+
+    private Object state() {
+        return breaker.snapshot().get(HOST).get("state");
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.pop.service.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 이미지 헤더 정보 읽기 테스트 (EXIF 방향, WebP RIFF 헤더)
+ */
+class ImageMetadataReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final ImageMetadataReader reader = new ImageMetadataReader();
+
+    @Test
+    void readsPngSize() throws IOException {
+        Path file = write("a.png", encode("png", 30, 20));
+        assertEquals(new ImageMetadata(30, 20, "png", 1), reader.read(file));
+    }
+
+    @Test
+    void jpegWithoutExifHasDefaultOrientation() throws IOException {
+        Path file = write("a.jpg", encode("jpeg", 30, 20));
+        assertEquals(new ImageMetadata(30, 20, "jpeg", 1), reader.read(file));
+    }
+
+    @Test
+    void swapsSizeForRotatedExifOrientation() throws IOException {
+        // 방향 6 (90도 회전): 화면 기준 가로 / 세로가 바뀜
+        Path file = write("a.jpg", withExif(encode("jpeg", 30, 20), ByteOrder.BIG_ENDIAN, 6, 8));
+        assertEquals(new ImageMetadata(20, 30, "jpeg", 6), reader.read(file));
+    }
+
+    @Test
+    void readsLittleEndianExifOrientation() throws IOException {
+        // 방향 3 (180도 회전): 가로 / 세로는 그대로
+        Path file = write("a.jpg", withExif(encode("jpeg", 30, 20), ByteOrder.LITTLE_ENDIAN, 3, 8));
+        assertEquals(new ImageMetadata(30, 20, "jpeg", 3), reader.read(file));
+    }
+
+    @Test
+    void ignoresExifWithIfdOutsideSegment() throws IOException {
+        Path file = write("a.jpg", withExif(encode("jpeg", 30, 20), ByteOrder.BIG_ENDIAN, 6, 4000));
+        assertEquals(new ImageMetadata(30, 20, "jpeg", 1), reader.read(file));
+    }
+
+    @Test
+    void readsWebpExtendedHeader() throws IOException {
+        ByteBuffer chunk = riff("VP8X", 10);
+        chunk.putInt(0);                  // 플래그
+        putUint24(chunk, 640 - 1);
+        putUint24(chunk, 480 - 1);
+        assertEquals(new ImageMetadata(640, 480, "webp", 1), reader.read(write("a.webp", chunk.array())));
+    }
+
+    @Test
+    void readsWebpLossyHeader() throws IOException {
+        ByteBuffer chunk = riff("VP8 ", 10);
+        chunk.put(new byte[]{0, 0, 0});   // 프레임 태그
+        chunk.put(new byte[]{(byte) 0x9d, 0x01, 0x2a});
+        chunk.putShort((short) 300);
+        chunk.putShort((short) 200);
+        assertEquals(new ImageMetadata(300, 200, "webp", 1), reader.read(write("a.webp", chunk.array())));
+    }
+
+    @Test
+    void readsWebpLosslessHeader() throws IOException {
+        ByteBuffer chunk = riff("VP8L", 5);
+        chunk.put((byte) 0x2f);
+        chunk.putInt((1000 - 1) | ((750 - 1) << 14));
+        assertEquals(new ImageMetadata(1000, 750, "webp", 1), reader.read(write("a.webp", chunk.array())));
+    }
+
+    @Test
+    void rejectsWebpWithBadFrameStartCode() throws IOException {
+        ByteBuffer chunk = riff("VP8 ", 10);
+        chunk.put(new byte[]{0, 0, 0, 0x01, 0x02, 0x03});
+        assertNull(reader.read(write("a.webp", chunk.array())));
+    }
+
+    @Test
+    void returnsNullForNonImageOrMissingFile() throws IOException {
+        assertNull(reader.read(write("a.txt", "not an image at all, just some text".getBytes(StandardCharsets.US_ASCII))));
+        assertNull(reader.read(write("short.webp", "RIFF".getBytes(StandardCharsets.US_ASCII))));
+        assertNull(reader.read(dir.resolve("missing.png")));
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(dir.resolve(name), content);
+    }
+
+    private static byte[] encode(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * SOI 바로 뒤에 방향 태그 1개를 가진 EXIF(APP1) 세그먼트 삽입
+     */
+    private static byte[] withExif(byte[] jpeg, ByteOrder order, int orientation, int ifdOffset) {
+        ByteBuffer tiff = ByteBuffer.allocate(8 + 2 + 12 + 4).order(order);
+        tiff.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'M' : (byte) 'I');
+        tiff.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'M' : (byte) 'I');
+        tiff.putShort((short) 42);
+        tiff.putInt(ifdOffset);
+        tiff.putShort((short) 1);         // 항목 수
+        tiff.putShort((short) 0x0112);    // 방향
+        tiff.putShort((short) 3);         // SHORT
+        tiff.putInt(1);
+        tiff.putShort((short) orientation);
+        tiff.putShort((short) 0);
+        tiff.putInt(0);                   // 다음 IFD 없음
+
+        byte[] exif = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        int length = 2 + exif.length + tiff.capacity();
+        ByteBuffer result = ByteBuffer.allocate(jpeg.length + 2 + length);
+        result.put(jpeg, 0, 2);           // SOI
+        result.putShort((short) 0xFFE1);
+        result.putShort((short) length);
+        result.put(exif);
+        result.put(tiff.array());
+        result.put(jpeg, 2, jpeg.length - 2);
+        return result.array();
+    }
+
+    /**
+     * RIFF....WEBP + 청크 헤더, 이후 청크 본문은 호출하는 쪽에서 기록 (리틀 엔디언, 30바이트 이상)
+     */
+    private static ByteBuffer riff(String chunkType, int chunkSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(64 - 8);
+        buffer.put("WEBP".getBytes(StandardCharsets.US_ASCII));
+        buffer.put(chunkType.getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(chunkSize);
+        return buffer;
+    }
+
+    private static void putUint24(ByteBuffer buffer, int value) {
+        buffer.put((byte) value);
+        buffer.put((byte) (value >>> 8));
+        buffer.put((byte) (value >>> 16));
+    }
+}
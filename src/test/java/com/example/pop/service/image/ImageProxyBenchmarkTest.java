@@ -0,0 +1,178 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 이미지 프록시 원본 요청 처리량 벤치마크
+ *
+ * 로컬 스텁 이미지 서버(응답 지연 200ms)에 상품 검색 그리드 1회 = 이미지 20건을
+ * 동시 50 / 500 그리드로 요청하여, 기존 방식(요청 스레드 200개에서 HttpURLConnection 블로킹 호출)과
+ * 공유 HttpClient sendAsync 방식의 처리량을 비교한다.
+ *
+ * 실행: mvn test -Dtest=ImageProxyBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ImageProxyBenchmarkTest {
+
+    private static final int IMAGES_PER_GRID = 20;
+    private static final int IMAGE_SIZE = 30 * 1024;
+    private static final long UPSTREAM_DELAY_MS = 200;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int STREAM_THREADS = 16;
+
+    private static HttpServer stubServer;
+    private static ScheduledExecutorService delayer;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startStubServer() throws Exception {
+        byte[] image = new byte[IMAGE_SIZE];
+        delayer = Executors.newScheduledThreadPool(16);
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // 느린 원본 서버 흉내: 스레드를 재우지 않고 지연 후 응답 (스텁 자체가 병목이 되지 않도록)
+        stubServer.createContext("/img", exchange -> delayer.schedule(() -> {
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+                exchange.sendResponseHeaders(200, image.length);
+                out.write(image);
+            } catch (IOException e) {
+                exchange.close();
+            }
+        }, UPSTREAM_DELAY_MS, TimeUnit.MILLISECONDS));
+        stubServer.setExecutor(Executors.newFixedThreadPool(8));
+        stubServer.start();
+        baseUrl = "http://127.0.0.1:" + stubServer.getAddress().getPort() + "/img";
+    }
+
+    @AfterAll
+    static void stopStubServer() {
+        stubServer.stop(0);
+        delayer.shutdownNow();
+    }
+
+    @Test
+    void compareThroughput() throws Exception {
+        ImageProxyService service = newAsyncService();
+
+        System.out.println();
+        System.out.println("| 동시 그리드 | 방식 | 이미지 수 | 소요(ms) | 처리량(img/s) |");
+        System.out.println("|---|---|---|---|---|");
+        for (int grids : new int[]{50, 500}) {
+            report(grids, "HttpURLConnection (블로킹, 스레드 " + TOMCAT_THREADS + ")", runBlocking(grids));
+            report(grids, "HttpClient sendAsync (본문 전송 스레드 " + STREAM_THREADS + ")", runAsync(service, grids));
+        }
+    }
+
+    private long runBlocking(int grids) throws Exception {
+        ExecutorService tomcatPool = Executors.newFixedThreadPool(TOMCAT_THREADS);
+        long start = System.nanoTime();
+
+        List<Future<Long>> results = new ArrayList<>();
+        for (int g = 0; g < grids; g++) {
+            for (int i = 0; i < IMAGES_PER_GRID; i++) {
+                String url = baseUrl + "?g=" + g + "&i=" + i;
+                results.add(tomcatPool.submit(() -> {
+                    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+                    connection.setConnectTimeout(5000);
+                    connection.setReadTimeout(5000);
+                    try (InputStream in = connection.getInputStream()) {
+                        return (long) in.readAllBytes().length;
+                    }
+                }));
+            }
+        }
+        for (Future<Long> result : results) {
+            assertEquals(IMAGE_SIZE, result.get().longValue());
+        }
+
+        tomcatPool.shutdown();
+        tomcatPool.awaitTermination(1, TimeUnit.MINUTES);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private long runAsync(ImageProxyService service, int grids) throws Exception {
+        // 응답 본문 전송은 MVC 비동기 실행기처럼 작은 고정 풀에서 처리
+        ExecutorService streamPool = Executors.newFixedThreadPool(STREAM_THREADS);
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Long>> results = new ArrayList<>();
+        for (int g = 0; g < grids; g++) {
+            for (int i = 0; i < IMAGES_PER_GRID; i++) {
+                String url = baseUrl + "?g=" + g + "&i=" + i;
+                results.add(service.openUpstream(url).thenApplyAsync(upstream -> {
+                    try (UpstreamImage in = upstream) {
+                        return (long) in.getInputStream().readAllBytes().length;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, streamPool));
+            }
+        }
+        for (CompletableFuture<Long> result : results) {
+            assertEquals(IMAGE_SIZE, result.join().longValue());
+        }
+
+        streamPool.shutdown();
+        streamPool.awaitTermination(1, TimeUnit.MINUTES);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void report(int grids, String mode, long elapsedMs) {
+        int images = grids * IMAGES_PER_GRID;
+        System.out.printf("| %d | %s | %d | %d | %.1f |%n",
+                grids, mode, images, elapsedMs, images * 1000.0 / elapsedMs);
+    }
+
+    private ImageProxyService newAsyncService() {
+        ImageProxyConfig config = new ImageProxyConfig();
+        ReflectionTestUtils.setField(config, "cacheEnabled", false);
+        ReflectionTestUtils.setField(config, "cacheDir", System.getProperty("java.io.tmpdir"));
+        ReflectionTestUtils.setField(config, "cacheMaxSizeMb", 64L);
+        ReflectionTestUtils.setField(config, "cacheTtlSeconds", 86400L);
+        ReflectionTestUtils.setField(config, "maxImageSizeMb", 20L);
+        ReflectionTestUtils.setField(config, "bufferSize", 8192);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(config, "downloadTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerHost", 512);
+        ReflectionTestUtils.setField(config, "maxQueuedPerHost", 100000);
+        ReflectionTestUtils.setField(config, "hostQueueTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(config, "circuitFailureThreshold", 5);
+        ReflectionTestUtils.setField(config, "circuitOpenMs", 30000L);
+        ReflectionTestUtils.setField(config, "negativeCacheNotFoundTtlMs", 60000L);
+        ReflectionTestUtils.setField(config, "negativeCacheTimeoutTtlMs", 10000L);
+        ReflectionTestUtils.setField(config, "negativeCacheMaxEntries", 10000);
+
+        ImageProxyCacheService cacheService = new ImageProxyCacheService(config);
+        return new ImageProxyServiceImpl(
+                config,
+                cacheService,
+                new HostConcurrencyLimiter(config),
+                new HostCircuitBreaker(config),
+                config.imageProxyHttpClient()
+        );
+    }
+}
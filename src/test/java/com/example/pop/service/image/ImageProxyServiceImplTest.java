@@ -0,0 +1,200 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageProxyConfig;
+import com.example.pop.exception.ImageProxyException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 이미지 프록시 원본 다운로드 테스트 (로컬 스텁 서버)
+ */
+class ImageProxyServiceImplTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer stubServer;
+    private String baseUrl;
+    private ImageProxyConfig config;
+    private HostConcurrencyLimiter limiter;
+    private ImageProxyServiceImpl service;
+
+    private final CountDownLatch slowClientGone = new CountDownLatch(1);
+    private final AtomicInteger delayedHits = new AtomicInteger();
+    private final byte[] image = new byte[4096];
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        // 헤더는 바로 보내고 본문은 아주 느리게 전송 (클라이언트가 연결을 끊으면 쓰기 실패)
+        stubServer.createContext("/slow", exchange -> {
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().set("Content-Type", "image/png");
+                exchange.sendResponseHeaders(200, 0);
+                for (int i = 0; i < 100; i++) {
+                    out.write(new byte[1024]);
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (IOException e) {
+                slowClientGone.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // 응답 헤더를 500ms 뒤에 보내는 원본 (호출 수 기록)
+        stubServer.createContext("/delayed", exchange -> {
+            delayedHits.incrementAndGet();
+            try (OutputStream out = exchange.getResponseBody()) {
+                Thread.sleep(500);
+                exchange.getResponseHeaders().set("Content-Type", "image/png");
+                exchange.sendResponseHeaders(200, image.length);
+                out.write(image);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stubServer.setExecutor(Executors.newFixedThreadPool(8));
+        stubServer.start();
+        baseUrl = "http://127.0.0.1:" + stubServer.getAddress().getPort();
+
+        config = new ImageProxyConfig();
+        ReflectionTestUtils.setField(config, "cacheEnabled", true);
+        ReflectionTestUtils.setField(config, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(config, "cacheMaxSizeMb", 64L);
+        ReflectionTestUtils.setField(config, "cacheTtlSeconds", 86400L);
+        ReflectionTestUtils.setField(config, "maxImageSizeMb", 20L);
+        ReflectionTestUtils.setField(config, "bufferSize", 8192);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "downloadTimeoutMs", 300L);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerHost", 1);
+        ReflectionTestUtils.setField(config, "maxQueuedPerHost", 10);
+        ReflectionTestUtils.setField(config, "hostQueueTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "coalesceWaitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "circuitFailureThreshold", 5);
+        ReflectionTestUtils.setField(config, "circuitOpenMs", 30000L);
+        ReflectionTestUtils.setField(config, "negativeCacheNotFoundTtlMs", 60000L);
+        ReflectionTestUtils.setField(config, "negativeCacheTimeoutTtlMs", 0L);
+        ReflectionTestUtils.setField(config, "negativeCacheMaxEntries", 10000);
+
+        ImageProxyCacheService cacheService = new ImageProxyCacheService(config);
+        cacheService.loadIndex();
+        limiter = new HostConcurrencyLimiter(config);
+        service = new ImageProxyServiceImpl(config, cacheService, limiter, new HostCircuitBreaker(config),
+                config.imageProxyHttpClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.stop(0);
+    }
+
+    @Test
+    void downloadTimeoutAbortsExchangeBeforeReleasingHostPermit() throws Exception {
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> service.getImage(baseUrl + "/slow").join());
+
+        ImageProxyException cause = assertInstanceOf(ImageProxyException.class, error.getCause());
+        assertEquals(504, cause.getStatus());
+        // 결과만 실패한 것이 아니라 원본 연결도 끊겨야 함
+        assertTrue(slowClientGone.await(5, TimeUnit.SECONDS), "제한 시간이 지나도 원본 교환이 계속됨");
+        assertEquals(0, hostSnapshot().get("inUse"));
+    }
+
+    @Test
+    void streamingModeReleasesHostPermitAtDeadlineEvenIfBodyIsNeverRead() throws Exception {
+        // 스트리밍 응답이 실행되지 않은 경우 (비동기 요청 시간 초과 등): 스트림을 읽지도 닫지도 않음
+        UpstreamImage upstream = service.openUpstream(baseUrl + "/slow").get(5, TimeUnit.SECONDS);
+        assertEquals(1, hostSnapshot().get("inUse"));
+
+        assertTrue(slowClientGone.await(5, TimeUnit.SECONDS), "제한 시간이 지나도 원본 교환이 계속됨");
+        assertEquals(0, hostSnapshot().get("inUse"));
+
+        // 나중에 닫아도 두 번 반납하지 않음
+        upstream.close();
+        assertEquals(0, hostSnapshot().get("inUse"));
+    }
+
+    @Test
+    void streamingModeReadFailsAtDeadline() throws Exception {
+        try (UpstreamImage upstream = service.openUpstream(baseUrl + "/slow").get(5, TimeUnit.SECONDS)) {
+            IOException error = assertThrows(IOException.class,
+                    () -> upstream.getInputStream().transferTo(OutputStream.nullOutputStream()));
+            assertTrue(hasCause(error, HttpTimeoutException.class), error.toString());
+        }
+        assertEquals(0, hostSnapshot().get("inUse"));
+    }
+
+    @Test
+    void concurrentRequestsForSameUrlShareOneDownload() throws Exception {
+        ReflectionTestUtils.setField(config, "downloadTimeoutMs", 5000L);
+
+        List<CompletableFuture<CachedImage>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(service.getImage(baseUrl + "/delayed"));
+        }
+        // 정규화 후 같은 URL 이면 같은 다운로드에 합류
+        results.add(service.getImage(baseUrl.replace("http://", "HTTP://") + "/delayed#top"));
+
+        for (CompletableFuture<CachedImage> result : results) {
+            assertEquals(image.length, result.get(5, TimeUnit.SECONDS).getSize());
+        }
+        assertEquals(1, delayedHits.get());
+        assertEquals(0, service.getStats().get("inFlight"));
+    }
+
+    @Test
+    void waiterGivesUpAfterCoalesceTimeoutWithoutFailingDownload() throws Exception {
+        ReflectionTestUtils.setField(config, "downloadTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "coalesceWaitTimeoutMs", 100L);
+
+        CompletableFuture<CachedImage> first = service.getImage(baseUrl + "/delayed");
+        CompletableFuture<CachedImage> waiter = service.getImage(baseUrl + "/delayed");
+
+        CompletionException error = assertThrows(CompletionException.class, waiter::join);
+        assertEquals(504, assertInstanceOf(ImageProxyException.class, error.getCause()).getStatus());
+
+        // 대기자가 포기해도 진행 중인 다운로드는 그대로 완료되고 캐시됨
+        assertEquals(image.length, first.get(5, TimeUnit.SECONDS).getSize());
+        assertEquals(image.length, service.getImage(baseUrl + "/delayed").get(1, TimeUnit.SECONDS).getSize());
+        assertEquals(1, delayedHits.get());
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Object> hostSnapshot() {
+        return limiter.snapshot().get("127.0.0.1");
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.pop.service.image;
+
+import com.example.pop.config.ImageDecodeConfig;
+import com.example.pop.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 업로드 이미지 내용 검증 테스트 (시그니처, 픽셀 수 제한)
+ */
+class ImageValidatorTest {
+
+    @TempDir
+    Path dir;
+
+    private ImageValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        ImageDecodeConfig config = new ImageDecodeConfig();
+        ReflectionTestUtils.setField(config, "maxPixels", 10_000L);
+        validator = new ImageValidator(config, new ImageMetadataReader());
+    }
+
+    @Test
+    void detectsSupportedSignatures() {
+        assertEquals("jpeg", detect(0xFF, 0xD8, 0xFF, 0xE0));
+        assertEquals("png", detect(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A));
+        assertEquals("gif", detect('G', 'I', 'F', '8', '9', 'a'));
+        assertEquals("gif", detect('G', 'I', 'F', '8', '7', 'a'));
+        assertEquals("bmp", detect('B', 'M', 0, 0));
+        assertEquals("webp", detect('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'));
+    }
+
+    @Test
+    void rejectsUnknownOrShortSignatures() {
+        assertNull(detect('%', 'P', 'D', 'F', '-', '1'));
+        assertNull(detect('<', 's', 'v', 'g', ' '));
+        assertNull(detect('G', 'I', 'F', '8', '8', 'a'));
+        assertNull(detect('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'A', 'V', 'E'));
+        // 시그니처 길이보다 짧으면 판별하지 않음
+        assertNull(detect(0x89, 'P', 'N', 'G'));
+        assertNull(detect(0xFF, 0xD8));
+        assertNull(detect());
+    }
+
+    @Test
+    void signatureCheckKeepsStreamFromStart() throws IOException {
+        byte[] png = encode("png", 10, 10);
+        InputStream checked = validator.requireImageSignature(new ByteArrayInputStream(png));
+        assertArrayEquals(png, checked.readAllBytes());
+    }
+
+    @Test
+    void signatureCheckRejectsNonImageBeforeReadingBody() {
+        byte[] html = "<html><body>not an image</body></html>".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(InvalidRequestException.class, () -> validator.requireImageSignature(new ByteArrayInputStream(html)));
+    }
+
+    @Test
+    void validateReturnsMetadata() throws IOException {
+        Path file = Files.write(dir.resolve("a.png"), encode("png", 100, 50));
+        assertEquals(new ImageMetadata(100, 50, "png", 1), validator.validate(file));
+    }
+
+    @Test
+    void validateRejectsTooManyPixels() throws IOException {
+        Path file = Files.write(dir.resolve("big.png"), encode("png", 101, 100));
+        assertThrows(InvalidRequestException.class, () -> validator.validate(file));
+    }
+
+    @Test
+    void validateRejectsCorruptImageWithValidSignature() throws IOException {
+        byte[] png = encode("png", 10, 10);
+        Path file = Files.write(dir.resolve("broken.png"), Arrays.copyOf(png, 12));
+        assertThrows(InvalidRequestException.class, () -> validator.validate(file));
+    }
+
+    private static String detect(int... values) {
+        byte[] head = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            head[i] = (byte) values[i];
+        }
+        return ImageValidator.detectFormat(head, head.length);
+    }
+
+    private static byte[] encode(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+}
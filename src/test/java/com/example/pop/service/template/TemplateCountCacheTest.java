@@ -0,0 +1,92 @@
+package com.example.pop.service.template;
+
+import com.example.pop.config.TemplateCacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 마트 템플릿 개수 캐시 테스트 (유효 시간, 제거 후 조회 결과 무시, 마트별 제거, 최대 항목 수)
+ */
+class TemplateCountCacheTest {
+
+    private static final CommonTemplateCache.Filter ALL = CommonTemplateCache.Filter.of(null, null, null, null, null);
+    private static final CommonTemplateCache.Filter A4 = CommonTemplateCache.Filter.of("A4", null, null, null, null);
+
+    @Test
+    void returnsCountUntilExpired() throws Exception {
+        TemplateCountCache cache = cache(100, 1);
+
+        cache.put("m001", ALL, 12, cache.generation());
+        assertEquals(12, cache.get("m001", ALL));
+        // 필터가 다르면 다른 항목
+        assertNull(cache.get("m001", A4));
+
+        Thread.sleep(1100);
+        assertNull(cache.get("m001", ALL));
+    }
+
+    @Test
+    void ignoresCountReadBeforeEviction() {
+        TemplateCountCache cache = cache(100, 60);
+
+        long readGeneration = cache.generation();
+        // 조회하는 사이에 템플릿이 등록되어 제거됨
+        cache.evict("m001");
+        cache.put("m001", ALL, 12, readGeneration);
+        assertNull(cache.get("m001", ALL));
+
+        cache.put("m001", ALL, 13, cache.generation());
+        assertEquals(13, cache.get("m001", ALL));
+    }
+
+    @Test
+    void evictRemovesOnlyThatMart() {
+        TemplateCountCache cache = cache(100, 60);
+
+        cache.put("m001", ALL, 12, cache.generation());
+        cache.put("m001", A4, 3, cache.generation());
+        cache.put("m002", ALL, 7, cache.generation());
+
+        cache.evict("m001");
+
+        assertNull(cache.get("m001", ALL));
+        assertNull(cache.get("m001", A4));
+        assertEquals(7, cache.get("m002", ALL));
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedOverMaxEntries() {
+        TemplateCountCache cache = cache(2, 60);
+
+        cache.put("m001", ALL, 1, cache.generation());
+        cache.put("m002", ALL, 2, cache.generation());
+        // m001 을 최근 사용으로
+        assertEquals(1, cache.get("m001", ALL));
+        cache.put("m003", ALL, 3, cache.generation());
+
+        assertEquals(1, cache.get("m001", ALL));
+        assertNull(cache.get("m002", ALL));
+        assertEquals(3, cache.get("m003", ALL));
+    }
+
+    @Test
+    void disabledWhenMaxEntriesOrTtlIsZero() {
+        TemplateCountCache noEntries = cache(0, 60);
+        noEntries.put("m001", ALL, 12, noEntries.generation());
+        assertNull(noEntries.get("m001", ALL));
+
+        TemplateCountCache noTtl = cache(100, 0);
+        noTtl.put("m001", ALL, 12, noTtl.generation());
+        assertNull(noTtl.get("m001", ALL));
+    }
+
+    private static TemplateCountCache cache(int maxEntries, long ttlSeconds) {
+        TemplateCacheConfig config = new TemplateCacheConfig();
+        ReflectionTestUtils.setField(config, "countMaxEntries", maxEntries);
+        ReflectionTestUtils.setField(config, "countTtlSeconds", ttlSeconds);
+        return new TemplateCountCache(config);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.pop.service.template;
+
+import com.example.pop.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 키셋 페이징 cursor 인코딩 / 디코딩 테스트
+ */
+class TemplateCursorTest {
+
+    @Test
+    void roundTrips() {
+        for (long tplSeq : new long[]{1L, 42L, 1_000_000L, Long.MAX_VALUE}) {
+            assertEquals(tplSeq, TemplateServiceImpl.decodeCursor(TemplateServiceImpl.encodeCursor(tplSeq)));
+        }
+    }
+
+    @Test
+    void isUrlSafeWithoutPadding() {
+        String cursor = TemplateServiceImpl.encodeCursor(12345L);
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+        // 앞뒤 공백은 무시
+        assertEquals(12345L, TemplateServiceImpl.decodeCursor(" " + cursor + " "));
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertNull(TemplateServiceImpl.decodeCursor(null));
+        assertNull(TemplateServiceImpl.decodeCursor(""));
+        assertNull(TemplateServiceImpl.decodeCursor("   "));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> TemplateServiceImpl.decodeCursor("not base64!"));
+        // 숫자만 보낸 경우 (tpl_seq 를 직접 넣은 요청)
+        assertThrows(InvalidRequestException.class, () -> TemplateServiceImpl.decodeCursor("100"));
+        assertThrows(InvalidRequestException.class, () -> TemplateServiceImpl.decodeCursor(encode("s2:100")));
+        assertThrows(InvalidRequestException.class, () -> TemplateServiceImpl.decodeCursor(encode("s1:abc")));
+        assertThrows(InvalidRequestException.class, () -> TemplateServiceImpl.decodeCursor(encode("s1:")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.pop.service.template;
+
+import com.example.pop.config.FileUploadConfig;
+import com.example.pop.config.ImageDecodeConfig;
+import com.example.pop.exception.FileUploadException;
+import com.example.pop.exception.InvalidRequestException;
+import com.example.pop.mapper.PopTemplateMapper;
+import com.example.pop.service.file.ChunkedUploadService;
+import com.example.pop.service.file.FileStorageService;
+import com.example.pop.service.file.ImageDerivativeService;
+import com.example.pop.service.file.StoredFile;
+import com.example.pop.service.image.ImageMetadataReader;
+import com.example.pop.service.image.ImageValidator;
+import com.example.pop.vo.MartIpVO;
+import com.example.pop.vo.PopTemplateVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 템플릿 등록 / 삭제 시 업로드 파일 참조 처리 테스트 (DB 는 mock, 파일은 임시 디렉토리)
+ */
+class TemplateServiceImplTest {
+
+    private static final String URL_PATH = "/uploads/templates";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileUploadConfig config;
+    private FileStorageService fileStorageService;
+    private PopTemplateMapper mapper;
+    private ChunkedUploadService chunkedUploadService;
+    private TransactionTemplate transactionTemplate;
+    private CategoryTreeCache categoryTreeCache;
+    private TemplateCountCache templateCountCache;
+    private TemplateServiceImpl service;
+    private byte[] image;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new FileUploadConfig();
+        ReflectionTestUtils.setField(config, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(config, "urlPath", URL_PATH);
+        ReflectionTestUtils.setField(config, "contentAddressed", true);
+        ReflectionTestUtils.setField(config, "sharded", true);
+        ReflectionTestUtils.setField(config, "storeThreads", 2);
+        ReflectionTestUtils.setField(config, "storeQueueSize", 10);
+        ReflectionTestUtils.setField(config, "releaseGraceSeconds", 0L);
+        ReflectionTestUtils.setField(config, "streamMaxFileSize", 1024L * 1024);
+        ReflectionTestUtils.setField(config, "streamMaxFiles", 2);
+        ReflectionTestUtils.setField(config, "streamMaxFieldSize", 64 * 1024);
+
+        ImageDecodeConfig decodeConfig = new ImageDecodeConfig();
+        ReflectionTestUtils.setField(decodeConfig, "maxPixels", 40_000_000L);
+        fileStorageService = new FileStorageService(config, event -> { },
+                new ImageValidator(decodeConfig, new ImageMetadataReader()));
+
+        mapper = mock(PopTemplateMapper.class);
+        chunkedUploadService = mock(ChunkedUploadService.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        categoryTreeCache = mock(CategoryTreeCache.class);
+        templateCountCache = mock(TemplateCountCache.class);
+
+        service = newService(fileStorageService);
+
+        image = png(4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        fileStorageService.shutdown();
+    }
+
+    @Test
+    void saveMyTemplateStoresCanonicalBackgroundUrl() throws Exception {
+        String url = store();
+        when(mapper.insertTemplate(any())).thenReturn(1);
+
+        String aliased = URL_PATH + "/./" + url.substring(URL_PATH.length() + 1);
+        service.saveMyTemplate("내 템플릿", "A4", "과일", aliased, null, null, null, "{}", null, user("m001"));
+
+        ArgumentCaptor<PopTemplateVO> inserted = ArgumentCaptor.forClass(PopTemplateVO.class);
+        verify(mapper).insertTemplate(inserted.capture());
+        assertEquals(url, inserted.getValue().getBgImgUrl());
+    }
+
+    @Test
+    void saveMyTemplateRejectsBackgroundOutsideUploads() throws Exception {
+        String url = store();
+        String fileName = url.substring(url.lastIndexOf('/') + 1);
+
+        for (String bgImgUrl : new String[]{"https://x/" + fileName, "/other/" + fileName, URL_PATH + "/../" + fileName}) {
+            assertThrows(InvalidRequestException.class, () -> service.saveMyTemplate(
+                    "내 템플릿", "A4", "과일", bgImgUrl, null, null, null, "{}", null, user("m001")), bgImgUrl);
+        }
+        verify(mapper, never()).insertTemplate(any());
+    }
+
+    @Test
+    void deletingTemplateWithAliasedUrlKeepsSharedFile() throws Exception {
+        String url = store();
+        Path file = fileStorageService.resolvePath(url);
+        String relativePath = url.substring(URL_PATH.length() + 1);
+
+        // 예전에 "./" 가 들어간 URL 로 저장된 우리매장 템플릿, 같은 파일을 공통 템플릿이 정상 URL 로 참조 중
+        PopTemplateVO template = new PopTemplateVO();
+        template.setTplSeq(10L);
+        template.setIsCommon("N");
+        template.setMartCd("m001");
+        template.setBgImgUrl(URL_PATH + "/./" + relativePath);
+        when(mapper.selectByTplSeq(10L)).thenReturn(template);
+        when(mapper.deleteTemplate(10L)).thenReturn(1);
+        when(mapper.countFileReferences(anyString(), eq(relativePath))).thenReturn(1);
+
+        service.deleteTemplate(10L, user("m001"));
+
+        verify(mapper).countFileReferences(template.getBgImgUrl(), relativePath);
+        assertTrue(Files.exists(file), "공통 템플릿이 쓰는 파일이 삭제됨");
+    }
+
+    @Test
+    void streamingUploadDiscardsOwnFilesWhenFieldIsMissing() throws Exception {
+        // 이어 올리기로 미리 올려 둔 파일 (이 요청이 저장한 파일이 아니므로 유지)
+        String chunkedUrl = store();
+        when(chunkedUploadService.getCompleted("a4", "u1"))
+                .thenReturn(new ChunkedUploadService.CompletedUpload("c.png", chunkedUrl, null));
+
+        Multipart body = new Multipart()
+                .field("uploadIds", "u1")
+                .file("a.png", png(5))
+                .field("layoutType", "A4"); // templateName 없음
+        assertThrows(InvalidRequestException.class, () -> service.createCommonTemplatesStreaming(
+                Multipart.CONTENT_TYPE, body.stream(), user("a4")));
+
+        assertEquals(1, uploadedFiles(), "이 요청이 저장한 파일이 남음");
+        assertTrue(Files.exists(fileStorageService.resolvePath(chunkedUrl)));
+        verify(mapper, never()).insertTemplates(any());
+    }
+
+    @Test
+    void streamingUploadDiscardsOwnFilesWhenLaterPartIsRejected() throws Exception {
+        Multipart body = new Multipart()
+                .field("templateName", "행사")
+                .field("layoutType", "A4")
+                .file("a.png", png(5))
+                .file("b.png", png(6))
+                .file("c.png", png(7)); // 최대 2개
+        assertThrows(InvalidRequestException.class, () -> service.createCommonTemplatesStreaming(
+                Multipart.CONTENT_TYPE, body.stream(), user("a4")));
+
+        assertEquals(0, uploadedFiles());
+    }
+
+    @Test
+    void streamingUploadDiscardsOwnFilesWhenInsertFails() throws Exception {
+        when(mapper.insertTemplates(any())).thenThrow(new IllegalStateException("insert 실패"));
+
+        Multipart body = new Multipart()
+                .field("templateName", "행사")
+                .field("layoutType", "A4")
+                .file("a.png", png(5));
+        assertThrows(IllegalStateException.class, () -> service.createCommonTemplatesStreaming(
+                Multipart.CONTENT_TYPE, body.stream(), user("a4")));
+
+        assertEquals(0, uploadedFiles());
+    }
+
+    private long uploadedFiles() throws Exception {
+        try (var files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] png(int size) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * multipart/form-data 본문 작성
+     */
+    private static class Multipart {
+
+        static final String BOUNDARY = "test-boundary";
+        static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Multipart field(String name, String value) {
+            write("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n");
+            return this;
+        }
+
+        Multipart file(String filename, byte[] content) {
+            write("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"templateImages\"; filename=\"" + filename
+                    + "\"\r\nContent-Type: image/png\r\n\r\n");
+            out.writeBytes(content);
+            write("\r\n");
+            return this;
+        }
+
+        InputStream stream() {
+            write("--" + BOUNDARY + "--\r\n");
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+
+        private void write(String text) {
+            out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void failedThumbnailWriteRemovesRowAndEvictsCachesAgain() {
+        FileStorageService failingStorage = mock(FileStorageService.class);
+        when(failingStorage.isImageFile(any())).thenReturn(true);
+        when(failingStorage.storeFileAsync(any())).thenReturn(new StoredFile("/uploads/templates/ab/cd/t.png", null,
+                CompletableFuture.failedFuture(new FileUploadException("디스크 오류"))));
+        when(mapper.insertTemplate(any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, PopTemplateVO.class).setTplSeq(20L);
+            return 1;
+        });
+        when(mapper.deleteTemplate(20L)).thenReturn(1);
+
+        MockMultipartFile thumbnail = new MockMultipartFile("thumbnailImage", "t.png", "image/png", image);
+        assertThrows(FileUploadException.class, () -> newService(failingStorage).saveMyTemplate(
+                "내 템플릿", "A4", "과일", null, null, null, null, "{}", thumbnail, user("m001")));
+
+        verify(mapper).deleteTemplate(20L);
+        // 등록 때 한 번, 되돌린 뒤 한 번 더 (그 사이 캐시된 개수 / 트리에 지운 행이 남지 않도록)
+        verify(categoryTreeCache, times(2)).evict("m001");
+        verify(templateCountCache, times(2)).evict("m001");
+    }
+
+    private TemplateServiceImpl newService(FileStorageService storage) {
+        return new TemplateServiceImpl(
+                mapper,
+                storage,
+                mock(ImageDerivativeService.class),
+                config,
+                transactionTemplate,
+                chunkedUploadService,
+                new ImageMetadataReader(),
+                mock(TemplateDetailCache.class),
+                mock(CommonTemplateCache.class),
+                categoryTreeCache,
+                templateCountCache
+        );
+    }
+
+    private String store() throws Exception {
+        return fileStorageService.storeStream(new ByteArrayInputStream(image), "bg.png", image.length).getUrl();
+    }
+
+    private static MartIpVO user(String id) {
+        MartIpVO user = new MartIpVO();
+        user.setId(id);
+        return user;
+    }
+}